@@ -0,0 +1,118 @@
+package com.tenpo.challenge.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cache L1 en memoria para el porcentaje, delante de Redis.
+ * <p>
+ * Guarda una única entrada (el porcentaje es un solo valor), por lo que está acotada por diseño
+ * y se actualiza sin locks mediante un {@link AtomicReference}. La expiración local nunca supera
+ * el TTL restante en Redis ni {@code app.percentage.near-cache.max-ttl}. Cuando un nodo escribe un
+ * nuevo valor publica un mensaje en {@link #INVALIDATION_CHANNEL} y el resto de nodos descarta su copia.
+ */
+@Component
+@Slf4j
+public class PercentageNearCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "external:percentage:invalidate";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final AtomicReference<Entry> entry = new AtomicReference<>();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${app.percentage.near-cache.max-ttl}")
+    private long maxTtlSeconds;
+
+    public PercentageNearCache(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.hits = Counter.builder("percentage.near_cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("percentage.near_cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public Optional<Double> get() {
+        Entry current = entry.get();
+        if (current != null && current.expiresAtNanos - System.nanoTime() > 0) {
+            hits.increment();
+            return Optional.of(current.value);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Último valor conocido aunque haya expirado; sirve mientras otro nodo refresca el porcentaje.
+     */
+    public Optional<Double> getStale() {
+        Entry current = entry.get();
+        return current == null ? Optional.empty() : Optional.of(current.value);
+    }
+
+    public void put(double value, Duration ttl) {
+        Duration effectiveTtl = ttl.compareTo(Duration.ofSeconds(maxTtlSeconds)) > 0
+                ? Duration.ofSeconds(maxTtlSeconds)
+                : ttl;
+        if (effectiveTtl.isNegative() || effectiveTtl.isZero()) {
+            return;
+        }
+        entry.set(new Entry(value, System.nanoTime() + effectiveTtl.toNanos()));
+    }
+
+    /**
+     * Marca la entrada como expirada sin borrarla: {@link #get()} deja de servirla, pero {@link #getStale()}
+     * la sigue devolviendo mientras otro nodo refresca el porcentaje.
+     */
+    public void invalidate() {
+        long now = System.nanoTime();
+        entry.updateAndGet(current -> current == null ? null : new Entry(current.value, now));
+    }
+
+    /**
+     * Invalida la copia local y avisa al resto de nodos para que hagan lo mismo.
+     */
+    public void publishInvalidation() {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId);
+        } catch (Exception e) {
+            log.warn("[NearCache] No se pudo publicar la invalidación: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object sender = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (nodeId.equals(sender)) {
+            return;
+        }
+        log.info("[NearCache] Invalidación recibida desde el nodo {}", sender);
+        invalidate();
+    }
+
+    public long getHitCount() {
+        return (long) hits.count();
+    }
+
+    public long getMissCount() {
+        return (long) misses.count();
+    }
+
+    private record Entry(double value, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.tenpo.challenge.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Lease distribuido en Redis que garantiza que un solo nodo del cluster refresca
+ * {@code external:percentage} a la vez.
+ * <p>
+ * El lock se toma con {@code SET NX PX} guardando un token de fencing monotónico obtenido con
+ * {@code INCR}. La escritura del nuevo porcentaje y la liberación del lock se hacen con scripts Lua que
+ * comprueban que el token sigue siendo el dueño del lease, de modo que un nodo cuyo lease expiró
+ * (pausa de GC, red lenta) no pisa el valor escrito por el nuevo dueño.
+ */
+@Component
+@Slf4j
+public class PercentageRefreshLock {
+
+    private static final String LOCK_KEY = "external:percentage:lock";
+    private static final String FENCE_KEY = "external:percentage:lock:fence";
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private static final RedisScript<Long> FENCED_SET = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+                    + "redis.call('SET', KEYS[2], ARGV[2], 'PX', tonumber(ARGV[3])) return 1 "
+                    + "end return 0",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Counter acquired;
+    private final Counter contended;
+    private final Timer acquireTimer;
+    private final Timer waitTimer;
+
+    @Value("${app.percentage.refresh-lock.enabled}")
+    private boolean enabled;
+
+    @Value("${app.percentage.refresh-lock.lease-ms}")
+    private long leaseMs;
+
+    @Value("${app.percentage.refresh-lock.wait-ms}")
+    private long waitMs;
+
+    public PercentageRefreshLock(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.acquired = Counter.builder("percentage.refresh_lock.attempts")
+                .tag("outcome", "acquired")
+                .register(meterRegistry);
+        this.contended = Counter.builder("percentage.refresh_lock.attempts")
+                .tag("outcome", "contended")
+                .register(meterRegistry);
+        this.acquireTimer = Timer.builder("percentage.refresh_lock.acquire")
+                .description("Tiempo empleado en intentar tomar el lease de refresco")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("percentage.refresh_lock.wait")
+                .description("Tiempo que un nodo sin lease espera a que otro publique el porcentaje")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<Lease> tryAcquire() {
+        long start = System.nanoTime();
+        try {
+            Long token = redisTemplate.opsForValue().increment(FENCE_KEY);
+            if (token == null) {
+                return Optional.empty();
+            }
+            Boolean locked = redisTemplate.opsForValue()
+                    .setIfAbsent(LOCK_KEY, token, Duration.ofMillis(leaseMs));
+            if (Boolean.TRUE.equals(locked)) {
+                acquired.increment();
+                log.info("[RefreshLock] Lease adquirido con token {}", token);
+                return Optional.of(new Lease(token));
+            }
+            contended.increment();
+            return Optional.empty();
+        } finally {
+            acquireTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Escribe el porcentaje solo si el lease sigue perteneciendo a {@code lease}.
+     */
+    public boolean writeFenced(Lease lease, String valueKey, double value, Duration ttl) {
+        Long written = redisTemplate.execute(FENCED_SET, List.of(LOCK_KEY, valueKey),
+                lease.token(), value, ttl.toMillis());
+        if (written == null || written == 0) {
+            log.warn("[RefreshLock] Lease {} perdido, se descarta la escritura del porcentaje", lease.token());
+            return false;
+        }
+        return true;
+    }
+
+    public void release(Lease lease) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(LOCK_KEY), lease.token());
+        } catch (Exception e) {
+            log.warn("[RefreshLock] No se pudo liberar el lease {}: {}", lease.token(), e.getMessage());
+        }
+    }
+
+    /**
+     * Espera, como máximo {@code app.percentage.refresh-lock.wait-ms}, a que el nodo dueño del lease
+     * publique el nuevo valor; {@code read} hace cada consulta a Redis y devuelve vacío mientras no esté.
+     */
+    public <T> Optional<T> awaitValue(Supplier<Optional<T>> read) {
+        long start = System.nanoTime();
+        long deadline = start + Duration.ofMillis(waitMs).toNanos();
+        try {
+            while (System.nanoTime() - deadline < 0) {
+                Optional<T> value = read.get();
+                if (value.isPresent()) {
+                    return value;
+                }
+                Thread.sleep(POLL_INTERVAL_MS);
+            }
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            waitTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    public record Lease(long token) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.tenpo.challenge.client;
+
+import com.tenpo.challenge.service.PercentageProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Proveedor que consulta primero al primario y, si no respondió dentro del p95 de su latencia
+ * (acotado entre {@code minDelay} y {@code maxDelay}), lanza una petición de cobertura al secundario.
+ * Gana la primera respuesta correcta y la otra se cancela. Si el primario falla antes del plazo,
+ * la petición al secundario se lanza de inmediato.
+ * <p>
+ * La latencia del primario se registra también cuando se cancela porque ganó el secundario, con el tiempo
+ * transcurrido hasta la cancelación, para que un primario lento siga pesando en el p95.
+ */
+@Slf4j
+public class HedgingPercentageProvider implements PercentageProvider {
+
+    private final PercentageProvider primary;
+    private final PercentageProvider secondary;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final MeterRegistry meterRegistry;
+    private final Timer primaryLatency;
+
+    public HedgingPercentageProvider(PercentageProvider primary, PercentageProvider secondary,
+                                     Duration minDelay, Duration maxDelay, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.secondary = secondary;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.meterRegistry = meterRegistry;
+        this.primaryLatency = Timer.builder("percentage.provider.latency")
+                .tag("provider", primary.getName())
+                .publishPercentiles(0.95)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return primary.getName() + "+" + secondary.getName();
+    }
+
+    @Override
+    public CompletableFuture<Double> fetchPercentage() {
+        Attempt attempt = new Attempt();
+
+        long start = System.nanoTime();
+        CompletableFuture<Double> primaryCall = primary.fetchPercentage();
+        primaryCall.whenComplete((value, error) -> {
+            if (error == null) {
+                primaryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                attempt.win(value, primary);
+            } else if (primaryCall.isCancelled()) {
+                // Censurada: el primario habría tardado al menos esto. Sin esta muestra el p95 solo vería a los
+                // primarios que ganan, que por definición llegan antes del plazo, y el plazo se iría achicando
+                primaryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } else {
+                attempt.fail(error);
+                attempt.launchHedge("failover");
+            }
+        });
+
+        CompletableFuture.runAsync(() -> attempt.launchHedge("delay"),
+                CompletableFuture.delayedExecutor(hedgeDelay().toMillis(), TimeUnit.MILLISECONDS));
+
+        attempt.result.whenComplete((value, error) -> {
+            primaryCall.cancel(true);
+            CompletableFuture<Double> hedgeCall = attempt.hedgeCall.get();
+            if (hedgeCall != null) {
+                hedgeCall.cancel(true);
+            }
+        });
+        return attempt.result;
+    }
+
+    private class Attempt {
+        private final CompletableFuture<Double> result = new CompletableFuture<>();
+        private final AtomicBoolean hedgeLaunched = new AtomicBoolean();
+        private final AtomicReference<CompletableFuture<Double>> hedgeCall = new AtomicReference<>();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        void launchHedge(String reason) {
+            if (result.isDone() || !hedgeLaunched.compareAndSet(false, true)) {
+                return;
+            }
+            meterRegistry.counter("percentage.hedge.fired", "reason", reason).increment();
+            log.info("[Hedge] Consultando a {} ({})", secondary.getName(), reason);
+
+            CompletableFuture<Double> call = secondary.fetchPercentage();
+            hedgeCall.set(call);
+            if (result.isDone()) {
+                call.cancel(true);
+                return;
+            }
+            call.whenComplete((value, error) -> {
+                if (error == null) {
+                    win(value, secondary);
+                } else {
+                    fail(error);
+                }
+            });
+        }
+
+        void win(Double value, PercentageProvider provider) {
+            if (result.complete(value)) {
+                meterRegistry.counter("percentage.hedge.wins", "provider", provider.getName()).increment();
+            }
+        }
+
+        void fail(Throwable error) {
+            if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(error);
+            }
+        }
+    }
+
+    Duration hedgeDelay() {
+        if (primaryLatency.count() == 0) {
+            return maxDelay;
+        }
+        for (ValueAtPercentile percentile : primaryLatency.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.95) {
+                long p95Millis = (long) percentile.value(TimeUnit.MILLISECONDS);
+                return Duration.ofMillis(Math.max(minDelay.toMillis(), Math.min(maxDelay.toMillis(), p95Millis)));
+            }
+        }
+        return maxDelay;
+    }
+}
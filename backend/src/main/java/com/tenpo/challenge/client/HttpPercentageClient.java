@@ -0,0 +1,59 @@
+package com.tenpo.challenge.client;
+
+import com.tenpo.challenge.service.PercentageProvider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cliente HTTP no bloqueante para el proveedor externo de porcentaje.
+ * <p>
+ * Usa un único {@link HttpClient} por proveedor, por lo que las conexiones se reutilizan (HTTP/2 cuando
+ * el servidor lo soporta, keep-alive en HTTP/1.1). El timeout de conexión se aplica al cliente y el de
+ * lectura a cada petición.
+ */
+@Slf4j
+public class HttpPercentageClient implements PercentageProvider {
+
+    private final String name;
+    private final HttpClient httpClient;
+    private final HttpRequest request;
+
+    public HttpPercentageClient(String name, URI uri, Duration connectTimeout, Duration readTimeout) {
+        this.name = name;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.request = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CompletableFuture<Double> fetchPercentage() {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::toPercentage);
+    }
+
+    private double toPercentage(HttpResponse<byte[]> response) {
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new IllegalStateException("Proveedor " + name + " respondió HTTP " + response.statusCode());
+        }
+        double percentage = PercentageResponseParser.parse(response.body());
+        log.debug("Proveedor {} retornó: {}%", name, percentage);
+        return percentage;
+    }
+}
@@ -0,0 +1,65 @@
+package com.tenpo.challenge.client;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Extrae el porcentaje directamente de los bytes de la respuesta, sin construir un árbol JSON.
+ * <p>
+ * Acepta tanto un número plano ({@code 10.5}) como un objeto con la clave {@code percentage}
+ * ({@code {"percentage": 10.5}}).
+ */
+public final class PercentageResponseParser {
+
+    private static final byte[] KEY = "\"percentage\"".getBytes(StandardCharsets.US_ASCII);
+
+    private PercentageResponseParser() {
+    }
+
+    public static double parse(byte[] body) {
+        int position = indexOf(body, KEY);
+        if (position >= 0) {
+            position = skipWhitespace(body, position + KEY.length);
+            if (position >= body.length || body[position] != ':') {
+                throw new IllegalArgumentException("Respuesta sin valor para 'percentage'");
+            }
+            position++;
+        } else {
+            position = 0;
+        }
+        position = skipWhitespace(body, position);
+
+        int start = position;
+        while (position < body.length && isNumberChar(body[position])) {
+            position++;
+        }
+        if (start == position) {
+            throw new IllegalArgumentException("Respuesta sin porcentaje numérico");
+        }
+        return Double.parseDouble(new String(body, start, position - start, StandardCharsets.US_ASCII));
+    }
+
+    private static boolean isNumberChar(byte b) {
+        return (b >= '0' && b <= '9') || b == '.' || b == '-' || b == '+' || b == 'e' || b == 'E';
+    }
+
+    private static int skipWhitespace(byte[] body, int position) {
+        while (position < body.length
+                && (body[position] == ' ' || body[position] == '\t' || body[position] == '\n' || body[position] == '\r')) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int indexOf(byte[] body, byte[] key) {
+        outer:
+        for (int i = 0; i <= body.length - key.length; i++) {
+            for (int j = 0; j < key.length; j++) {
+                if (body[i + j] != key[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
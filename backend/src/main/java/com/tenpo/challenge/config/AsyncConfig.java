@@ -1,25 +1,84 @@
 package com.tenpo.challenge.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
-import java.util.concurrent.Executor;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "historyExecutor")
-    public Executor historyExecutor(){
+    /**
+     * Hilos de los trabajadores del historial ({@code CallHistoryWriter}, {@code CallJournalReplayer} y
+     * {@code CallHistoryOutboxConsumer}): cada uno pasa casi todo el tiempo esperando a Postgres o a Redis.
+     */
+    @Bean(name = "historyThreadFactory")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadFactory historyThreadFactory(){
+        return Thread.ofPlatform().daemon(true).factory();
+    }
+
+    /**
+     * Con hilos virtuales los trabajadores del historial también lo son; sus escrituras quedan acotadas por el
+     * semáforo de {@code app.virtual-threads.jdbc.*} como el resto de accesos a Postgres.
+     */
+    @Bean(name = "historyThreadFactory")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ThreadFactory virtualHistoryThreadFactory(){
+        return Thread.ofVirtual().factory();
+    }
+
+    /**
+     * Pools acotados de los endpoints asíncronos ({@code @Async("calculateExecutor")} y
+     * {@code @Async("historyReadExecutor")}): con la cola llena se rechaza la tarea ({@code TaskRejectedException},
+     * 503) en lugar de acumular peticiones que ya no llegarían a tiempo.
+     */
+    @Bean(name = "calculateExecutor")
+    public ThreadPoolTaskExecutor calculateExecutor(
+            @Value("${app.async.calculate.pool-size}") int poolSize,
+            @Value("${app.async.calculate.queue-capacity}") int queueCapacity){
+        return boundedExecutor("CalculateExecutor-", poolSize, queueCapacity);
+    }
+
+    @Bean(name = "historyReadExecutor")
+    public ThreadPoolTaskExecutor historyReadExecutor(
+            @Value("${app.async.history-read.pool-size}") int poolSize,
+            @Value("${app.async.history-read.queue-capacity}") int queueCapacity){
+        return boundedExecutor("HistoryReadExecutor-", poolSize, queueCapacity);
+    }
+
+    private static ThreadPoolTaskExecutor boundedExecutor(String threadNamePrefix, int poolSize, int queueCapacity){
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("HistoryExecutor-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
         executor.initialize();
         return executor;
     }
+
+    @Bean(name = "percentageRefreshTaskScheduler")
+    public ThreadPoolTaskScheduler percentageRefreshTaskScheduler(){
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("PercentageRefresh-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @Bean(name = "historyMaintenanceScheduler")
+    public ThreadPoolTaskScheduler historyMaintenanceScheduler(){
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("HistoryMaintenance-");
+        scheduler.initialize();
+        return scheduler;
+    }
 }
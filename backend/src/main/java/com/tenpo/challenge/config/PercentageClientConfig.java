@@ -0,0 +1,45 @@
+package com.tenpo.challenge.config;
+
+import com.tenpo.challenge.client.HedgingPercentageProvider;
+import com.tenpo.challenge.client.HttpPercentageClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.net.URI;
+import java.time.Duration;
+
+@Configuration
+public class PercentageClientConfig {
+
+    @Value("${app.external.http.connect-timeout-ms}")
+    private long connectTimeoutMs;
+
+    @Value("${app.external.http.read-timeout-ms}")
+    private long readTimeoutMs;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.external.percentage-url")
+    public HttpPercentageClient percentageClient(@Value("${app.external.percentage-url}") String url){
+        return new HttpPercentageClient("primary", URI.create(url),
+                Duration.ofMillis(connectTimeoutMs), Duration.ofMillis(readTimeoutMs));
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = {"app.external.percentage-url", "app.external.percentage-secondary-url"})
+    public HedgingPercentageProvider hedgingPercentageProvider(
+            HttpPercentageClient percentageClient,
+            @Value("${app.external.percentage-secondary-url}") String secondaryUrl,
+            @Value("${app.external.hedge.min-delay-ms}") long minDelayMs,
+            @Value("${app.external.hedge.max-delay-ms}") long maxDelayMs,
+            MeterRegistry meterRegistry){
+        HttpPercentageClient secondary = new HttpPercentageClient("secondary", URI.create(secondaryUrl),
+                Duration.ofMillis(connectTimeoutMs), Duration.ofMillis(readTimeoutMs));
+        return new HedgingPercentageProvider(percentageClient, secondary,
+                Duration.ofMillis(minDelayMs), Duration.ofMillis(maxDelayMs), meterRegistry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.tenpo.challenge.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Pool reactivo de conexiones para el historial cuando {@code app.history.store=r2dbc}. Usa las mismas credenciales
+ * que el {@code DataSource} JDBC, que sigue existiendo para Flyway y el resto de lecturas.
+ * <p>
+ * Solo se compila con el perfil de Maven {@code r2dbc}, que es el que añade los drivers; la autoconfiguración R2DBC
+ * de Spring Boot se excluye en {@code application-r2dbc.properties} para no crear un segundo pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.history.store", havingValue = "r2dbc")
+public class R2dbcConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool historyConnectionPool(
+            @Value("${app.history.r2dbc.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${app.history.r2dbc.pool.initial-size}") int initialSize,
+            @Value("${app.history.r2dbc.pool.max-size}") int maxSize,
+            @Value("${app.history.r2dbc.pool.max-idle-ms}") long maxIdleMs,
+            @Value("${app.history.r2dbc.pool.max-acquire-ms}") long maxAcquireMs){
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("history-r2dbc")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .maxAcquireTime(Duration.ofMillis(maxAcquireMs))
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient historyDatabaseClient(ConnectionPool historyConnectionPool){
+        return DatabaseClient.create(historyConnectionPool);
+    }
+}
@@ -0,0 +1,33 @@
+package com.tenpo.challenge.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * Cliente reactivo de Redis para el perfil {@code reactive}. Usa la misma conexión Lettuce y los mismos
+ * serializadores que el {@code RedisTemplate} de {@link RedisConfig}, así que ambos leen y escriben las mismas
+ * claves en el mismo formato.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveRedisConfig {
+
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(ReactiveRedisConnectionFactory factory,
+                                                                       ObjectMapper objectMapper){
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(new GenericJackson2JsonRedisSerializer(objectMapper))
+                .hashKey(new StringRedisSerializer())
+                .hashValue(new GenericJackson2JsonRedisSerializer(objectMapper))
+                .build();
+        return new ReactiveRedisTemplate<>(factory, context);
+    }
+}
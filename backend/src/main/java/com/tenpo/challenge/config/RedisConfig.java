@@ -1,8 +1,13 @@
 package com.tenpo.challenge.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.challenge.cache.PercentageNearCache;
+import com.tenpo.challenge.resilience.ConcurrencyLimiter;
+import com.tenpo.challenge.resilience.LimitedRedisTemplate;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,6 +16,8 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -32,8 +39,13 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory, ObjectMapper objectMapper){
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory, ObjectMapper objectMapper,
+            @Qualifier("redisConcurrencyLimiter") ObjectProvider<ConcurrencyLimiter> redisLimiter){
+        // Solo existe con hilos virtuales (VirtualThreadConfig)
+        ConcurrencyLimiter limiter = redisLimiter.getIfAvailable();
+        RedisTemplate<String, Object> template = limiter == null
+                ? new RedisTemplate<>()
+                : new LimitedRedisTemplate<>(limiter);
         template.setConnectionFactory(factory);
         template.setKeySerializer(new StringRedisSerializer());
         template.setValueSerializer(new GenericJackson2JsonRedisSerializer(objectMapper));
@@ -60,4 +72,13 @@ public class RedisConfig {
                 .build();
     }
 
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory,
+                                                                       PercentageNearCache nearCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(nearCache, new ChannelTopic(PercentageNearCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+
 }
@@ -0,0 +1,58 @@
+package com.tenpo.challenge.config;
+
+import com.tenpo.challenge.resilience.ConcurrencyLimiter;
+import com.tenpo.challenge.resilience.LimitedDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Límites de concurrencia para el modo de hilos virtuales ({@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * Con un hilo de plataforma por petición, Tomcat nunca tiene más de {@code server.tomcat.threads.max} peticiones
+ * usando Postgres o Redis a la vez. Con hilos virtuales ese tope desaparece, así que aquí se ponen semáforos delante
+ * del {@link DataSource} y del {@code RedisTemplate} (ver {@link RedisConfig}).
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public ConcurrencyLimiter jdbcConcurrencyLimiter(
+            @Value("${app.virtual-threads.jdbc.max-concurrent}") int maxConcurrent,
+            @Value("${app.virtual-threads.jdbc.max-wait-ms}") long maxWaitMs,
+            MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiter("jdbc", maxConcurrent, Duration.ofMillis(maxWaitMs), meterRegistry);
+    }
+
+    @Bean
+    public ConcurrencyLimiter redisConcurrencyLimiter(
+            @Value("${app.virtual-threads.redis.max-concurrent}") int maxConcurrent,
+            @Value("${app.virtual-threads.redis.max-wait-ms}") long maxWaitMs,
+            MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiter("redis", maxConcurrent, Duration.ofMillis(maxWaitMs), meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor limitedDataSourcePostProcessor(
+            @Qualifier("jdbcConcurrencyLimiter") ObjectProvider<ConcurrencyLimiter> jdbcLimiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LimitedDataSource)) {
+                    return new LimitedDataSource(dataSource, jdbcLimiter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,28 +1,52 @@
 package com.tenpo.challenge.controller;
 
+import com.tenpo.challenge.dto.CalculateBatchResponseDTO;
+import com.tenpo.challenge.dto.CalculatePairDTO;
 import com.tenpo.challenge.dto.CalculateResponseDTO;
 import com.tenpo.challenge.service.CalculatorService;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("tenpo/api/calculator")
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Validated
 public class CalculateController {
 
+    static final int MAX_BATCH_SIZE = 1000;
+
     private final CalculatorService calculatorService;
 
+    @Value("${app.async.calculate.timeout-ms}")
+    private long timeoutMs;
+
     @PostMapping("/calculate/{num1}/{num2}")
-    public ResponseEntity<CalculateResponseDTO> calculate(
+    public DeferredResult<ResponseEntity<CalculateResponseDTO>> calculate(
             @PathVariable @Min(0) Double num1,
             @PathVariable @Min(0) Double num2){
-        return ResponseEntity.ok(calculatorService.calculatePercentage(num1, num2));
+        return DeferredResponses.ok(calculatorService.calculatePercentageAsync(num1, num2), timeoutMs, "El cálculo");
+    }
+
+    @PostMapping("/calculate/batch")
+    public ResponseEntity<CalculateBatchResponseDTO> calculateBatch(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@NotNull @Valid CalculatePairDTO> pairs){
+        return ResponseEntity.ok(calculatorService.calculatePercentages(pairs));
     }
 }
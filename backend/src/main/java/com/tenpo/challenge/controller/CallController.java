@@ -1,36 +1,120 @@
 package com.tenpo.challenge.controller;
 
 import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallFilter;
+import com.tenpo.challenge.dto.CallSliceDTO;
+import com.tenpo.challenge.dto.ExportFormat;
+import com.tenpo.challenge.dto.KeysetPageDTO;
+import com.tenpo.challenge.service.CallExportService;
 import com.tenpo.challenge.service.CallService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("tenpo/api/calls")
 @RequiredArgsConstructor
+@Validated
 public class CallController {
 
     private final CallService callService;
+    private final CallExportService callExportService;
+
+    @Value("${app.async.history-read.timeout-ms}")
+    private long timeoutMs;
 
     @GetMapping()
-    public ResponseEntity<List<CallDTO>> getAllCalls(){
-        return ResponseEntity.ok(callService.getAllCalls());
+    public DeferredResult<ResponseEntity<List<CallDTO>>> getAllCalls(){
+        return DeferredResponses.ok(callService.getAllCallsAsync(), timeoutMs, "La lectura del historial");
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCalls(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ){
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 64 * 1024);
+                callExportService.exportCalls(exportFormat, gzipStream);
+                gzipStream.finish();
+            } else {
+                callExportService.exportCalls(exportFormat, outputStream);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("calls." + exportFormat.getExtension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @GetMapping("/paginated")
-    public ResponseEntity<Page<CallDTO>> getPaginatedCalls(
+    public DeferredResult<ResponseEntity<Page<CallDTO>>> getPaginatedCalls(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy
     ){
-        return ResponseEntity.ok(callService.getPaginatedCalls(page, size, sortBy));
+        return DeferredResponses.ok(callService.getPaginatedCallsAsync(page, size, sortBy), timeoutMs,
+                "La lectura del historial");
+    }
+
+    @GetMapping("/paginated/slice")
+    public DeferredResult<ResponseEntity<CallSliceDTO>> getCallSlice(
+            @RequestParam(defaultValue = "1") @Min(1) int page,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(500) int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String endpoint,
+            @RequestParam(required = false) Boolean success,
+            @RequestParam(name = "param", required = false) List<String> params
+    ){
+        CallFilter filter = CallFilter.of(from, to, endpoint, success, params);
+        return DeferredResponses.ok(callService.getCallSliceAsync(page, size, sortBy, withTotal, filter), timeoutMs,
+                "La lectura del historial");
+    }
+
+    @GetMapping("/paginated/keyset")
+    public DeferredResult<ResponseEntity<KeysetPageDTO>> getCallsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(500) int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String endpoint,
+            @RequestParam(required = false) Boolean success,
+            @RequestParam(name = "param", required = false) List<String> params
+    ){
+        // El cursor no guarda los filtros: el cliente repite los mismos en cada página
+        CallFilter filter = CallFilter.of(from, to, endpoint, success, params);
+        return DeferredResponses.ok(callService.getCallsByCursorAsync(cursor, size, filter), timeoutMs,
+                "La lectura del historial");
     }
 
 }
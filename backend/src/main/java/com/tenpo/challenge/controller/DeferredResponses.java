@@ -0,0 +1,35 @@
+package com.tenpo.challenge.controller;
+
+import com.tenpo.challenge.exception.AsyncOperationTimeoutException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Adapta el {@link CompletableFuture} de un método {@code @Async} a un {@link DeferredResult}: el hilo de Tomcat se
+ * libera en cuanto el controlador devuelve y la respuesta se escribe cuando el futuro termina. Si no termina en
+ * {@code timeoutMs} se responde con {@link AsyncOperationTimeoutException} (503) y el resultado tardío se descarta.
+ */
+final class DeferredResponses {
+
+    private DeferredResponses() {
+    }
+
+    static <T> DeferredResult<ResponseEntity<T>> ok(CompletableFuture<T> future, long timeoutMs, String operation) {
+        DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(timeoutMs);
+        result.onTimeout(() -> result.setErrorResult(new AsyncOperationTimeoutException(
+                operation + " superó el tiempo máximo de " + timeoutMs + " ms, reintente en unos instantes")));
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.setResult(ResponseEntity.ok(value));
+            } else {
+                result.setErrorResult(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error);
+            }
+        });
+        return result;
+    }
+}
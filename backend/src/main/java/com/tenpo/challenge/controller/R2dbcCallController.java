@@ -0,0 +1,52 @@
+package com.tenpo.challenge.controller;
+
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.ExportFormat;
+import com.tenpo.challenge.service.ReactiveCallService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lecturas del historial sobre R2DBC ({@code app.history.store=r2dbc}). Spring MVC escribe cada trozo del
+ * {@link Flux} de la exportación según llega y solo pide el siguiente cuando terminó de escribirlo.
+ */
+@RestController
+@RequestMapping("tenpo/api/calls/r2dbc")
+@ConditionalOnProperty(name = "app.history.store", havingValue = "r2dbc")
+@RequiredArgsConstructor
+public class R2dbcCallController {
+
+    private final ReactiveCallService reactiveCallService;
+
+    @GetMapping("/paginated")
+    public Mono<Page<CallDTO>> getPaginatedCalls(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy
+    ){
+        return reactiveCallService.getPaginatedCalls(page, size, sortBy);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<Flux<String>> exportCalls(@RequestParam(defaultValue = "ndjson") String format){
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("calls." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(reactiveCallService.exportCalls(exportFormat));
+    }
+}
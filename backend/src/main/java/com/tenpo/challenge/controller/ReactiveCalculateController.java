@@ -0,0 +1,64 @@
+package com.tenpo.challenge.controller;
+
+import com.tenpo.challenge.dto.CalculateBatchResponseDTO;
+import com.tenpo.challenge.dto.CalculatePairDTO;
+import com.tenpo.challenge.dto.CalculateResponseDTO;
+import com.tenpo.challenge.exception.AsyncOperationTimeoutException;
+import com.tenpo.challenge.service.ReactiveCalculatorService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Variante de {@link CalculateController} para el perfil {@code reactive}. Spring MVC atiende los {@link Mono} como
+ * peticiones asíncronas: el hilo de Tomcat se libera mientras se espera a Redis y la respuesta se escribe cuando el
+ * {@link Mono} emite. Si no emite en {@code app.reactive.calculate.timeout-ms} se responde con
+ * {@link AsyncOperationTimeoutException} (503); el timeout asíncrono global de Spring MVC no se toca porque también
+ * acota las exportaciones en streaming.
+ */
+@RestController
+@RequestMapping("tenpo/api/calculator")
+@Profile("reactive")
+@RequiredArgsConstructor
+@Validated
+public class ReactiveCalculateController {
+
+    private final ReactiveCalculatorService calculatorService;
+
+    @Value("${app.reactive.calculate.timeout-ms}")
+    private long timeoutMs;
+
+    @PostMapping("/calculate/{num1}/{num2}")
+    public Mono<CalculateResponseDTO> calculate(
+            @PathVariable @Min(0) Double num1,
+            @PathVariable @Min(0) Double num2){
+        return withTimeout(calculatorService.calculatePercentage(num1, num2));
+    }
+
+    @PostMapping("/calculate/batch")
+    public Mono<CalculateBatchResponseDTO> calculateBatch(
+            @RequestBody @NotEmpty @Size(max = CalculateController.MAX_BATCH_SIZE)
+            List<@NotNull @Valid CalculatePairDTO> pairs){
+        return withTimeout(calculatorService.calculatePercentages(pairs));
+    }
+
+    private <T> Mono<T> withTimeout(Mono<T> response) {
+        return response.timeout(Duration.ofMillis(timeoutMs), Mono.error(() -> new AsyncOperationTimeoutException(
+                "El cálculo superó el tiempo máximo de " + timeoutMs + " ms, reintente en unos instantes")));
+    }
+}
@@ -0,0 +1,16 @@
+package com.tenpo.challenge.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CalculateBatchResponseDTO {
+
+    /**
+     * Un resultado por par, en el mismo orden de la petición.
+     */
+    private List<Double> results;
+}
@@ -0,0 +1,11 @@
+package com.tenpo.challenge.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Un par de operandos del cálculo por lotes.
+ */
+public record CalculatePairDTO(@NotNull @Min(0) Double num1,
+                               @NotNull @Min(0) Double num2) {
+}
@@ -0,0 +1,42 @@
+package com.tenpo.challenge.dto;
+
+import com.tenpo.challenge.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición dentro del historial ordenado por {@code (timestamp, id)} descendente.
+ * Viaja al cliente como un token opaco en base64url: {@code <n|p>|<timestamp>|<id>}.
+ */
+public record CallCursor(Direction direction, LocalDateTime timestamp, UUID id) {
+
+    public enum Direction {
+        /** Llamadas más antiguas que la posición. */
+        NEXT,
+        /** Llamadas más recientes que la posición. */
+        PREV
+    }
+
+    public String encode() {
+        String raw = (direction == Direction.NEXT ? "n" : "p") + "|" + timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CallCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length != 3 || !(parts[0].equals("n") || parts[0].equals("p"))) {
+                throw new InvalidCursorException("Cursor de paginación inválido");
+            }
+            Direction direction = parts[0].equals("n") ? Direction.NEXT : Direction.PREV;
+            return new CallCursor(direction, LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Cursor de paginación inválido", e);
+        }
+    }
+}
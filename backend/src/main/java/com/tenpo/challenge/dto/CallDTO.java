@@ -1,18 +1,24 @@
 package com.tenpo.challenge.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Builder;
 import lombok.Data;
-import java.util.Map;
+import lombok.extern.jackson.Jacksonized;
 import java.util.UUID;
 
 @Data
 @Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class CallDTO {
 
     UUID id;
     private String timestamp;
     private String endpoint;
-    private Map<String, String> params;
-    private String response;
+    private Double num1;
+    private Double num2;
+    private Double percentage;
+    private Double result;
+    private String errorMessage;
     private Boolean success;
 }
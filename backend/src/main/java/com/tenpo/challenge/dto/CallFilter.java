@@ -0,0 +1,68 @@
+package com.tenpo.challenge.dto;
+
+import com.tenpo.challenge.exception.InvalidCallFilterException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filtros del historial. El rango {@code [from, to)} poda particiones y usa el BRIN de {@code timestamp},
+ * {@code success} el btree {@code (success, timestamp)} y {@code num1}/{@code num2} los btree
+ * {@code (num1, timestamp, id)} y {@code (num2, timestamp, id)} sobre las columnas tipadas de los operandos.
+ */
+public record CallFilter(LocalDateTime from,
+                         LocalDateTime to,
+                         String endpoint,
+                         Boolean success,
+                         Double num1,
+                         Double num2) {
+
+    private static final CallFilter NONE = new CallFilter(null, null, null, null, null, null);
+
+    public static CallFilter none() {
+        return NONE;
+    }
+
+    /**
+     * Construye el filtro a partir de los parámetros de la petición; {@code params} llega como {@code clave:valor}
+     * y solo admite los operandos {@code num1} y {@code num2} con valor numérico.
+     */
+    public static CallFilter of(LocalDateTime from, LocalDateTime to, String endpoint, Boolean success,
+                                List<String> params) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidCallFilterException("El parámetro 'from' debe ser anterior a 'to'");
+        }
+        Double num1 = null;
+        Double num2 = null;
+        if (params != null) {
+            for (String param : params) {
+                int separator = param.indexOf(':');
+                if (separator <= 0) {
+                    throw new InvalidCallFilterException("El filtro 'param' debe tener la forma clave:valor: " + param);
+                }
+                String key = param.substring(0, separator);
+                Double value = parseOperand(param, param.substring(separator + 1));
+                switch (key) {
+                    case "num1" -> num1 = value;
+                    case "num2" -> num2 = value;
+                    default -> throw new InvalidCallFilterException(
+                            "El filtro 'param' solo admite num1 y num2: " + param);
+                }
+            }
+        }
+        return new CallFilter(from, to, endpoint == null || endpoint.isBlank() ? null : endpoint, success,
+                num1, num2);
+    }
+
+    private static Double parseOperand(String param, String value) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCallFilterException("El filtro 'param' debe tener un valor numérico: " + param);
+        }
+    }
+
+    public boolean isEmpty() {
+        return from == null && to == null && endpoint == null && success == null && num1 == null && num2 == null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.tenpo.challenge.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Fila del historial leída con una expresión {@code select new} de JPQL: Hibernate la construye directamente desde
+ * el {@code ResultSet}, sin instanciar la entidad {@code Call}, sin snapshot para dirty checking y sin registrarla
+ * en el contexto de persistencia.
+ */
+public record CallProjection(UUID id,
+                             LocalDateTime timestamp,
+                             String endpoint,
+                             Double num1,
+                             Double num2,
+                             Double percentage,
+                             Double result,
+                             String errorMessage,
+                             Boolean success) {
+}
@@ -0,0 +1,18 @@
+package com.tenpo.challenge.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CallSliceDTO {
+
+    private List<CallDTO> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long estimatedTotal;
+    private Integer estimatedTotalPages;
+}
@@ -0,0 +1,34 @@
+package com.tenpo.challenge.dto;
+
+import com.tenpo.challenge.exception.InvalidCallFilterException;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Órdenes admitidos en el historial. Solo columnas con índice: {@code id} usa la clave primaria
+ * {@code (id, timestamp)} y {@code timestamp} el índice {@code (timestamp, id)}, que además desempata. Como los ids
+ * son UUIDv7, ordenar por {@code id} es ordenar por momento de creación.
+ */
+public enum CallSortKey {
+
+    ID("id"),
+    TIMESTAMP("timestamp");
+
+    private final String param;
+
+    CallSortKey(String param) {
+        this.param = param;
+    }
+
+    public Sort toSort() {
+        return this == TIMESTAMP ? Sort.by("timestamp", "id") : Sort.by("id");
+    }
+
+    public static CallSortKey fromParam(String sortBy) {
+        for (CallSortKey value : values()) {
+            if (value.param.equals(sortBy)) {
+                return value;
+            }
+        }
+        throw new InvalidCallFilterException("Orden no soportado: " + sortBy + ". Valores admitidos: id, timestamp");
+    }
+}
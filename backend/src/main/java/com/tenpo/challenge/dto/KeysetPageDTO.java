@@ -0,0 +1,16 @@
+package com.tenpo.challenge.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class KeysetPageDTO {
+
+    private List<CallDTO> content;
+    private int size;
+    private String nextCursor;
+    private String prevCursor;
+}
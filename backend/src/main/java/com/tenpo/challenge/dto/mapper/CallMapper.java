@@ -1,6 +1,7 @@
 package com.tenpo.challenge.dto.mapper;
 
 import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallProjection;
 import com.tenpo.challenge.model.Call;
 
 import java.time.LocalDateTime;
@@ -13,8 +14,11 @@ public class CallMapper {
                 .id(callDTO.getId())
                 .timestamp(parseDate(callDTO.getTimestamp()))
                 .endpoint(callDTO.getEndpoint())
-                .params(callDTO.getParams())
-                .response(callDTO.getResponse())
+                .num1(callDTO.getNum1())
+                .num2(callDTO.getNum2())
+                .percentage(callDTO.getPercentage())
+                .result(callDTO.getResult())
+                .errorMessage(callDTO.getErrorMessage())
                 .success(callDTO.getSuccess())
                 .build();
     }
@@ -25,13 +29,31 @@ public class CallMapper {
                 .id(call.getId())
                 .timestamp(call.getTimestamp().toString())
                 .endpoint(call.getEndpoint())
-                .params(call.getParams())
-                .response(call.getResponse())
+                .num1(call.getNum1())
+                .num2(call.getNum2())
+                .percentage(call.getPercentage())
+                .result(call.getResult())
+                .errorMessage(call.getErrorMessage())
                 .success(call.getSuccess())
                 .build();
 
     }
 
+    public static CallDTO projectionToDTO(CallProjection projection){
+
+        return CallDTO.builder()
+                .id(projection.id())
+                .timestamp(projection.timestamp().toString())
+                .endpoint(projection.endpoint())
+                .num1(projection.num1())
+                .num2(projection.num2())
+                .percentage(projection.percentage())
+                .result(projection.result())
+                .errorMessage(projection.errorMessage())
+                .success(projection.success())
+                .build();
+    }
+
     private static LocalDateTime parseDate(String dateString){
         return LocalDateTime.parse(dateString);
     }
@@ -0,0 +1,7 @@
+package com.tenpo.challenge.exception;
+
+public class AsyncOperationTimeoutException extends RuntimeException {
+    public AsyncOperationTimeoutException(String message) {
+        super(message);
+    }
+}
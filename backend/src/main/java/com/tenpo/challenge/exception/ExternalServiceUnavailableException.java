@@ -0,0 +1,11 @@
+package com.tenpo.challenge.exception;
+
+public class ExternalServiceUnavailableException extends RuntimeException {
+    public ExternalServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ExternalServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -6,8 +6,10 @@ import com.tenpo.challenge.service.CallService;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
@@ -30,6 +32,24 @@ public class GlobalExceptionHandler {
         return buildError(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
     }
 
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorResponseDTO> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException e) {
+        log.warn("Petición rechazada por límite de concurrencia: {}", e.getMessage());
+        return buildError(HttpStatus.SERVICE_UNAVAILABLE, "Servicio saturado, reintente en unos instantes");
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ErrorResponseDTO> handleTaskRejected(TaskRejectedException e) {
+        log.warn("Petición rechazada, ejecutor asíncrono lleno: {}", e.getMessage());
+        return buildError(HttpStatus.SERVICE_UNAVAILABLE, "Servicio saturado, reintente en unos instantes");
+    }
+
+    @ExceptionHandler(AsyncOperationTimeoutException.class)
+    public ResponseEntity<ErrorResponseDTO> handleAsyncOperationTimeout(AsyncOperationTimeoutException e) {
+        log.warn("Tiempo de espera agotado: {}", e.getMessage());
+        return buildError(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ErrorResponseDTO> handleTypeMismatch(
             MethodArgumentTypeMismatchException e) {
@@ -38,6 +58,30 @@ public class GlobalExceptionHandler {
         return buildError(HttpStatus.BAD_REQUEST, msg);
     }
 
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponseDTO> handleUnreadableBody(HttpMessageNotReadableException e) {
+        log.warn("Cuerpo de la petición ilegible: {}", e.getMessage());
+        return buildError(HttpStatus.BAD_REQUEST, "El cuerpo de la petición no es un JSON válido");
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInvalidCursor(InvalidCursorException e) {
+        log.warn("Cursor inválido: {}", e.getMessage());
+        return buildError(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(UnsupportedExportFormatException.class)
+    public ResponseEntity<ErrorResponseDTO> handleUnsupportedExportFormat(UnsupportedExportFormatException e) {
+        log.warn("Exportación rechazada: {}", e.getMessage());
+        return buildError(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCallFilterException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInvalidCallFilter(InvalidCallFilterException e) {
+        log.warn("Filtro de historial inválido: {}", e.getMessage());
+        return buildError(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDTO> handleGeneral(Exception e) {
         log.error("Error inesperado: {}", e.getMessage(), e);
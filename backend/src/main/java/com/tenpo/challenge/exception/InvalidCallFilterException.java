@@ -0,0 +1,7 @@
+package com.tenpo.challenge.exception;
+
+public class InvalidCallFilterException extends RuntimeException {
+    public InvalidCallFilterException(String message) {
+        super(message);
+    }
+}
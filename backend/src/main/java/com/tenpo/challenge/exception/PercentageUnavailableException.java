@@ -6,6 +6,6 @@ public class PercentageUnavailableException extends RuntimeException {
     }
 
     public PercentageUnavailableException(String message, Throwable cause) {
-
+        super(message, cause);
     }
 }
\ No newline at end of file
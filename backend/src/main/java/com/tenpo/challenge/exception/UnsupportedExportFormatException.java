@@ -0,0 +1,7 @@
+package com.tenpo.challenge.exception;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+    public UnsupportedExportFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,162 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.dto.CallDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Outbox del historial sobre un Redis Stream ({@code app.history.mode=outbox}).
+ * <p>
+ * Cada llamada se añade con {@code XADD} como un registro plano de campos cortos; el
+ * {@link CallHistoryOutboxConsumer} de cada réplica la vuelca después a Postgres. Si Redis no acepta la escritura,
+ * la llamada pasa al {@link CallHistoryWriter} local.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "app.history.mode", havingValue = "outbox")
+@Slf4j
+public class CallHistoryOutbox implements CallHistorySink {
+
+    static final String ID = "i";
+    static final String TIMESTAMP = "t";
+    static final String ENDPOINT = "e";
+    static final String SUCCESS = "s";
+    static final String NUM1 = "n1";
+    static final String NUM2 = "n2";
+    static final String PERCENTAGE = "pc";
+    static final String RESULT = "res";
+    static final String ERROR = "err";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CallHistoryWriter fallback;
+    private final Counter appended;
+    private final Counter appendFailures;
+
+    @Value("${app.history.outbox.stream}")
+    private String streamKey;
+
+    public CallHistoryOutbox(StringRedisTemplate redisTemplate, CallHistoryWriter fallback, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.fallback = fallback;
+        this.appended = meterRegistry.counter("history.outbox.appended");
+        this.appendFailures = meterRegistry.counter("history.outbox.append_failures");
+    }
+
+    @Override
+    public CompletableFuture<CallDTO> submit(CallDTO callDTO) {
+        try {
+            MapRecord<String, String, String> record = StreamRecords.newRecord()
+                    .in(streamKey)
+                    .ofMap(toFields(callDTO));
+            redisTemplate.opsForStream().add(record);
+            appended.increment();
+            return CompletableFuture.completedFuture(callDTO);
+        } catch (RuntimeException e) {
+            appendFailures.increment();
+            log.error("[Outbox] No se pudo añadir la llamada al stream, se usa el escritor local: {}", e.getMessage());
+            return fallback.submit(callDTO);
+        }
+    }
+
+    /**
+     * Envía todos los {@code XADD} en un único pipeline: una ida y vuelta a Redis para el lote entero.
+     */
+    @Override
+    public CompletableFuture<List<CallDTO>> submitAll(List<CallDTO> callDTOs) {
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    StreamOperations<String, String, String> stream =
+                            ((RedisOperations<String, String>) operations).opsForStream();
+                    for (CallDTO callDTO : callDTOs) {
+                        stream.add(StreamRecords.newRecord().in(streamKey).ofMap(toFields(callDTO)));
+                    }
+                    return null;
+                }
+            });
+            appended.increment(callDTOs.size());
+            return CompletableFuture.completedFuture(callDTOs);
+        } catch (RuntimeException e) {
+            appendFailures.increment();
+            log.error("[Outbox] No se pudo añadir el lote de {} llamadas al stream, se usa el escritor local: {}",
+                    callDTOs.size(), e.getMessage());
+            return fallback.submitAll(callDTOs);
+        }
+    }
+
+    static Map<String, String> toFields(CallDTO callDTO) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (callDTO.getId() != null) {
+            fields.put(ID, callDTO.getId().toString());
+        }
+        putIfPresent(fields, TIMESTAMP, callDTO.getTimestamp());
+        putIfPresent(fields, ENDPOINT, callDTO.getEndpoint());
+        if (callDTO.getSuccess() != null) {
+            fields.put(SUCCESS, callDTO.getSuccess() ? "1" : "0");
+        }
+        putIfPresent(fields, NUM1, callDTO.getNum1());
+        putIfPresent(fields, NUM2, callDTO.getNum2());
+        putIfPresent(fields, PERCENTAGE, callDTO.getPercentage());
+        putIfPresent(fields, RESULT, callDTO.getResult());
+        putIfPresent(fields, ERROR, callDTO.getErrorMessage());
+        return fields;
+    }
+
+    static CallDTO fromFields(Map<String, String> fields) {
+        String success = fields.get(SUCCESS);
+        String id = fields.get(ID);
+        return CallDTO.builder()
+                .id(id == null ? null : UUID.fromString(id))
+                .timestamp(fields.get(TIMESTAMP))
+                .endpoint(fields.get(ENDPOINT))
+                .success(success == null ? null : "1".equals(success))
+                .num1(parseDouble(fields.get(NUM1)))
+                .num2(parseDouble(fields.get(NUM2)))
+                .percentage(parseDouble(fields.get(PERCENTAGE)))
+                .result(parseDouble(fields.get(RESULT)))
+                .errorMessage(fields.get(ERROR))
+                .build();
+    }
+
+    private static Double parseDouble(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void putIfPresent(Map<String, String> fields, String key, Double value) {
+        if (value != null) {
+            fields.put(key, value.toString());
+        }
+    }
+
+    private static void putIfPresent(Map<String, String> fields, String key, String value) {
+        if (value != null) {
+            fields.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.dto.mapper.CallMapper;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Consumidor del outbox del historial dentro del grupo {@code app.history.outbox.group}.
+ * <p>
+ * Lee lotes con {@code XREADGROUP COUNT n BLOCK}, los inserta en una sola transacción y solo después hace
+ * {@code XACK} y {@code XDEL}, así que un fallo de la base deja las entradas pendientes para reintentarlas.
+ * Varias réplicas comparten el grupo y se reparten el trabajo; las entradas que otra réplica dejó pendientes más
+ * de {@code app.history.outbox.claim-idle-ms} (porque cayó) se reclaman con {@code XCLAIM}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.history.mode", havingValue = "outbox")
+@Slf4j
+public class CallHistoryOutboxConsumer {
+
+    private final StringRedisTemplate redisTemplate;
+    private final CallRepository callRepository;
+    private final TransactionOperations transactionOperations;
+    private final ThreadFactory threadFactory;
+    private final Counter drained;
+    private final Counter reclaimed;
+    private final Counter failures;
+
+    @Value("${app.history.outbox.stream}")
+    private String streamKey;
+
+    @Value("${app.history.outbox.group}")
+    private String group;
+
+    @Value("${app.history.outbox.consumer}")
+    private String consumerName;
+
+    @Value("${app.history.batch-size}")
+    private int batchSize;
+
+    @Value("${app.history.outbox.block-ms}")
+    private long blockMs;
+
+    @Value("${app.history.outbox.claim-idle-ms}")
+    private long claimIdleMs;
+
+    @Value("${app.history.outbox.max-backoff-ms}")
+    private long maxBackoffMs;
+
+    private volatile boolean running;
+    private Thread worker;
+    private boolean ownPendingRecovered;
+    private long lastClaimNanos;
+    private RecordId claimCursor;
+
+    public CallHistoryOutboxConsumer(StringRedisTemplate redisTemplate, CallRepository callRepository,
+                                     TransactionOperations transactionOperations, MeterRegistry meterRegistry,
+                                     @Qualifier("historyThreadFactory") ThreadFactory threadFactory) {
+        this.redisTemplate = redisTemplate;
+        this.callRepository = callRepository;
+        this.transactionOperations = transactionOperations;
+        this.threadFactory = threadFactory;
+        this.drained = meterRegistry.counter("history.outbox.drained");
+        this.reclaimed = meterRegistry.counter("history.outbox.reclaimed");
+        this.failures = meterRegistry.counter("history.outbox.drain_failures");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = threadFactory.newThread(this::drainLoop);
+        worker.setName("CallHistoryOutboxConsumer");
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(10) + blockMs);
+    }
+
+    void ensureGroup() {
+        try {
+            stream().createGroup(streamKey, ReadOffset.from("0"), group);
+            log.info("[Outbox] Grupo {} creado sobre {}", group, streamKey);
+        } catch (RedisSystemException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    private void drainLoop() {
+        long backoffMs = blockMs;
+        boolean groupReady = false;
+        while (running) {
+            try {
+                if (!groupReady) {
+                    ensureGroup();
+                    groupReady = true;
+                }
+                drainOnce();
+                backoffMs = blockMs;
+            } catch (Exception e) {
+                failures.increment();
+                // Lo leído y no confirmado queda pendiente a nombre de esta réplica: se relee en la siguiente pasada
+                ownPendingRecovered = false;
+                backoffMs = Math.min(maxBackoffMs, Math.max(backoffMs, 1) * 2);
+                log.warn("[Outbox] No se pudo volcar el stream, reintento en {} ms: {}", backoffMs, e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs));
+            }
+        }
+    }
+
+    /**
+     * Una pasada del consumidor: primero lo que esta réplica dejó sin confirmar en una ejecución anterior,
+     * después las entradas abandonadas por otras réplicas y por último las nuevas.
+     */
+    int drainOnce() {
+        Consumer consumer = Consumer.from(group, consumerName);
+        if (!ownPendingRecovered) {
+            List<MapRecord<String, String, String>> pending = stream().read(consumer,
+                    StreamReadOptions.empty().count(batchSize), StreamOffset.create(streamKey, ReadOffset.from("0")));
+            if (pending == null || pending.isEmpty()) {
+                ownPendingRecovered = true;
+            } else {
+                return persist(pending);
+            }
+        }
+
+        if (System.nanoTime() - lastClaimNanos >= TimeUnit.MILLISECONDS.toNanos(claimIdleMs)) {
+            lastClaimNanos = System.nanoTime();
+            int claimed = claimAbandoned();
+            if (claimed > 0) {
+                return claimed;
+            }
+        }
+
+        List<MapRecord<String, String, String>> records = stream().read(consumer,
+                StreamReadOptions.empty().count(batchSize).block(Duration.ofMillis(blockMs)),
+                StreamOffset.create(streamKey, ReadOffset.lastConsumed()));
+        return records == null ? 0 : persist(records);
+    }
+
+    /**
+     * Recorre la lista de pendientes del grupo en páginas de {@code batchSize} hasta juntar un lote de entradas
+     * ajenas inactivas o llegar al final; Spring Data Redis no expone ni el filtro IDLE de XPENDING ni XAUTOCLAIM,
+     * así que la inactividad se filtra aquí. Como el cursor de XAUTOCLAIM, {@code claimCursor} se conserva entre
+     * pasadas: que las primeras entradas sean de réplicas vivas no impide llegar a las abandonadas detrás.
+     */
+    private int claimAbandoned() {
+        Duration minIdle = Duration.ofMillis(claimIdleMs);
+        List<RecordId> idle = new ArrayList<>();
+        while (idle.size() < batchSize) {
+            Range<String> range = claimCursor == null
+                    ? Range.unbounded()
+                    : Range.rightUnbounded(Range.Bound.exclusive(claimCursor.getValue()));
+            PendingMessages page = stream().pending(streamKey, group, range, batchSize);
+            for (PendingMessage message : page) {
+                claimCursor = message.getId();
+                if (!message.getConsumerName().equals(consumerName)
+                        && message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) >= 0) {
+                    idle.add(message.getId());
+                    if (idle.size() == batchSize) {
+                        break;
+                    }
+                }
+            }
+            if (idle.size() < batchSize && page.size() < batchSize) {
+                claimCursor = null;
+                break;
+            }
+        }
+        if (idle.isEmpty()) {
+            return 0;
+        }
+        List<MapRecord<String, String, String>> claimed = stream().claim(streamKey, group, consumerName,
+                XClaimOptions.minIdle(minIdle).ids(idle.toArray(RecordId[]::new)));
+        reclaimed.increment(claimed.size());
+        log.info("[Outbox] {} entradas reclamadas a otras réplicas", claimed.size());
+        return claimed.isEmpty() ? 0 : persist(claimed);
+    }
+
+    private int persist(List<MapRecord<String, String, String>> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        List<Call> calls = records.stream()
+                .map(record -> CallMapper.dtoToEntity(CallHistoryOutbox.fromFields(record.getValue())))
+                .toList();
+        transactionOperations.execute(status ->
+                callRepository.saveAll(ReplayedCalls.withoutPersisted(callRepository, calls)));
+
+        RecordId[] ids = records.stream().map(MapRecord::getId).toArray(RecordId[]::new);
+        stream().acknowledge(streamKey, group, ids);
+        stream().delete(streamKey, ids);
+        drained.increment(records.size());
+        log.info("[Outbox] Lote de {} llamadas volcado desde {}", records.size(), streamKey);
+        return records.size();
+    }
+
+    private StreamOperations<String, String, String> stream() {
+        return redisTemplate.opsForStream();
+    }
+}
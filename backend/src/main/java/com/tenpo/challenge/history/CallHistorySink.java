@@ -0,0 +1,28 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.dto.CallDTO;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Destino de las llamadas del historial. El futuro se completa cuando la llamada queda a salvo según la
+ * implementación (lote persistido, journal local o stream de Redis).
+ */
+public interface CallHistorySink {
+
+    CompletableFuture<CallDTO> submit(CallDTO callDTO);
+
+    /**
+     * Entrega varias llamadas a la vez, p. ej. las de un cálculo por lotes. Por defecto las envía una a una; las
+     * implementaciones la redefinen para escribirlas en una sola operación.
+     */
+    default CompletableFuture<List<CallDTO>> submitAll(List<CallDTO> callDTOs) {
+        return allOf(callDTOs.stream().map(this::submit).toList());
+    }
+
+    static CompletableFuture<List<CallDTO>> allOf(List<CompletableFuture<CallDTO>> results) {
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(done -> results.stream().map(CompletableFuture::join).toList());
+    }
+}
@@ -0,0 +1,277 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.mapper.CallMapper;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Escritor del historial por lotes.
+ * <p>
+ * Las llamadas se encolan en una cola sin locks acotada a {@code app.history.queue-capacity} y un único
+ * hilo las persiste en lotes de hasta {@code app.history.batch-size} filas por transacción, cuando el lote
+ * se llena o cada {@code app.history.flush-interval-ms}. Con {@code hibernate.jdbc.batch_size} y los ids
+ * generados en memoria, cada lote se envía como un batch JDBC.
+ * <p>
+ * Cuando la cola se llena se aplica {@code app.history.overflow-policy} (ver {@link OverflowPolicy}); en ningún
+ * caso el problema se propaga como excepción al cálculo.
+ * <p>
+ * Con {@code app.history.journal.enabled} las llamadas se escriben antes en el {@link CallJournal} y el futuro se
+ * completa en ese momento; la cola solo se usa si el journal no admite la escritura.
+ */
+@Component
+@Slf4j
+public class CallHistoryWriter implements CallHistorySink {
+
+    private final CallRepository callRepository;
+    private final TransactionOperations transactionOperations;
+    private final CallSpillFile spillFile;
+    private final CallJournal journal;
+    private final MeterRegistry meterRegistry;
+    private final ThreadFactory threadFactory;
+    private final Timer queueWait;
+    private final Counter spilled;
+    private final Counter journaled;
+
+    private final ConcurrentLinkedQueue<PendingCall> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    @Value("${app.history.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${app.history.batch-size}")
+    private int batchSize;
+
+    @Value("${app.history.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    @Value("${app.history.overflow-policy}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${app.history.block-budget-ms}")
+    private long blockBudgetMs;
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    public CallHistoryWriter(CallRepository callRepository, TransactionOperations transactionOperations,
+                             CallSpillFile spillFile, ObjectProvider<CallJournal> journal,
+                             MeterRegistry meterRegistry,
+                             @Qualifier("historyThreadFactory") ThreadFactory threadFactory) {
+        this.callRepository = callRepository;
+        this.transactionOperations = transactionOperations;
+        this.spillFile = spillFile;
+        this.journal = journal.getIfAvailable();
+        this.meterRegistry = meterRegistry;
+        this.threadFactory = threadFactory;
+        this.queueWait = Timer.builder("history.queue.wait")
+                .description("Tiempo desde que una llamada se encola hasta que empieza su escritura")
+                .register(meterRegistry);
+        this.spilled = meterRegistry.counter("history.spilled");
+        this.journaled = meterRegistry.counter("history.journaled");
+        Gauge.builder("history.queue.depth", queued, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        drainer = threadFactory.newThread(this::drainLoop);
+        drainer.setName("CallHistoryWriter");
+        drainer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainer);
+        drainer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @Override
+    public CompletableFuture<CallDTO> submit(CallDTO callDTO) {
+        if (journal != null) {
+            try {
+                journal.append(callDTO);
+                journaled.increment();
+                return CompletableFuture.completedFuture(callDTO);
+            } catch (RuntimeException e) {
+                log.error("[History] No se pudo escribir en el journal, se usa la cola: {}", e.getMessage());
+            }
+        }
+        CompletableFuture<CallDTO> result = enqueue(callDTO);
+        if (queued.get() >= batchSize) {
+            LockSupport.unpark(drainer);
+        }
+        return result;
+    }
+
+    /**
+     * Con journal, todas las llamadas se escriben bajo un único lock; sin él (o con lo que el journal no admita)
+     * se encolan juntas y se despierta al hilo de escritura para que salgan en el mismo lote.
+     */
+    @Override
+    public CompletableFuture<List<CallDTO>> submitAll(List<CallDTO> callDTOs) {
+        int journaledCalls = 0;
+        if (journal != null) {
+            try {
+                journaledCalls = journal.appendAll(callDTOs);
+                journaled.increment(journaledCalls);
+            } catch (RuntimeException e) {
+                log.error("[History] No se pudo escribir en el journal, se usa la cola: {}", e.getMessage());
+            }
+            if (journaledCalls == callDTOs.size()) {
+                return CompletableFuture.completedFuture(callDTOs);
+            }
+        }
+        List<CompletableFuture<CallDTO>> results = new ArrayList<>(callDTOs.size());
+        for (int i = 0; i < callDTOs.size(); i++) {
+            results.add(i < journaledCalls
+                    ? CompletableFuture.completedFuture(callDTOs.get(i))
+                    : enqueue(callDTOs.get(i)));
+        }
+        LockSupport.unpark(drainer);
+        return CallHistorySink.allOf(results);
+    }
+
+    private CompletableFuture<CallDTO> enqueue(CallDTO callDTO) {
+        PendingCall pending = new PendingCall(callDTO, new CompletableFuture<>(), System.nanoTime());
+        if (!tryEnqueue(pending)) {
+            return handleOverflow(pending);
+        }
+        return pending.result();
+    }
+
+    private boolean tryEnqueue(PendingCall pending) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            return false;
+        }
+        queue.offer(pending);
+        return true;
+    }
+
+    private CompletableFuture<CallDTO> handleOverflow(PendingCall pending) {
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                PendingCall oldest = queue.poll();
+                if (oldest != null) {
+                    queued.decrementAndGet();
+                    reject(oldest);
+                }
+                if (!tryEnqueue(pending)) {
+                    reject(pending);
+                }
+            }
+            case BLOCK -> {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockBudgetMs);
+                boolean enqueued = false;
+                while (!enqueued && System.nanoTime() - deadline < 0) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+                    enqueued = tryEnqueue(pending);
+                }
+                if (!enqueued) {
+                    reject(pending);
+                }
+            }
+            case SPILL_TO_DISK -> {
+                try {
+                    spillFile.append(pending.callDTO());
+                    spilled.increment();
+                    pending.result().complete(pending.callDTO());
+                } catch (Exception e) {
+                    log.error("[History] {}", e.getMessage());
+                    reject(pending);
+                }
+            }
+            default -> reject(pending);
+        }
+        return pending.result();
+    }
+
+    private void reject(PendingCall pending) {
+        meterRegistry.counter("history.rejections", "policy", overflowPolicy.name()).increment();
+        pending.result().completeExceptionally(
+                new RejectedExecutionException("Cola del historial llena (" + queueCapacity + "), política " + overflowPolicy));
+    }
+
+    public int getQueueSize() {
+        return queued.get();
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            if (running && queued.get() < batchSize) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+            try {
+                flush();
+                if (running && queue.isEmpty() && spillFile.hasPending()) {
+                    spillFile.replay(batchSize, this::persistReplayed);
+                }
+            } catch (Exception e) {
+                log.error("[History] Error inesperado vaciando la cola: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    int flush() {
+        List<PendingCall> batch = new ArrayList<>(Math.min(batchSize, Math.max(queued.get(), 1)));
+        PendingCall pending;
+        while (batch.size() < batchSize && (pending = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(pending);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long now = System.nanoTime();
+        try {
+            List<Call> calls = new ArrayList<>(batch.size());
+            for (PendingCall call : batch) {
+                queueWait.record(now - call.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                calls.add(CallMapper.dtoToEntity(call.callDTO()));
+            }
+            List<Call> saved = transactionOperations.execute(status -> callRepository.saveAll(calls));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(CallMapper.entityToDTO(saved.get(i)));
+            }
+            log.info("[History] Lote de {} llamadas persistido", batch.size());
+        } catch (Exception e) {
+            log.error("[History] No se pudo persistir un lote de {} llamadas: {}", batch.size(), e.getMessage());
+            batch.forEach(call -> call.result().completeExceptionally(e));
+        }
+        return batch.size();
+    }
+
+    private void persistReplayed(List<CallDTO> callDTOs) {
+        List<Call> calls = callDTOs.stream().map(CallMapper::dtoToEntity).toList();
+        transactionOperations.execute(status ->
+                callRepository.saveAll(ReplayedCalls.withoutPersisted(callRepository, calls)));
+    }
+
+    private record PendingCall(CallDTO callDTO, CompletableFuture<CallDTO> result, long enqueuedAtNanos) {
+    }
+}
@@ -0,0 +1,365 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.dto.CallDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal de escritura anticipada del historial sobre segmentos mapeados en memoria.
+ * <p>
+ * Cada llamada se añade como un registro binario {@code [longitud][crc32][payload]} al segmento activo; al
+ * llenarse se abre el siguiente ({@code segment-<n>.log}). La longitud se escribe la última, de modo que un
+ * registro a medias nunca es visible. Las páginas mapeadas pertenecen al sistema operativo, así que lo escrito
+ * sobrevive a un {@code kill -9} del proceso aunque no se haga {@code force()}.
+ * <p>
+ * El fichero {@code checkpoint} guarda hasta dónde se ha persistido en base de datos. Si el proceso cae entre el
+ * commit de un lote y el avance del checkpoint, ese lote se vuelve a entregar (al menos una vez).
+ */
+@Component
+@ConditionalOnProperty(name = "app.history.journal.enabled", havingValue = "true")
+@Slf4j
+public class CallJournal {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte HAS_ID = 0x01;
+    private static final byte HAS_NUM1 = 0x02;
+    private static final byte HAS_NUM2 = 0x04;
+    private static final byte HAS_PERCENTAGE = 0x08;
+    private static final byte HAS_RESULT = 0x10;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final MappedByteBuffer checkpoint;
+    private final FileChannel checkpointChannel;
+
+    private Segment active;
+    private int writeOffset;
+    private Position committed;
+
+    public CallJournal(@Value("${app.history.journal.dir}") String directory,
+                       @Value("${app.history.journal.segment-bytes}") int segmentBytes) {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(this.directory);
+            checkpointChannel = FileChannel.open(this.directory.resolve("checkpoint"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            checkpoint = checkpointChannel.map(FileChannel.MapMode.READ_WRITE, 0, 16);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el journal del historial en " + directory, e);
+        }
+    }
+
+    public synchronized void append(CallDTO callDTO) {
+        byte[] payload = encode(callDTO);
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Registro de " + recordBytes + " bytes mayor que el segmento");
+        }
+        if (writeOffset + recordBytes > segmentBytes) {
+            roll();
+        }
+        MappedByteBuffer buffer = active.buffer();
+        buffer.putInt(writeOffset + 4, crc(payload));
+        buffer.put(writeOffset + HEADER_BYTES, payload);
+        buffer.putInt(writeOffset, payload.length);
+        writeOffset += recordBytes;
+    }
+
+    /**
+     * Añade varias llamadas tomando el lock una sola vez. Devuelve cuántas se escribieron: si una falla después de
+     * la primera, se detiene ahí para que el llamante encamine el resto por otra vía sin duplicar las ya escritas.
+     */
+    public synchronized int appendAll(List<CallDTO> callDTOs) {
+        for (int i = 0; i < callDTOs.size(); i++) {
+            try {
+                append(callDTOs.get(i));
+            } catch (RuntimeException e) {
+                if (i == 0) {
+                    throw e;
+                }
+                log.error("[Journal] Solo se escribieron {} de {} llamadas: {}", i, callDTOs.size(), e.getMessage());
+                return i;
+            }
+        }
+        return callDTOs.size();
+    }
+
+    /**
+     * Lee, sin consumirlos, hasta {@code maxCalls} registros a partir del último checkpoint.
+     */
+    public synchronized Batch readBatch(int maxCalls) {
+        List<CallDTO> calls = new ArrayList<>(Math.min(maxCalls, 1024));
+        long segmentId = committed.segmentId();
+        int offset = committed.offset();
+        while (calls.size() < maxCalls) {
+            Segment segment = segments.get(segmentId);
+            int end = segment == active ? writeOffset : segmentBytes;
+            int length = offset + HEADER_BYTES <= end ? segment.buffer().getInt(offset) : 0;
+            if (length <= 0 || offset + HEADER_BYTES + length > end) {
+                Long next = segments.higherKey(segmentId);
+                if (segment == active || next == null) {
+                    break;
+                }
+                segmentId = next;
+                offset = 0;
+                continue;
+            }
+            byte[] payload = new byte[length];
+            segment.buffer().get(offset + HEADER_BYTES, payload);
+            if (crc(payload) != segment.buffer().getInt(offset + 4)) {
+                log.error("[Journal] Registro corrupto en {}@{}, se descarta el resto del segmento", segment.path(), offset);
+                offset = end;
+                continue;
+            }
+            calls.add(decode(payload));
+            offset += HEADER_BYTES + length;
+        }
+        return new Batch(calls, new Position(segmentId, offset));
+    }
+
+    /**
+     * Marca como persistido todo lo leído en {@code batch} y borra los segmentos que ya no hacen falta.
+     */
+    public synchronized void commit(Batch batch) {
+        committed = batch.end();
+        checkpoint.putLong(0, committed.segmentId());
+        checkpoint.putLong(8, committed.offset());
+        while (segments.firstKey() < committed.segmentId()) {
+            Segment consumed = segments.pollFirstEntry().getValue();
+            consumed.close();
+            try {
+                Files.deleteIfExists(consumed.path());
+            } catch (IOException e) {
+                log.warn("[Journal] No se pudo borrar {}: {}", consumed.path(), e.getMessage());
+            }
+        }
+    }
+
+    public synchronized boolean hasPending() {
+        return committed.segmentId() != active.id() || committed.offset() != writeOffset;
+    }
+
+    /**
+     * Bytes escritos en el journal que aún no se han persistido en base de datos.
+     */
+    public synchronized long getBacklogBytes() {
+        return (active.id() - committed.segmentId()) * (long) segmentBytes + writeOffset - committed.offset();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        segments.values().forEach(Segment::close);
+        checkpoint.force();
+        try {
+            checkpointChannel.close();
+        } catch (IOException e) {
+            log.warn("[Journal] Error cerrando el checkpoint: {}", e.getMessage());
+        }
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(id, Segment.open(file, id, segmentBytes));
+                }
+            }
+        }
+
+        long checkpointSegment = checkpoint.getLong(0);
+        int checkpointOffset = (int) checkpoint.getLong(8);
+        if (segments.isEmpty()) {
+            active = openSegment(checkpointSegment);
+            writeOffset = 0;
+            committed = new Position(checkpointSegment, 0);
+            return;
+        }
+
+        active = segments.lastEntry().getValue();
+        writeOffset = scanWriteOffset(active);
+        committed = segments.containsKey(checkpointSegment)
+                ? new Position(checkpointSegment, checkpointOffset)
+                : new Position(segments.firstKey(), 0);
+        log.info("[Journal] Recuperado: {} segmento(s), {} bytes pendientes", segments.size(), getBacklogBytes());
+    }
+
+    /**
+     * Recorre el segmento activo hasta el primer hueco o registro inválido y limpia lo que quede detrás,
+     * por si un corte dejó un registro a medias.
+     */
+    private int scanWriteOffset(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer();
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segmentBytes) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentBytes) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_BYTES, payload);
+            if (crc(payload) != buffer.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        for (int i = offset; i < segmentBytes && i < offset + HEADER_BYTES; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        return offset;
+    }
+
+    private void roll() {
+        active.buffer().force();
+        active = openSegment(active.id() + 1);
+        writeOffset = 0;
+    }
+
+    private Segment openSegment(long id) {
+        try {
+            Segment segment = Segment.open(directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX), id, segmentBytes);
+            segments.put(id, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el segmento " + id + " del journal", e);
+        }
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    // -------------------------------------------------------------------------
+    // Formato binario: un byte de flags con los campos presentes, el UUID si lo hay, el byte de success (-1, 0 o
+    // 1), los doubles presentes y los strings como [longitud][utf-8] (-1 para null).
+    // -------------------------------------------------------------------------
+
+    static byte[] encode(CallDTO callDTO) {
+        byte[] timestamp = utf8(callDTO.getTimestamp());
+        byte[] endpoint = utf8(callDTO.getEndpoint());
+        byte[] errorMessage = utf8(callDTO.getErrorMessage());
+        Double[] numbers = {callDTO.getNum1(), callDTO.getNum2(), callDTO.getPercentage(), callDTO.getResult()};
+
+        UUID id = callDTO.getId();
+        byte flags = id == null ? 0 : HAS_ID;
+        int size = 1 + (id == null ? 0 : 16) + 1 + 3 * 4;
+        for (int i = 0; i < numbers.length; i++) {
+            if (numbers[i] != null) {
+                flags |= (byte) (HAS_NUM1 << i);
+                size += 8;
+            }
+        }
+        for (byte[] string : new byte[][]{timestamp, endpoint, errorMessage}) {
+            size += string == null ? 0 : string.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).put(flags);
+        if (id != null) {
+            buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        }
+        buffer.put(callDTO.getSuccess() == null ? (byte) -1 : (byte) (callDTO.getSuccess() ? 1 : 0));
+        for (Double number : numbers) {
+            if (number != null) {
+                buffer.putDouble(number);
+            }
+        }
+        putString(buffer, timestamp);
+        putString(buffer, endpoint);
+        putString(buffer, errorMessage);
+        return buffer.array();
+    }
+
+    static CallDTO decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte flags = buffer.get();
+        UUID id = (flags & HAS_ID) != 0 ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+        byte success = buffer.get();
+        return CallDTO.builder()
+                .id(id)
+                .success(success < 0 ? null : success == 1)
+                .num1((flags & HAS_NUM1) != 0 ? buffer.getDouble() : null)
+                .num2((flags & HAS_NUM2) != 0 ? buffer.getDouble() : null)
+                .percentage((flags & HAS_PERCENTAGE) != 0 ? buffer.getDouble() : null)
+                .result((flags & HAS_RESULT) != 0 ? buffer.getDouble() : null)
+                .timestamp(readString(buffer))
+                .endpoint(readString(buffer))
+                .errorMessage(readString(buffer))
+                .build();
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] string) {
+        if (string == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(string.length).put(string);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    public record Position(long segmentId, int offset) {
+    }
+
+    public record Batch(List<CallDTO> calls, Position end) {
+
+        public boolean isEmpty() {
+            return calls.isEmpty();
+        }
+    }
+
+    private record Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+
+        static Segment open(Path path, long id, int segmentBytes) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("[Journal] Error cerrando {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.dto.mapper.CallMapper;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Vacía el {@link CallJournal} hacia la base de datos en lotes de {@code app.history.batch-size}.
+ * <p>
+ * Si un lote falla (base de datos caída o lenta) no se avanza el checkpoint y se reintenta con espera
+ * exponencial hasta {@code app.history.journal.max-backoff-ms}; en cuanto la base vuelve, el journal se drena.
+ */
+@Component
+@ConditionalOnProperty(name = "app.history.journal.enabled", havingValue = "true")
+@Slf4j
+public class CallJournalReplayer {
+
+    private final CallJournal journal;
+    private final CallRepository callRepository;
+    private final TransactionOperations transactionOperations;
+    private final ThreadFactory threadFactory;
+    private final Counter replayed;
+    private final Counter failures;
+
+    @Value("${app.history.batch-size}")
+    private int batchSize;
+
+    @Value("${app.history.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    @Value("${app.history.journal.max-backoff-ms}")
+    private long maxBackoffMs;
+
+    private volatile boolean running;
+    private Thread replayer;
+
+    public CallJournalReplayer(CallJournal journal, CallRepository callRepository,
+                               TransactionOperations transactionOperations, MeterRegistry meterRegistry,
+                               @Qualifier("historyThreadFactory") ThreadFactory threadFactory) {
+        this.journal = journal;
+        this.callRepository = callRepository;
+        this.transactionOperations = transactionOperations;
+        this.threadFactory = threadFactory;
+        this.replayed = meterRegistry.counter("history.journal.replayed");
+        this.failures = meterRegistry.counter("history.journal.replay_failures");
+        Gauge.builder("history.journal.backlog.bytes", journal, CallJournal::getBacklogBytes)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        replayer = threadFactory.newThread(this::replayLoop);
+        replayer.setName("CallJournalReplayer");
+        replayer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(replayer);
+        replayer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void replayLoop() {
+        long backoffMs = flushIntervalMs;
+        while (running) {
+            long pauseMs = flushIntervalMs;
+            try {
+                if (replayOnce() == batchSize) {
+                    pauseMs = 0;
+                }
+                backoffMs = flushIntervalMs;
+            } catch (Exception e) {
+                failures.increment();
+                backoffMs = Math.min(maxBackoffMs, backoffMs * 2);
+                pauseMs = backoffMs;
+                log.warn("[Journal] No se pudo volcar el journal, reintento en {} ms: {}", backoffMs, e.getMessage());
+            }
+            if (pauseMs > 0 && running) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pauseMs));
+            }
+        }
+    }
+
+    int replayOnce() {
+        CallJournal.Batch batch = journal.readBatch(batchSize);
+        if (!batch.isEmpty()) {
+            List<Call> calls = batch.calls().stream().map(CallMapper::dtoToEntity).toList();
+            transactionOperations.execute(status ->
+                    callRepository.saveAll(ReplayedCalls.withoutPersisted(callRepository, calls)));
+            replayed.increment(calls.size());
+            log.info("[Journal] Lote de {} llamadas volcado desde el journal", calls.size());
+        }
+        journal.commit(batch);
+        return batch.calls().size();
+    }
+}
@@ -0,0 +1,95 @@
+package com.tenpo.challenge.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.challenge.dto.CallDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Fichero NDJSON donde se desbordan las llamadas que no caben en la cola del historial.
+ * <p>
+ * Para reinyectarlas, el fichero se renombra a {@code .replaying} y se lee por lotes; si un lote falla el
+ * fichero se conserva y se reintenta en la siguiente pasada.
+ */
+@Component
+@Slf4j
+public class CallSpillFile {
+
+    private final ObjectMapper objectMapper;
+    private final Path spillPath;
+    private final Path replayPath;
+
+    public CallSpillFile(ObjectMapper objectMapper, @Value("${app.history.spill-file}") String spillFile) {
+        this.objectMapper = objectMapper;
+        this.spillPath = Path.of(spillFile);
+        this.replayPath = Path.of(spillFile + ".replaying");
+    }
+
+    public synchronized void append(CallDTO callDTO) {
+        try {
+            Path parent = spillPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            byte[] line = (objectMapper.writeValueAsString(callDTO) + "\n").getBytes(StandardCharsets.UTF_8);
+            Files.write(spillPath, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo desbordar la llamada a disco", e);
+        }
+    }
+
+    public boolean hasPending() {
+        try {
+            return Files.exists(replayPath) || (Files.exists(spillPath) && Files.size(spillPath) > 0);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public void replay(int batchSize, Consumer<List<CallDTO>> sink) throws IOException {
+        synchronized (this) {
+            if (!Files.exists(replayPath)) {
+                if (!Files.exists(spillPath)) {
+                    return;
+                }
+                Files.move(spillPath, replayPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(replayPath, StandardCharsets.UTF_8)) {
+            List<CallDTO> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(objectMapper.readValue(line, CallDTO.class));
+                if (batch.size() == batchSize) {
+                    sink.accept(batch);
+                    replayed += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                sink.accept(batch);
+                replayed += batch.size();
+            }
+        }
+        Files.delete(replayPath);
+        log.info("[History] {} llamadas reinyectadas desde disco", replayed);
+    }
+}
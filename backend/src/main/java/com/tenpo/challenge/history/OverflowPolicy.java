@@ -0,0 +1,19 @@
+package com.tenpo.challenge.history;
+
+/**
+ * Qué hacer con una llamada cuando la cola del historial está llena.
+ */
+public enum OverflowPolicy {
+
+    /** Descarta la llamada nueva. */
+    DROP_NEWEST,
+
+    /** Descarta la llamada más antigua de la cola para hacer sitio a la nueva. */
+    DROP_OLDEST,
+
+    /** El hilo llamante espera hasta {@code app.history.block-budget-ms} a que haya hueco; si no, descarta la nueva. */
+    BLOCK,
+
+    /** Escribe la llamada en un fichero local que se reinyecta cuando la base de datos se recupera. */
+    SPILL_TO_DISK
+}
@@ -0,0 +1,53 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.service.ReactiveCallService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Historial sobre R2DBC ({@code app.history.store=r2dbc} con {@code app.history.mode=direct}): las llamadas de
+ * {@code CallService} van a {@link ReactiveCallService} sin ocupar un hilo durante el {@code insert}. Si la cola
+ * reactiva las rechaza o el lote falla, pasan al {@link CallHistoryWriter} local, con su journal y su spill file.
+ */
+@Component
+@Primary
+@ConditionalOnExpression("'${app.history.store:jpa}' == 'r2dbc' and '${app.history.mode:direct}' == 'direct'")
+@Slf4j
+public class R2dbcCallHistorySink implements CallHistorySink {
+
+    private final ReactiveCallService reactiveCallService;
+    private final CallHistoryWriter fallback;
+
+    public R2dbcCallHistorySink(ReactiveCallService reactiveCallService, CallHistoryWriter fallback) {
+        this.reactiveCallService = reactiveCallService;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public CompletableFuture<CallDTO> submit(CallDTO callDTO) {
+        return reactiveCallService.saveCall(callDTO)
+                .onErrorResume(e -> {
+                    log.error("[History R2DBC] Llamada no guardada, se usa el escritor local: {}", e.getMessage());
+                    return Mono.fromFuture(() -> fallback.submit(callDTO));
+                })
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<List<CallDTO>> submitAll(List<CallDTO> callDTOs) {
+        return reactiveCallService.saveCalls(callDTOs)
+                .onErrorResume(e -> {
+                    log.error("[History R2DBC] Lote de {} llamadas no guardado, se usa el escritor local: {}",
+                            callDTOs.size(), e.getMessage());
+                    return Mono.fromFuture(() -> fallback.submitAll(callDTOs));
+                })
+                .toFuture();
+    }
+}
@@ -0,0 +1,33 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * El journal, el spill y el outbox entregan al menos una vez: tras una caída entre el commit en Postgres y la
+ * confirmación, el mismo lote vuelve a llegar. Como el id se asigna al crear la llamada, las repetidas se reconocen
+ * y se descartan en lugar de romper el lote entero con una violación de clave primaria.
+ */
+final class ReplayedCalls {
+
+    private ReplayedCalls() {
+    }
+
+    static List<Call> withoutPersisted(CallRepository callRepository, List<Call> calls) {
+        List<UUID> ids = calls.stream().map(Call::getId).filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) {
+            return calls;
+        }
+        Set<UUID> persisted = new HashSet<>(callRepository.findExistingIds(ids));
+        if (persisted.isEmpty()) {
+            return calls;
+        }
+        return calls.stream().filter(call -> call.getId() == null || !persisted.contains(call.getId())).toList();
+    }
+}
@@ -3,11 +3,9 @@ package com.tenpo.challenge.model;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.UUID;
 
 @Entity
@@ -16,10 +14,14 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
-public class Call {
+public class Call implements Persistable<UUID> {
 
+    /**
+     * UUIDv7 asignado en la aplicación ({@link UuidV7}), normalmente al crear el {@code CallDTO}; si llega vacío se
+     * asigna en {@link #assignId()}. Como el id ya viene puesto, {@link #isNew()} evita que {@code save} haga un
+     * {@code merge} con su SELECT previo.
+     */
     @Id
-            @GeneratedValue(strategy = GenerationType.UUID)
     UUID id;
 
     @Column
@@ -28,14 +30,48 @@ public class Call {
     @Column
     private String endpoint;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(columnDefinition = "jsonb")
-    private Map<String, String> params;
+    @Column
+    private Double num1;
+
+    @Column
+    private Double num2;
 
     @Column
-    private String response;
+    private Double percentage;
+
+    @Column
+    private Double result;
+
+    /**
+     * Solo en las llamadas fallidas.
+     */
+    @Column
+    private String errorMessage;
 
     @Column
     private Boolean success;
 
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    @PrePersist
+    void assignId() {
+        if (id == null) {
+            id = UuidV7.next();
+        }
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
 }
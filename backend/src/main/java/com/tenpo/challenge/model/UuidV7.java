@@ -0,0 +1,47 @@
+package com.tenpo.challenge.model;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de UUID versión 7 (RFC 9562): 48 bits de milisegundos Unix, la versión, 12 bits de contador y 62 bits
+ * aleatorios. Los ids se ordenan por momento de creación, así que las inserciones caen al final del btree de la
+ * clave primaria en lugar de repartirse por todas sus páginas, y ordenar por id equivale a ordenar por llegada.
+ * <p>
+ * Dentro de un mismo milisegundo el contador garantiza que cada id es mayor que el anterior de este proceso; si se
+ * agota (más de 4096 ids en un milisegundo) o el reloj retrocede, se sigue incrementando a partir del último.
+ * La parte aleatoria sale de {@link ThreadLocalRandom}: los ids no son secretos y así generarlos no contiende.
+ */
+public final class UuidV7 {
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final int COUNTER_BITS = 12;
+
+    /** Último {@code (milisegundos << 12) | contador} emitido. */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long nowMillis) {
+        long candidate = nowMillis << COUNTER_BITS;
+        long state = LAST.updateAndGet(previous -> candidate > previous ? candidate : previous + 1);
+        long mostSignificant = (state >>> COUNTER_BITS) << 16 | VERSION | (state & 0xFFF);
+        long leastSignificant = ThreadLocalRandom.current().nextLong() & RANDOM_MASK | VARIANT;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Milisegundos Unix en que se generó un UUIDv7.
+     */
+    public static long timestampMillis(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,44 @@
+package com.tenpo.challenge.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Total aproximado de llamadas a partir de {@code pg_class.reltuples}, que Postgres mantiene con autovacuum y
+ * ANALYZE. El valor se cachea {@code app.history.count-estimate.ttl-ms} para que pasar de página no cueste ni
+ * siquiera esa consulta. Si la tabla aún no tiene estadísticas, es pequeña y se cuenta de verdad.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CallCountEstimator {
+
+    private final CallRepository callRepository;
+    private final AtomicReference<Estimate> cached = new AtomicReference<>();
+
+    @Value("${app.history.count-estimate.ttl-ms}")
+    private long ttlMs;
+
+    public long estimate() {
+        Estimate current = cached.get();
+        long now = System.nanoTime();
+        if (current != null && now - current.takenAtNanos() < TimeUnit.MILLISECONDS.toNanos(ttlMs)) {
+            return current.count();
+        }
+        long count = callRepository.estimateCount();
+        if (count < 0) {
+            log.debug("Sin estadísticas para call, se usa count(*)");
+            count = callRepository.count();
+        }
+        cached.set(new Estimate(count, now));
+        return count;
+    }
+
+    private record Estimate(long count, long takenAtNanos) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.tenpo.challenge.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Mantiene las particiones mensuales de {@code call} creadas por la migración {@code V1__partition_call_by_month}.
+ * <p>
+ * Al arrancar y después según {@code app.history.partitions.cron}: crea el mes actual y los
+ * {@code app.history.partitions.premake-months} siguientes, y retira las particiones anteriores a
+ * {@code app.history.partitions.retention-months} con {@code DROP TABLE} o {@code DETACH PARTITION}. Todo va en una
+ * transacción con un advisory lock, así que con varias réplicas solo una hace el trabajo en cada pasada.
+ */
+@Component
+@ConditionalOnProperty(name = "app.history.partitions.enabled", havingValue = "true")
+@Slf4j
+public class CallPartitionMaintenance {
+
+    public enum RetentionAction {
+        /** Borra la partición y sus datos. */
+        DROP,
+        /** La separa de {@code call} y la deja como tabla independiente, p. ej. para archivarla. */
+        DETACH
+    }
+
+    static final String PARTITION_PREFIX = "call_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final long LOCK_KEY = 0x63616c6c5f70L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.history.partitions.premake-months}")
+    private int premakeMonths;
+
+    @Value("${app.history.partitions.retention-months}")
+    private int retentionMonths;
+
+    @Value("${app.history.partitions.retention-action}")
+    private RetentionAction retentionAction;
+
+    @Value("${app.history.partitions.cron}")
+    private String cron;
+
+    public CallPartitionMaintenance(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations,
+                                    @Qualifier("historyMaintenanceScheduler") TaskScheduler taskScheduler,
+                                    MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        run();
+        taskScheduler.schedule(this::run, new CronTrigger(cron));
+        log.info("[Particiones] Mantenimiento programado con cron '{}'", cron);
+    }
+
+    void run() {
+        try {
+            maintain(YearMonth.now());
+        } catch (Exception e) {
+            meterRegistry.counter("history.partitions.failures").increment();
+            log.error("[Particiones] Falló el mantenimiento de particiones: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Una pasada de mantenimiento tomando {@code current} como mes en curso.
+     */
+    void maintain(YearMonth current) {
+        transactionOperations.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class,
+                    LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                log.info("[Particiones] Otra réplica está haciendo el mantenimiento, se omite esta pasada");
+                return;
+            }
+            for (int i = 0; i <= premakeMonths; i++) {
+                createPartition(current.plusMonths(i));
+            }
+            if (retentionMonths > 0) {
+                retireBefore(current.minusMonths(retentionMonths));
+            }
+        });
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("create table if not exists " + partitionName(month)
+                + " partition of call for values from ('" + month.atDay(1) + "') to ('" + month.plusMonths(1).atDay(1)
+                + "')");
+        meterRegistry.counter("history.partitions.ensured").increment();
+    }
+
+    private void retireBefore(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList("select c.relname from pg_inherits i "
+                + "join pg_class c on c.oid = i.inhrelid where i.inhparent = 'call'::regclass", String.class);
+        for (String partition : partitions) {
+            YearMonth month = parseMonth(partition);
+            if (month == null || !month.isBefore(oldestKept)) {
+                continue;
+            }
+            if (retentionAction == RetentionAction.DETACH) {
+                jdbcTemplate.execute("alter table call detach partition " + partition);
+            } else {
+                jdbcTemplate.execute("drop table " + partition);
+            }
+            meterRegistry.counter("history.partitions.retired", "action", retentionAction.name()).increment();
+            log.info("[Particiones] Partición {} retirada ({})", partition, retentionAction);
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+
+    /**
+     * Mes de una partición gestionada, o {@code null} si el nombre no sigue el patrón {@code call_pYYYYMM}.
+     */
+    static YearMonth parseMonth(String partition) {
+        if (partition == null || !partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
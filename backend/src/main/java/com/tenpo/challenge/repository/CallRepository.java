@@ -1,12 +1,73 @@
 package com.tenpo.challenge.repository;
 
+import com.tenpo.challenge.dto.CallProjection;
 import com.tenpo.challenge.model.Call;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface CallRepository extends JpaRepository<Call, UUID> {
+public interface CallRepository extends JpaRepository<Call, UUID>, CallRepositoryCustom {
+
+    String EXPORT_FETCH_SIZE = "1000";
+
+    /**
+     * Proyección común de las lecturas del historial: solo las columnas que viajan al cliente, construidas como
+     * {@link CallProjection} sin pasar por la entidad.
+     */
+    String PROJECTION = "select new com.tenpo.challenge.dto.CallProjection("
+            + "c.id, c.timestamp, c.endpoint, c.num1, c.num2, c.percentage, c.result, c.errorMessage, c.success) "
+            + "from Call c";
+
+    /**
+     * Todo el historial como proyecciones, sin hidratar entidades.
+     */
+    @Query(PROJECTION)
+    List<CallProjection> findAllProjected();
+
+    /**
+     * Página de proyecciones con su {@code count(*)}, para el listado paginado clásico.
+     */
+    @Query(value = PROJECTION, countQuery = "select count(c) from Call c")
+    Page<CallProjection> findAllProjected(Pageable pageable);
+
+    /**
+     * Cuáles de {@code ids} ya están guardados; resuelto con la clave primaria {@code (id, timestamp)}.
+     */
+    @Query("select c.id from Call c where c.id in :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Todo el historial como cursor de servidor: Postgres entrega las filas en bloques de
+     * {@link #EXPORT_FETCH_SIZE} en lugar de materializar el resultado completo. Requiere una transacción abierta
+     * mientras se consume el stream.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select c from Call c order by c.timestamp, c.id")
+    Stream<Call> streamAll();
+
+    /**
+     * Número aproximado de filas según las estadísticas de Postgres, sumando las particiones de {@code call} (la
+     * tabla padre no guarda filas); -1 si ninguna partición se ha analizado todavía.
+     */
+    @Query(value = "select case when coalesce(max(c.reltuples), -1) < 0 then -1 "
+            + "else sum(greatest(c.reltuples, 0)) end::bigint "
+            + "from pg_inherits i join pg_class c on c.oid = i.inhrelid where i.inhparent = 'call'::regclass",
+            nativeQuery = true)
+    long estimateCount();
 }
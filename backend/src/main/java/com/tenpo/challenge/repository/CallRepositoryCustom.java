@@ -0,0 +1,27 @@
+package com.tenpo.challenge.repository;
+
+import com.tenpo.challenge.dto.CallCursor;
+import com.tenpo.challenge.dto.CallFilter;
+import com.tenpo.challenge.dto.CallProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Consultas del historial con filtros opcionales, construidas con Criteria para añadir solo los predicados pedidos.
+ */
+public interface CallRepositoryCustom {
+
+    /**
+     * Página sin {@code count(*)}: se pide una fila de más para saber si hay siguiente.
+     */
+    Slice<CallProjection> findFiltered(CallFilter filter, Pageable pageable);
+
+    /**
+     * Hasta {@code limit} llamadas a partir de {@code position} por {@code (timestamp, id)}: sin posición, las más
+     * recientes; con {@code NEXT}, las más antiguas en orden descendente; con {@code PREV}, las más recientes en orden
+     * ascendente (la página anterior, al revés).
+     */
+    List<CallProjection> findKeyset(CallFilter filter, CallCursor position, int limit);
+}
@@ -0,0 +1,111 @@
+package com.tenpo.challenge.repository;
+
+import com.tenpo.challenge.dto.CallCursor;
+import com.tenpo.challenge.dto.CallFilter;
+import com.tenpo.challenge.dto.CallProjection;
+import com.tenpo.challenge.model.Call;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementación de {@link CallRepositoryCustom}. Proyecta directamente a {@link CallProjection} y, como el resto de
+ * lecturas del historial, no hidrata entidades.
+ */
+@RequiredArgsConstructor
+public class CallRepositoryImpl implements CallRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<CallProjection> findFiltered(CallFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CallProjection> query = cb.createQuery(CallProjection.class);
+        Root<Call> call = query.from(Call.class);
+        query.select(projection(cb, call))
+                .where(predicates(cb, call, filter).toArray(Predicate[]::new))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), call, cb));
+
+        List<CallProjection> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<CallProjection> findKeyset(CallFilter filter, CallCursor position, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CallProjection> query = cb.createQuery(CallProjection.class);
+        Root<Call> call = query.from(Call.class);
+        Path<LocalDateTime> timestamp = call.get("timestamp");
+        Path<UUID> id = call.get("id");
+
+        List<Predicate> predicates = predicates(cb, call, filter);
+        boolean ascending = position != null && position.direction() == CallCursor.Direction.PREV;
+        if (position != null) {
+            // (timestamp, id) < (:timestamp, :id) desplegado en un OR, que Postgres no convierte en rango de índice.
+            // La cota timestamp <= :timestamp delante sí lo es: el recorrido de idx_call_timestamp_id empieza en la
+            // posición del cursor y el OR solo descarta las filas con ese mismo timestamp
+            predicates.add(ascending
+                    ? cb.greaterThanOrEqualTo(timestamp, position.timestamp())
+                    : cb.lessThanOrEqualTo(timestamp, position.timestamp()));
+            predicates.add(ascending
+                    ? cb.or(cb.greaterThan(timestamp, position.timestamp()),
+                            cb.and(cb.equal(timestamp, position.timestamp()), cb.greaterThan(id, position.id())))
+                    : cb.or(cb.lessThan(timestamp, position.timestamp()),
+                            cb.and(cb.equal(timestamp, position.timestamp()), cb.lessThan(id, position.id()))));
+        }
+        query.select(projection(cb, call))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(ascending
+                        ? List.of(cb.asc(timestamp), cb.asc(id))
+                        : List.of(cb.desc(timestamp), cb.desc(id)));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private static CompoundSelection<CallProjection> projection(CriteriaBuilder cb, Root<Call> call) {
+        return cb.construct(CallProjection.class, call.get("id"), call.get("timestamp"), call.get("endpoint"),
+                call.get("num1"), call.get("num2"), call.get("percentage"), call.get("result"),
+                call.get("errorMessage"), call.get("success"));
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<Call> call, CallFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(call.get("timestamp"), filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThan(call.get("timestamp"), filter.to()));
+        }
+        if (filter.endpoint() != null) {
+            predicates.add(cb.equal(call.get("endpoint"), filter.endpoint()));
+        }
+        if (filter.success() != null) {
+            predicates.add(cb.equal(call.get("success"), filter.success()));
+        }
+        if (filter.num1() != null) {
+            predicates.add(cb.equal(call.get("num1"), filter.num1()));
+        }
+        if (filter.num2() != null) {
+            predicates.add(cb.equal(call.get("num2"), filter.num2()));
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,126 @@
+package com.tenpo.challenge.repository;
+
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallProjection;
+import com.tenpo.challenge.dto.CallSortKey;
+import com.tenpo.challenge.model.UuidV7;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Acceso no bloqueante a la tabla {@code call} con {@link DatabaseClient} ({@code app.history.store=r2dbc}).
+ * <p>
+ * Las inserciones de un lote van en una sola sentencia con un juego de parámetros por fila: el driver las envía en
+ * pipeline con un único {@code Sync}, así que el lote entero es una ida y vuelta y una transacción implícita. Las
+ * lecturas completas usan {@code fetchSize}, de modo que el portal solo trae filas a medida que el suscriptor las
+ * pide. {@code "call"} y {@code "timestamp"} van entre comillas porque son palabras reservadas en otros motores
+ * compatibles, p. ej. H2 en los tests.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.history.store", havingValue = "r2dbc")
+public class R2dbcCallRepository {
+
+    static final String COLUMNS = "id, \"timestamp\", endpoint, num1, num2, percentage, result, error_message, success";
+    static final String INSERT = "insert into \"call\" (" + COLUMNS + ") values ($1, $2, $3, $4, $5, $6, $7, $8, $9)";
+
+    private final DatabaseClient databaseClient;
+
+    public R2dbcCallRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Inserta todas las llamadas en una sola sentencia y emite el número de filas insertadas. Las que llegan sin id
+     * reciben un UUIDv7, igual que en {@code Call#assignId()}.
+     */
+    public Mono<Long> insertAll(List<CallDTO> calls) {
+        if (calls.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT);
+            for (int i = 0; i < calls.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                bind(statement, calls.get(i));
+            }
+            return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+        }).reduce(0L, Long::sum);
+    }
+
+    public Flux<CallProjection> findPage(CallSortKey sortKey, int limit, long offset) {
+        return databaseClient.sql("select " + COLUMNS + " from \"call\" order by " + orderBy(sortKey)
+                        + " limit :limit offset :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(R2dbcCallRepository::toProjection)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("select count(*) from \"call\"")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Todo el historial por {@code (timestamp, id)}, pidiendo a Postgres {@code fetchSize} filas cada vez.
+     */
+    public Flux<CallProjection> streamAll(int fetchSize) {
+        return databaseClient.sql("select " + COLUMNS + " from \"call\" order by \"timestamp\", id")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(R2dbcCallRepository::toProjection)
+                .all();
+    }
+
+    private static String orderBy(CallSortKey sortKey) {
+        return sortKey == CallSortKey.TIMESTAMP ? "\"timestamp\", id" : "id";
+    }
+
+    private static void bind(Statement statement, CallDTO call) {
+        if (call.getId() == null) {
+            call.setId(UuidV7.next());
+        }
+        statement.bind(0, call.getId());
+        statement.bind(1, LocalDateTime.parse(call.getTimestamp()));
+        bindNullable(statement, 2, call.getEndpoint(), String.class);
+        bindNullable(statement, 3, call.getNum1(), Double.class);
+        bindNullable(statement, 4, call.getNum2(), Double.class);
+        bindNullable(statement, 5, call.getPercentage(), Double.class);
+        bindNullable(statement, 6, call.getResult(), Double.class);
+        bindNullable(statement, 7, call.getErrorMessage(), String.class);
+        bindNullable(statement, 8, call.getSuccess(), Boolean.class);
+    }
+
+    private static void bindNullable(Statement statement, int index, Object value, Class<?> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+    private static CallProjection toProjection(Readable row) {
+        return new CallProjection(
+                row.get("id", UUID.class),
+                row.get("timestamp", LocalDateTime.class),
+                row.get("endpoint", String.class),
+                row.get("num1", Double.class),
+                row.get("num2", Double.class),
+                row.get("percentage", Double.class),
+                row.get("result", Double.class),
+                row.get("error_message", String.class),
+                row.get("success", Boolean.class));
+    }
+}
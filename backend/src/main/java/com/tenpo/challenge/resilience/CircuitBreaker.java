@@ -0,0 +1,104 @@
+package com.tenpo.challenge.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker con estados CLOSED → OPEN → HALF_OPEN.
+ * <p>
+ * Se abre tras {@code failureThreshold} fallos consecutivos; pasado {@code openDuration} deja pasar
+ * una única llamada de prueba (HALF_OPEN) que decide si vuelve a cerrarse o a abrirse.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAtNanos = new AtomicLong();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("circuit_breaker.state", state, s -> s.get().ordinal())
+                .description("0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos.get() < openDurationNanos) {
+                return false;
+            }
+            transition(State.OPEN, State.HALF_OPEN);
+        }
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    /**
+     * Devuelve un permiso que no llegó a usarse (por ejemplo, rechazado por el bulkhead).
+     */
+    public void releasePermission() {
+        if (state.get() == State.HALF_OPEN) {
+            trialInFlight.set(false);
+        }
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.get() == State.HALF_OPEN) {
+            trialInFlight.set(false);
+            transition(State.HALF_OPEN, State.CLOSED);
+        }
+    }
+
+    public void onFailure() {
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            openedAtNanos.set(System.nanoTime());
+            trialInFlight.set(false);
+            transition(State.HALF_OPEN, State.OPEN);
+            return;
+        }
+        if (current == State.CLOSED && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAtNanos.set(System.nanoTime());
+            transition(State.CLOSED, State.OPEN);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private void transition(State from, State to) {
+        if (state.compareAndSet(from, to)) {
+            if (to == State.CLOSED) {
+                consecutiveFailures.set(0);
+            }
+            log.warn("[CircuitBreaker {}] {} -> {}", name, from, to);
+            meterRegistry.counter("circuit_breaker.transitions",
+                    "name", name, "from", from.name(), "to", to.name()).increment();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.tenpo.challenge.resilience;
+
+import com.tenpo.challenge.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Semáforo justo con espera acotada delante de un recurso de capacidad fija (pool de Postgres, conexión de Redis).
+ * <p>
+ * Con hilos virtuales ya no hay un pool de hilos que limite cuántas peticiones llegan a la vez al recurso: sin este
+ * límite, miles de hilos harían cola dentro del pool de conexiones hasta agotar su timeout. Si no se obtiene permiso
+ * en {@code maxWait} se lanza {@link ConcurrencyLimitExceededException}.
+ */
+public class ConcurrencyLimiter {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final Counter rejections;
+
+    public ConcurrencyLimiter(String name, int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.rejections = meterRegistry.counter("concurrency.limiter.rejections", "name", name);
+        Gauge.builder("concurrency.limiter.in_use", this, ConcurrencyLimiter::inUse)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public void acquire() {
+        try {
+            if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyLimitExceededException("Espera interrumpida por un permiso de " + name, e);
+        }
+        rejections.increment();
+        throw new ConcurrencyLimitExceededException("Sin permiso para " + name + " tras "
+                + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms (" + maxConcurrent + " en uso)");
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            release();
+        }
+    }
+
+    public int inUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
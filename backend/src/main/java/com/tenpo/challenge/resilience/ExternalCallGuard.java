@@ -0,0 +1,150 @@
+package com.tenpo.challenge.resilience;
+
+import com.tenpo.challenge.exception.ExternalServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Capa de resiliencia para las llamadas al proveedor externo de porcentaje: límite de
+ * concurrencia (bulkhead), deadline por llamada y circuit breaker.
+ * <p>
+ * Cualquier rechazo se traduce en {@link ExternalServiceUnavailableException}, que el servicio de
+ * porcentaje trata como un fallo del proveedor y resuelve con el valor {@code :backup}.
+ * <p>
+ * El permiso del bulkhead lo devuelve la propia tarea al terminar, no el llamante al vencer el deadline: una llamada
+ * que ignora la interrupción sigue ocupando su hilo y su permiso, así que nunca hay más de
+ * {@code max-concurrent-calls} tareas en el pool y las siguientes se rechazan en vez de encolarse detrás.
+ */
+@Component
+@Slf4j
+public class ExternalCallGuard {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.external.resilience.timeout-ms}")
+    private long timeoutMs;
+
+    @Value("${app.external.resilience.max-concurrent-calls}")
+    private int maxConcurrentCalls;
+
+    @Value("${app.external.resilience.failure-threshold}")
+    private int failureThreshold;
+
+    @Value("${app.external.resilience.open-ms}")
+    private long openMs;
+
+    private Semaphore bulkhead;
+    private ThreadPoolExecutor executor;
+    private CircuitBreaker circuitBreaker;
+    private Counter bulkheadRejections;
+    private Counter timeouts;
+
+    public ExternalCallGuard(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        bulkhead = new Semaphore(maxConcurrentCalls);
+        executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxConcurrentCalls), new CustomizableThreadFactory("ExternalCall-"));
+        circuitBreaker = new CircuitBreaker("percentage-provider", failureThreshold,
+                Duration.ofMillis(openMs), meterRegistry);
+        bulkheadRejections = meterRegistry.counter("percentage.external.rejections", "reason", "bulkhead");
+        timeouts = meterRegistry.counter("percentage.external.rejections", "reason", "timeout");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new ExternalServiceUnavailableException("Circuit breaker abierto para el proveedor de porcentaje");
+        }
+        if (!bulkhead.tryAcquire()) {
+            circuitBreaker.releasePermission();
+            throw rejectedByBulkhead();
+        }
+
+        // Quien gane este flag devuelve el permiso: la tarea si llega a empezar, el llamante si la cancela antes
+        AtomicBoolean permitClaimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!permitClaimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return call.get();
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            circuitBreaker.releasePermission();
+            throw rejectedByBulkhead();
+        }
+
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            abandon(future, permitClaimed);
+            timeouts.increment();
+            circuitBreaker.onFailure();
+            throw new ExternalServiceUnavailableException("El proveedor superó el deadline de " + timeoutMs + " ms", e);
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure();
+            throw new ExternalServiceUnavailableException("El proveedor respondió con error: "
+                    + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(future, permitClaimed);
+            circuitBreaker.releasePermission();
+            throw new ExternalServiceUnavailableException("Llamada al proveedor interrumpida", e);
+        }
+    }
+
+    /**
+     * Cancela una llamada que ya no se va a esperar. Si la tarea no había empezado, el permiso se devuelve aquí;
+     * si está en curso lo devolverá ella al terminar.
+     */
+    private void abandon(Future<?> future, AtomicBoolean permitClaimed) {
+        future.cancel(true);
+        if (permitClaimed.compareAndSet(false, true)) {
+            bulkhead.release();
+        }
+    }
+
+    private ExternalServiceUnavailableException rejectedByBulkhead() {
+        bulkheadRejections.increment();
+        return new ExternalServiceUnavailableException(
+                "Se alcanzó el máximo de " + maxConcurrentCalls + " llamadas concurrentes al proveedor");
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+}
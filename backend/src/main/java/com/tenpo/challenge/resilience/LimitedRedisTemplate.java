@@ -0,0 +1,27 @@
+package com.tenpo.challenge.resilience;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * {@link RedisTemplate} que pasa cada comando por un {@link ConcurrencyLimiter}. Todas las operaciones
+ * ({@code opsForValue()}, scripts, etc.) terminan en {@link #execute(RedisCallback, boolean, boolean)}.
+ */
+public class LimitedRedisTemplate<K, V> extends RedisTemplate<K, V> {
+
+    private final ConcurrencyLimiter limiter;
+
+    public LimitedRedisTemplate(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        limiter.acquire();
+        try {
+            return super.execute(action, exposeConnection, pipeline);
+        } finally {
+            limiter.release();
+        }
+    }
+}
@@ -1,8 +1,20 @@
 package com.tenpo.challenge.service;
 
+import com.tenpo.challenge.dto.CalculateBatchResponseDTO;
+import com.tenpo.challenge.dto.CalculatePairDTO;
 import com.tenpo.challenge.dto.CalculateResponseDTO;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface CalculatorService {
 
     CalculateResponseDTO calculatePercentage(Double num1, Double num2);
+
+    /**
+     * {@link #calculatePercentage(Double, Double)} en {@code calculateExecutor}.
+     */
+    CompletableFuture<CalculateResponseDTO> calculatePercentageAsync(Double num1, Double num2);
+
+    CalculateBatchResponseDTO calculatePercentages(List<CalculatePairDTO> pairs);
 }
@@ -0,0 +1,14 @@
+package com.tenpo.challenge.service;
+
+import com.tenpo.challenge.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CallExportService {
+
+    /**
+     * Escribe todo el historial en {@code outputStream} fila a fila y devuelve cuántas llamadas se exportaron.
+     */
+    long exportCalls(ExportFormat format, OutputStream outputStream) throws IOException;
+}
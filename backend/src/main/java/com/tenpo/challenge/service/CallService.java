@@ -1,6 +1,9 @@
 package com.tenpo.challenge.service;
 
 import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallFilter;
+import com.tenpo.challenge.dto.CallSliceDTO;
+import com.tenpo.challenge.dto.KeysetPageDTO;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -12,5 +15,22 @@ public interface CallService {
 
     CompletableFuture<CallDTO> saveCall(CallDTO callDTO);
 
+    CompletableFuture<List<CallDTO>> saveCalls(List<CallDTO> callDTOs);
+
     Page<CallDTO> getPaginatedCalls(int page, int size, String sortBy);
+
+    CallSliceDTO getCallSlice(int page, int size, String sortBy, boolean withTotal, CallFilter filter);
+
+    KeysetPageDTO getCallsByCursor(String cursor, int size, CallFilter filter);
+
+    // Las mismas lecturas en historyReadExecutor, para no ocupar el hilo de la petición
+
+    CompletableFuture<List<CallDTO>> getAllCallsAsync();
+
+    CompletableFuture<Page<CallDTO>> getPaginatedCallsAsync(int page, int size, String sortBy);
+
+    CompletableFuture<CallSliceDTO> getCallSliceAsync(int page, int size, String sortBy, boolean withTotal,
+                                                      CallFilter filter);
+
+    CompletableFuture<KeysetPageDTO> getCallsByCursorAsync(String cursor, int size, CallFilter filter);
 }
@@ -0,0 +1,10 @@
+package com.tenpo.challenge.service;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface PercentageProvider {
+
+    String getName();
+
+    CompletableFuture<Double> fetchPercentage();
+}
@@ -6,5 +6,7 @@ public interface PercentageService {
 
     Double fetchFromExternalService();
 
+    Double refreshPercentage();
+
     void saveBackupPercentage(Double percentage);
 }
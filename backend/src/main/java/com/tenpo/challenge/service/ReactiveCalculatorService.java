@@ -0,0 +1,15 @@
+package com.tenpo.challenge.service;
+
+import com.tenpo.challenge.dto.CalculateBatchResponseDTO;
+import com.tenpo.challenge.dto.CalculatePairDTO;
+import com.tenpo.challenge.dto.CalculateResponseDTO;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveCalculatorService {
+
+    Mono<CalculateResponseDTO> calculatePercentage(Double num1, Double num2);
+
+    Mono<CalculateBatchResponseDTO> calculatePercentages(List<CalculatePairDTO> pairs);
+}
@@ -0,0 +1,26 @@
+package com.tenpo.challenge.service;
+
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.ExportFormat;
+import org.springframework.data.domain.Page;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveCallService {
+
+    /**
+     * Emite la llamada cuando el lote en el que viaja queda insertado.
+     */
+    Mono<CallDTO> saveCall(CallDTO callDTO);
+
+    Mono<List<CallDTO>> saveCalls(List<CallDTO> callDTOs);
+
+    Mono<Page<CallDTO>> getPaginatedCalls(int page, int size, String sortBy);
+
+    /**
+     * Todo el historial como trozos de texto ya formateados; las filas se leen de la base a medida que se piden.
+     */
+    Flux<String> exportCalls(ExportFormat format);
+}
@@ -0,0 +1,10 @@
+package com.tenpo.challenge.service;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactivePercentageService {
+
+    Mono<Double> getPercentage();
+
+    Mono<Void> saveBackupPercentage(Double percentage);
+}
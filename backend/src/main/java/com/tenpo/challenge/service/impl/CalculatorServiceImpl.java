@@ -1,19 +1,23 @@
 package com.tenpo.challenge.service.impl;
 
+import com.tenpo.challenge.dto.CalculateBatchResponseDTO;
+import com.tenpo.challenge.dto.CalculatePairDTO;
 import com.tenpo.challenge.dto.CalculateResponseDTO;
 import com.tenpo.challenge.dto.CallDTO;
 import com.tenpo.challenge.exception.PercentageUnavailableException;
+import com.tenpo.challenge.model.UuidV7;
 import com.tenpo.challenge.service.CalculatorService;
 import com.tenpo.challenge.service.CallService;
 import com.tenpo.challenge.service.PercentageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -27,10 +31,6 @@ public class CalculatorServiceImpl implements CalculatorService {
 
         log.info("Begin process calculatePercentage with nums: {}, {}", num1, num2);
 
-        Map<String, String> params = new LinkedHashMap<>();
-        params.put("num1", String.valueOf(num1));
-        params.put("num2", String.valueOf(num2));
-
        try {
            double sum = num1 + num2;
            double percentage = percentageService.getPercentage();
@@ -40,10 +40,13 @@ public class CalculatorServiceImpl implements CalculatorService {
            percentageService.saveBackupPercentage(percentage);
 
            callService.saveCall(CallDTO.builder()
+                           .id(UuidV7.next())
                            .timestamp(String.valueOf(LocalDateTime.now()))
                            .endpoint("/api/calculate")
-                           .params(params)
-                           .response(String.valueOf(result))
+                           .num1(num1)
+                           .num2(num2)
+                           .percentage(percentage)
+                           .result(result)
                            .success(true)
                    .build());
 
@@ -54,10 +57,12 @@ public class CalculatorServiceImpl implements CalculatorService {
        }catch (PercentageUnavailableException exception){
 
            callService.saveCall(CallDTO.builder()
+                   .id(UuidV7.next())
                    .timestamp(String.valueOf(LocalDateTime.now()))
                    .endpoint("/api/calculate")
-                   .params(params)
-                   .response(exception.getMessage())
+                   .num1(num1)
+                   .num2(num2)
+                   .errorMessage(exception.getMessage())
                    .success(false)
                    .build());
 
@@ -65,4 +70,65 @@ public class CalculatorServiceImpl implements CalculatorService {
 
        }
     }
+
+    @Override
+    @Async("calculateExecutor")
+    public CompletableFuture<CalculateResponseDTO> calculatePercentageAsync(Double num1, Double num2) {
+        return CompletableFuture.completedFuture(calculatePercentage(num1, num2));
+    }
+
+    /**
+     * El porcentaje se resuelve y se respalda una sola vez para todo el lote, y el historial se entrega en una sola
+     * llamada a {@link CallService#saveCalls(List)}.
+     */
+    @Override
+    public CalculateBatchResponseDTO calculatePercentages(List<CalculatePairDTO> pairs) {
+
+        log.info("Begin process calculatePercentages with {} pairs", pairs.size());
+        String timestamp = String.valueOf(LocalDateTime.now());
+
+        double percentage;
+        try {
+            percentage = percentageService.getPercentage();
+        } catch (PercentageUnavailableException exception) {
+            List<CallDTO> failed = new ArrayList<>(pairs.size());
+            for (CalculatePairDTO pair : pairs) {
+                failed.add(CallDTO.builder()
+                        .id(UuidV7.next())
+                        .timestamp(timestamp)
+                        .endpoint("/api/calculate/batch")
+                        .num1(pair.num1())
+                        .num2(pair.num2())
+                        .errorMessage(exception.getMessage())
+                        .success(false)
+                        .build());
+            }
+            callService.saveCalls(failed);
+            throw exception;
+        }
+        percentageService.saveBackupPercentage(percentage);
+
+        List<Double> results = new ArrayList<>(pairs.size());
+        List<CallDTO> calls = new ArrayList<>(pairs.size());
+        for (CalculatePairDTO pair : pairs) {
+            double sum = pair.num1() + pair.num2();
+            double result = sum + sum * percentage / 100;
+            results.add(result);
+            calls.add(CallDTO.builder()
+                    .id(UuidV7.next())
+                    .timestamp(timestamp)
+                    .endpoint("/api/calculate/batch")
+                    .num1(pair.num1())
+                    .num2(pair.num2())
+                    .percentage(percentage)
+                    .result(result)
+                    .success(true)
+                    .build());
+        }
+        callService.saveCalls(calls);
+
+        return CalculateBatchResponseDTO.builder()
+                .results(results)
+                .build();
+    }
 }
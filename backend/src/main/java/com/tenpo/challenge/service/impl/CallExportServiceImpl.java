@@ -0,0 +1,113 @@
+package com.tenpo.challenge.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.ExportFormat;
+import com.tenpo.challenge.dto.mapper.CallMapper;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepository;
+import com.tenpo.challenge.service.CallExportService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta el historial leyendo del cursor de {@link CallRepository#streamAll()} y escribiendo cada fila según
+ * llega. Cada {@link CallRepository#EXPORT_FETCH_SIZE} filas se vacía el contexto de persistencia y se hace flush
+ * de la salida, así que la memoria usada no depende del tamaño de la tabla.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CallExportServiceImpl implements CallExportService {
+
+    private static final int CLEAR_EVERY = Integer.parseInt(CallRepository.EXPORT_FETCH_SIZE);
+    static final String CSV_HEADER = "id,timestamp,endpoint,num1,num2,percentage,result,errorMessage,success";
+
+    private final CallRepository callRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCalls(ExportFormat format, OutputStream outputStream) throws IOException {
+        log.info("Begin export of call history as {}", format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long exported = 0;
+        try (Stream<Call> calls = callRepository.streamAll()) {
+            Iterator<Call> iterator = calls.iterator();
+            while (iterator.hasNext()) {
+                CallDTO callDTO = CallMapper.entityToDTO(iterator.next());
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, callDTO);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(callDTO));
+                    writer.write('\n');
+                }
+                if (++exported % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} calls as {}", exported, format);
+        return exported;
+    }
+
+    static void writeCsvRow(Writer writer, CallDTO callDTO) throws IOException {
+        writer.write(csv(callDTO.getId() == null ? null : callDTO.getId().toString()));
+        writer.write(',');
+        writer.write(csv(callDTO.getTimestamp()));
+        writer.write(',');
+        writer.write(csv(callDTO.getEndpoint()));
+        writer.write(',');
+        writer.write(number(callDTO.getNum1()));
+        writer.write(',');
+        writer.write(number(callDTO.getNum2()));
+        writer.write(',');
+        writer.write(number(callDTO.getPercentage()));
+        writer.write(',');
+        writer.write(number(callDTO.getResult()));
+        writer.write(',');
+        writer.write(csv(callDTO.getErrorMessage()));
+        writer.write(',');
+        writer.write(csv(callDTO.getSuccess() == null ? null : callDTO.getSuccess().toString()));
+        writer.write('\n');
+    }
+
+    private static String number(Double value) {
+        return value == null ? "" : value.toString();
+    }
+
+    /**
+     * Escapa un campo según RFC 4180: entre comillas si contiene separadores, comillas o saltos de línea.
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
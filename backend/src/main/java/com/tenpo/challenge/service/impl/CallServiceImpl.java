@@ -1,23 +1,31 @@
 package com.tenpo.challenge.service.impl;
 
+import com.tenpo.challenge.dto.CallCursor;
 import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallFilter;
+import com.tenpo.challenge.dto.CallProjection;
+import com.tenpo.challenge.dto.CallSliceDTO;
+import com.tenpo.challenge.dto.CallSortKey;
+import com.tenpo.challenge.dto.KeysetPageDTO;
 import com.tenpo.challenge.dto.mapper.CallMapper;
-import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.history.CallHistorySink;
+import com.tenpo.challenge.repository.CallCountEstimator;
 import com.tenpo.challenge.repository.CallRepository;
 import com.tenpo.challenge.service.CallService;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.StreamSupport;
 
 @Service
 @RequiredArgsConstructor
@@ -25,32 +33,138 @@ import java.util.stream.StreamSupport;
 public class CallServiceImpl implements CallService {
 
     private final CallRepository callRepository;
+    private final CallHistorySink callHistorySink;
+    private final CallCountEstimator callCountEstimator;
     @Override
+    @Transactional(readOnly = true)
     public List<CallDTO> getAllCalls() {
 
-        Iterable<Call> callIterable = callRepository.findAll();
-        return StreamSupport.stream(callIterable.spliterator(), false)
-                .map(CallMapper::entityToDTO)
+        return callRepository.findAllProjected().stream()
+                .map(CallMapper::projectionToDTO)
                 .toList();
     }
 
     @Override
-    @Async("historyExecutor")
-    @Transactional
     public CompletableFuture<CallDTO> saveCall(CallDTO callDTO) {
 
-        log.info("Saving call with response: {}", callDTO.getResponse());
-        Call call = CallMapper.dtoToEntity(callDTO);
-        Call savedCall = callRepository.save(call);
-        return CompletableFuture.completedFuture(CallMapper.entityToDTO(savedCall));
+        log.debug("Queueing call with result: {}", callDTO.getResult());
+        return callHistorySink.submit(callDTO);
     }
 
     @Override
+    public CompletableFuture<List<CallDTO>> saveCalls(List<CallDTO> callDTOs) {
+
+        log.debug("Queueing {} calls in bulk", callDTOs.size());
+        return callHistorySink.submitAll(callDTOs);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<CallDTO> getPaginatedCalls(int page, int size, String sortBy) {
         log.info("Getting paginated calls with page {}, size {}, and sortBy{}", page, size, sortBy);
-        Pageable pageable = PageRequest.of(page - 1, size, Sort.by(sortBy));
-        Page<Call> callPage = callRepository.findAll(pageable);
+        Pageable pageable = PageRequest.of(page - 1, size, CallSortKey.fromParam(sortBy).toSort());
+        Page<CallProjection> callPage = callRepository.findAllProjected(pageable);
+
+        return callPage.map(CallMapper::projectionToDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CallSliceDTO getCallSlice(int page, int size, String sortBy, boolean withTotal, CallFilter filter) {
+        log.info("Getting call slice with page {}, size {}, sortBy {}, withTotal {} and filter {}", page, size, sortBy,
+                withTotal, filter);
+        Pageable pageable = PageRequest.of(page - 1, size, CallSortKey.fromParam(sortBy).toSort());
+        Slice<CallProjection> slice = callRepository.findFiltered(filter, pageable);
+
+        CallSliceDTO.CallSliceDTOBuilder builder = CallSliceDTO.builder()
+                .content(slice.map(CallMapper::projectionToDTO).getContent())
+                .page(page)
+                .size(size)
+                .hasNext(slice.hasNext());
+        // La estimación es de la tabla entera: con filtros no dice nada del resultado
+        if (withTotal && filter.isEmpty()) {
+            // Nunca por debajo de lo que ya se ha visto: las estadísticas pueden ir por detrás de las inserciones
+            long seen = (long) (page - 1) * size + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+            long estimatedTotal = Math.max(callCountEstimator.estimate(), seen);
+            builder.estimatedTotal(estimatedTotal)
+                    .estimatedTotalPages((int) Math.ceil((double) estimatedTotal / size));
+        }
+        return builder.build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDTO getCallsByCursor(String cursor, int size, CallFilter filter) {
+        log.info("Getting calls by cursor {} with size {} and filter {}", cursor, size, filter);
+
+        if (cursor == null || cursor.isBlank()) {
+            List<CallProjection> calls = callRepository.findKeyset(filter, null, size + 1);
+            boolean hasOlder = calls.size() > size;
+            return buildKeysetPage(calls.subList(0, Math.min(size, calls.size())), size, hasOlder, false);
+        }
+
+        CallCursor position = CallCursor.decode(cursor);
+        if (position.direction() == CallCursor.Direction.NEXT) {
+            List<CallProjection> calls = callRepository.findKeyset(filter, position, size + 1);
+            boolean hasOlder = calls.size() > size;
+            return buildKeysetPage(calls.subList(0, Math.min(size, calls.size())), size, hasOlder, true);
+        }
+
+        List<CallProjection> calls = new ArrayList<>(callRepository.findKeyset(filter, position, size + 1));
+        boolean hasNewer = calls.size() > size;
+        List<CallProjection> page = calls.subList(0, Math.min(size, calls.size()));
+        Collections.reverse(page);
+        return buildKeysetPage(page, size, true, hasNewer);
+    }
+
+    // Con @Async y @Transactional en el mismo método la transacción se abre en el hilo de historyReadExecutor
+    @Override
+    @Async("historyReadExecutor")
+    @Transactional(readOnly = true)
+    public CompletableFuture<List<CallDTO>> getAllCallsAsync() {
+        return CompletableFuture.completedFuture(getAllCalls());
+    }
+
+    @Override
+    @Async("historyReadExecutor")
+    @Transactional(readOnly = true)
+    public CompletableFuture<Page<CallDTO>> getPaginatedCallsAsync(int page, int size, String sortBy) {
+        return CompletableFuture.completedFuture(getPaginatedCalls(page, size, sortBy));
+    }
+
+    @Override
+    @Async("historyReadExecutor")
+    @Transactional(readOnly = true)
+    public CompletableFuture<CallSliceDTO> getCallSliceAsync(int page, int size, String sortBy, boolean withTotal,
+                                                             CallFilter filter) {
+        return CompletableFuture.completedFuture(getCallSlice(page, size, sortBy, withTotal, filter));
+    }
+
+    @Override
+    @Async("historyReadExecutor")
+    @Transactional(readOnly = true)
+    public CompletableFuture<KeysetPageDTO> getCallsByCursorAsync(String cursor, int size, CallFilter filter) {
+        return CompletableFuture.completedFuture(getCallsByCursor(cursor, size, filter));
+    }
 
-        return callPage.map(CallMapper::entityToDTO);
+    private KeysetPageDTO buildKeysetPage(List<CallProjection> calls, int size, boolean hasOlder, boolean hasNewer) {
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!calls.isEmpty()) {
+            CallProjection last = calls.get(calls.size() - 1);
+            CallProjection first = calls.get(0);
+            if (hasOlder) {
+                nextCursor = new CallCursor(CallCursor.Direction.NEXT, last.timestamp(), last.id()).encode();
+            }
+            if (hasNewer) {
+                prevCursor = new CallCursor(CallCursor.Direction.PREV, first.timestamp(), first.id()).encode();
+            }
+        }
+        return KeysetPageDTO.builder()
+                .content(calls.stream().map(CallMapper::projectionToDTO).toList())
+                .size(size)
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
+                .build();
     }
 }
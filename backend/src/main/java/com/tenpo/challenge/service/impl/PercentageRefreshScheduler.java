@@ -0,0 +1,103 @@
+package com.tenpo.challenge.service.impl;
+
+import com.tenpo.challenge.service.PercentageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresca el porcentaje antes de que expire en Redis (refresh-ahead).
+ * <p>
+ * El refresco se programa cuando ha transcurrido {@code app.percentage.refresh-ahead.ratio} del TTL,
+ * adelantado un jitter aleatorio de hasta {@code app.percentage.refresh-ahead.jitter-ms} para que los
+ * nodos no refresquen a la vez. Mientras tanto las peticiones siguen leyendo el valor vigente.
+ * <p>
+ * Al dispararse se vuelve a leer el TTL: si otro nodo ya refrescó y la expiración quedó más allá de la ventana de
+ * refresco (más el jitter máximo), no se llama al servicio externo y solo se reprograma.
+ */
+@Component
+@Slf4j
+public class PercentageRefreshScheduler {
+
+    private final PercentageService percentageService;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${app.percentage.refresh-ahead.enabled}")
+    private boolean enabled;
+
+    @Value("${app.percentage.refresh-ahead.ratio}")
+    private double refreshRatio;
+
+    @Value("${app.percentage.refresh-ahead.jitter-ms}")
+    private long jitterMs;
+
+    @Value("${app.percentage.refresh-ahead.min-delay-ms}")
+    private long minDelayMs;
+
+    @Value("${app.percentage.cache-ttl}")
+    private long cacheTtlSeconds;
+
+    public PercentageRefreshScheduler(PercentageService percentageService,
+                                      RedisTemplate<String, Object> redisTemplate,
+                                      @Qualifier("percentageRefreshTaskScheduler") TaskScheduler taskScheduler) {
+        this.percentageService = percentageService;
+        this.redisTemplate = redisTemplate;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("[Refresh-ahead] Deshabilitado");
+            return;
+        }
+        scheduleNext();
+    }
+
+    void refresh() {
+        try {
+            long remainingMs = remainingTtlMs();
+            if (remainingMs > refreshWindowMs() + jitterMs) {
+                log.info("[Refresh-ahead] Otro nodo ya refrescó el porcentaje (expira en {} ms)", remainingMs);
+                return;
+            }
+            percentageService.refreshPercentage();
+        } catch (Exception e) {
+            log.warn("[Refresh-ahead] Falló el refresco del porcentaje: {}", e.getMessage());
+        } finally {
+            scheduleNext();
+        }
+    }
+
+    void scheduleNext() {
+        Duration delay = nextDelay();
+        log.info("[Refresh-ahead] Próximo refresco en {} ms", delay.toMillis());
+        taskScheduler.schedule(this::refresh, Instant.now().plus(delay));
+    }
+
+    private Duration nextDelay() {
+        long jitter = jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0;
+        long delayMs = remainingTtlMs() - refreshWindowMs() - jitter;
+        return Duration.ofMillis(Math.max(minDelayMs, delayMs));
+    }
+
+    private long refreshWindowMs() {
+        return (long) (TimeUnit.SECONDS.toMillis(cacheTtlSeconds) * (1 - refreshRatio));
+    }
+
+    private long remainingTtlMs() {
+        Long remainingMs = redisTemplate.getExpire(PercentageServiceImpl.PERCENTAGE_CACHE_KEY, TimeUnit.MILLISECONDS);
+        return remainingMs == null || remainingMs < 0 ? 0L : remainingMs;
+    }
+}
@@ -1,21 +1,44 @@
 package com.tenpo.challenge.service.impl;
 
+import com.tenpo.challenge.cache.PercentageNearCache;
+import com.tenpo.challenge.cache.PercentageRefreshLock;
+import com.tenpo.challenge.exception.ExternalServiceUnavailableException;
 import com.tenpo.challenge.exception.PercentageUnavailableException;
+import com.tenpo.challenge.resilience.ExternalCallGuard;
+import com.tenpo.challenge.service.PercentageProvider;
 import com.tenpo.challenge.service.PercentageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PercentageServiceImpl implements PercentageService {
 
-    private static final String PERCENTAGE_CACHE_KEY = "external:percentage";
+    public static final String PERCENTAGE_CACHE_KEY = "external:percentage";
+
+    /**
+     * Valor y PTTL en un solo viaje a Redis: el near cache necesita los dos para no sobrevivir a la clave.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GET_WITH_PTTL = new DefaultRedisScript<>(
+            "return {redis.call('GET', KEYS[1]), redis.call('PTTL', KEYS[1])}",
+            List.class);
 
     @Value("${app.external.percentage}")
     private double mockPercentage;
@@ -23,27 +46,125 @@ public class PercentageServiceImpl implements PercentageService {
     @Value("${app.percentage.cache-ttl}")
     private long cacheTtlSeconds;
 
+    @Value("${app.percentage.miss-wait-timeout-ms}")
+    private long missWaitTimeoutMs;
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final PercentageNearCache nearCache;
+    private final PercentageRefreshLock refreshLock;
+    private final ExternalCallGuard externalCallGuard;
+    private final ObjectProvider<PercentageProvider> percentageProvider;
+    private final AtomicReference<CompletableFuture<Double>> inFlight = new AtomicReference<>();
 
     @Override
     public Double getPercentage() {
+        return readCached().orElseGet(() -> loadCoalesced(true));
+    }
+
+    @Override
+    public Double refreshPercentage() {
+        log.info("[Refresh-ahead] Refrescando porcentaje antes de que expire");
+        return loadCoalesced(false);
+    }
+
+    private Optional<Double> readCached() {
+        Optional<Double> local = nearCache.get();
+        if (local.isPresent()) {
+            return local;
+        }
+
+        return readRedis();
+    }
+
+    /**
+     * Lee el porcentaje de Redis y, si está, llena el near cache con el TTL que le queda a la clave.
+     */
+    private Optional<Double> readRedis() {
+        List<?> reply = redisTemplate.execute(GET_WITH_PTTL, List.of(PERCENTAGE_CACHE_KEY));
+        if (reply == null || reply.size() < 2 || reply.get(0) == null) {
+            return Optional.empty();
+        }
+        double value = Double.parseDouble(reply.get(0).toString());
+        log.info("[Cache HIT] Porcentaje obtenido de Redis: {}%", value);
+        nearCache.put(value, remainingTtl((Number) reply.get(1)));
+        return Optional.of(value);
+    }
+
+    /**
+     * Solo una carga por JVM llega al servicio externo; el resto de hilos que fallan en caché
+     * esperan el resultado de esa misma carga, como máximo {@code app.percentage.miss-wait-timeout-ms}.
+     * <p>
+     * Con {@code recheckCache} el hilo que gana la carga vuelve a mirar el near cache y Redis antes de salir:
+     * entre su fallo en caché y el {@code compareAndExchange} otra carga pudo terminar y dejar el valor escrito.
+     * El refresh-ahead no lo hace porque precisamente quiere reemplazar un valor que todavía está vigente.
+     */
+    private Double loadCoalesced(boolean recheckCache) {
+        CompletableFuture<Double> flight = new CompletableFuture<>();
+        CompletableFuture<Double> existing = inFlight.compareAndExchange(null, flight);
+        if (existing != null) {
+            return awaitInFlight(existing);
+        }
+
+        try {
+            double percentage = recheckCache
+                    ? readCached().orElseGet(this::loadFromExternalService)
+                    : loadFromExternalService();
+            flight.complete(percentage);
+            return percentage;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.compareAndSet(flight, null);
+        }
+    }
+
+    private Double awaitInFlight(CompletableFuture<Double> flight) {
+        try {
+            return flight.get(missWaitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PercentageUnavailableException unavailable) {
+                throw unavailable;
+            }
+            return fallbackToBackup(e.getCause());
+        } catch (TimeoutException e) {
+            log.warn("[Cache MISS] La carga en curso superó {} ms", missWaitTimeoutMs);
+            return fallbackToBackup(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallbackToBackup(e);
+        }
+    }
+
+    private Double loadFromExternalService() {
+        if (!refreshLock.isEnabled()) {
+            return fetchAndStore(null);
+        }
 
-        Object cached = redisTemplate.opsForValue().get(PERCENTAGE_CACHE_KEY);
-        if (cached != null) {
-            double value = Double.parseDouble(cached.toString());
-            log.info("[Cache HIT] Porcentaje obtenido de Redis: {}%", value);
-            return value;
+        Optional<PercentageRefreshLock.Lease> lease = refreshLock.tryAcquire();
+        if (lease.isEmpty()) {
+            return serveWhileAnotherNodeRefreshes();
+        }
+        try {
+            return fetchAndStore(lease.get());
+        } finally {
+            refreshLock.release(lease.get());
         }
+    }
 
+    private Double fetchAndStore(PercentageRefreshLock.Lease lease) {
         log.info("[Cache MISS] Llamando al servicio externo de porcentaje...");
         try {
-            double percentage = fetchFromExternalService();
+            double percentage = externalCallGuard.execute(this::fetchFromExternalService);
+            Duration ttl = Duration.ofSeconds(cacheTtlSeconds);
 
-            redisTemplate.opsForValue().set(
-                    PERCENTAGE_CACHE_KEY,
-                    percentage,
-                    Duration.ofSeconds(cacheTtlSeconds)
-            );
+            if (lease == null) {
+                redisTemplate.opsForValue().set(PERCENTAGE_CACHE_KEY, percentage, ttl);
+            } else if (!refreshLock.writeFenced(lease, PERCENTAGE_CACHE_KEY, percentage, ttl)) {
+                return percentage;
+            }
+            nearCache.put(percentage, ttl);
+            nearCache.publishInvalidation();
 
             log.info("[External OK] Porcentaje {}% cacheado en Redis por {} segundos",
                     percentage, cacheTtlSeconds);
@@ -51,28 +172,74 @@ public class PercentageServiceImpl implements PercentageService {
 
         } catch (Exception externalException) {
             log.warn("[External FAIL] Servicio externo falló: {}", externalException.getMessage());
+            return fallbackToBackup(externalException);
+        }
+    }
 
+    private Double serveWhileAnotherNodeRefreshes() {
+        Optional<Double> stale = nearCache.getStale();
+        if (stale.isPresent()) {
+            log.info("[RefreshLock] Otro nodo está refrescando, sirviendo valor previo: {}%", stale.get());
+            return stale.get();
+        }
 
-            Object backup = redisTemplate.opsForValue().get(PERCENTAGE_CACHE_KEY + ":backup");
-            if (backup != null) {
-                double fallbackValue = Double.parseDouble(backup.toString());
-                log.warn("[Fallback] Usando valor de respaldo: {}%", fallbackValue);
-                return fallbackValue;
-            }
+        Object backup = redisTemplate.opsForValue().get(PERCENTAGE_CACHE_KEY + ":backup");
+        if (backup != null) {
+            double backupValue = Double.parseDouble(backup.toString());
+            log.info("[RefreshLock] Otro nodo está refrescando, sirviendo respaldo: {}%", backupValue);
+            return backupValue;
+        }
+
+        return refreshLock.awaitValue(this::readRedis)
+                .orElseGet(() -> fallbackToBackup(null));
+    }
 
-            throw new PercentageUnavailableException(
-                    "El servicio externo no está disponible y no existe un porcentaje en caché. " +
-                            "Reintente más tarde.",
-                    externalException
-            );
+    private Double fallbackToBackup(Throwable cause) {
+        Object backup = redisTemplate.opsForValue().get(PERCENTAGE_CACHE_KEY + ":backup");
+        if (backup != null) {
+            double fallbackValue = Double.parseDouble(backup.toString());
+            log.warn("[Fallback] Usando valor de respaldo: {}%", fallbackValue);
+            return fallbackValue;
         }
 
+        throw new PercentageUnavailableException(
+                "El servicio externo no está disponible y no existe un porcentaje en caché. " +
+                        "Reintente más tarde.",
+                cause
+        );
+    }
+
+    /**
+     * PTTL devuelve -1 si la clave no expira y -2 si ya no existe.
+     */
+    private Duration remainingTtl(Number pttl) {
+        long ttlMillis = pttl == null ? -2 : pttl.longValue();
+        if (ttlMillis == -2) {
+            return Duration.ZERO;
+        }
+        return ttlMillis == -1 ? Duration.ofSeconds(cacheTtlSeconds) : Duration.ofMillis(ttlMillis);
     }
 
     @Override
     public Double fetchFromExternalService() {
-        log.info("Servicio externo retornó: {}%", mockPercentage);
-        return mockPercentage;
+        PercentageProvider provider = percentageProvider.getIfAvailable();
+        if (provider == null) {
+            log.info("Servicio externo retornó: {}%", mockPercentage);
+            return mockPercentage;
+        }
+
+        CompletableFuture<Double> pending = provider.fetchPercentage();
+        try {
+            Double percentage = pending.get();
+            log.info("Servicio externo {} retornó: {}%", provider.getName(), percentage);
+            return percentage;
+        } catch (ExecutionException e) {
+            throw new ExternalServiceUnavailableException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            pending.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ExternalServiceUnavailableException("Llamada al proveedor interrumpida", e);
+        }
     }
 
     @Override
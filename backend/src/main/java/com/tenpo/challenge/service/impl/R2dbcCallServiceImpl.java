@@ -0,0 +1,195 @@
+package com.tenpo.challenge.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallSortKey;
+import com.tenpo.challenge.dto.ExportFormat;
+import com.tenpo.challenge.dto.mapper.CallMapper;
+import com.tenpo.challenge.repository.CallRepository;
+import com.tenpo.challenge.repository.R2dbcCallRepository;
+import com.tenpo.challenge.service.ReactiveCallService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operaciones del historial sobre R2DBC ({@code app.history.store=r2dbc}).
+ * <p>
+ * {@link #saveCall(CallDTO)} no escribe en el momento: deja la llamada en una cola acotada de
+ * {@code app.history.queue-capacity} que se vacía en lotes de hasta {@code app.history.batch-size} llamadas o cada
+ * {@code app.history.flush-interval-ms}, con un solo {@code insert} por lote, como el escritor JPA. Si la cola está
+ * llena la llamada se rechaza en el acto en lugar de esperar.
+ */
+@Service
+@ConditionalOnProperty(name = "app.history.store", havingValue = "r2dbc")
+@Slf4j
+public class R2dbcCallServiceImpl implements ReactiveCallService {
+
+    private static final int EXPORT_FETCH_SIZE = Integer.parseInt(CallRepository.EXPORT_FETCH_SIZE);
+    private static final int EXPORT_CHUNK_ROWS = 256;
+
+    private final R2dbcCallRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Counter inserted;
+    private final Counter rejected;
+    private final Counter failures;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    @Value("${app.history.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${app.history.batch-size}")
+    private int batchSize;
+
+    @Value("${app.history.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    private Sinks.Many<PendingCall> pending;
+
+    public R2dbcCallServiceImpl(R2dbcCallRepository repository, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.inserted = meterRegistry.counter("history.r2dbc.inserted");
+        this.rejected = meterRegistry.counter("history.r2dbc.rejected");
+        this.failures = meterRegistry.counter("history.r2dbc.insert_failures");
+    }
+
+    @PostConstruct
+    public void start() {
+        pending = Sinks.many().unicast().onBackpressureBuffer(Queues.<PendingCall>get(queueCapacity).get());
+        pending.asFlux()
+                // Con backpressure: solo se saca de la cola el lote siguiente al que se está insertando
+                .bufferTimeout(batchSize, Duration.ofMillis(flushIntervalMs), true)
+                .concatMap(this::insertBatch, 1)
+                .doFinally(signal -> stopped.countDown())
+                .subscribe();
+    }
+
+    /**
+     * Cierra la cola y espera a que se inserte el último lote.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        pending.emitComplete(Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        if (!stopped.await(10, TimeUnit.SECONDS)) {
+            log.warn("[History R2DBC] El último lote no terminó de insertarse al apagar");
+        }
+    }
+
+    private Mono<Long> insertBatch(List<PendingCall> batch) {
+        List<CallDTO> calls = batch.stream().map(PendingCall::call).toList();
+        return repository.insertAll(calls)
+                .doOnSuccess(rows -> {
+                    inserted.increment(calls.size());
+                    batch.forEach(call -> call.done().tryEmitValue(call.call()));
+                    log.debug("[History R2DBC] Lote de {} llamadas insertado", calls.size());
+                })
+                .onErrorResume(e -> {
+                    failures.increment();
+                    log.error("[History R2DBC] No se pudo insertar un lote de {} llamadas: {}", calls.size(),
+                            e.getMessage());
+                    batch.forEach(call -> call.done().tryEmitError(e));
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<CallDTO> saveCall(CallDTO callDTO) {
+        return Mono.defer(() -> {
+            Sinks.One<CallDTO> done = Sinks.one();
+            Sinks.EmitResult result;
+            // Varios hilos pueden emitir a la vez: el sink solo admite uno y devuelve FAIL_NON_SERIALIZED al resto
+            while ((result = pending.tryEmitNext(new PendingCall(callDTO, done)))
+                    == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                Thread.onSpinWait();
+            }
+            if (result.isFailure()) {
+                rejected.increment();
+                return Mono.error(new IllegalStateException("Cola del historial R2DBC no disponible: " + result));
+            }
+            return done.asMono();
+        });
+    }
+
+    @Override
+    public Mono<List<CallDTO>> saveCalls(List<CallDTO> callDTOs) {
+        return repository.insertAll(callDTOs)
+                .doOnNext(rows -> inserted.increment(rows))
+                .thenReturn(callDTOs);
+    }
+
+    @Override
+    public Mono<Page<CallDTO>> getPaginatedCalls(int page, int size, String sortBy) {
+        log.info("Getting paginated calls with page {}, size {}, and sortBy{}", page, size, sortBy);
+        CallSortKey sortKey = CallSortKey.fromParam(sortBy);
+        Pageable pageable = PageRequest.of(page - 1, size, sortKey.toSort());
+
+        return Mono.zip(
+                        repository.findPage(sortKey, size, pageable.getOffset())
+                                .map(CallMapper::projectionToDTO)
+                                .collectList(),
+                        repository.count())
+                .map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+    }
+
+    /**
+     * Agrupa las filas en trozos de {@value #EXPORT_CHUNK_ROWS} para no escribir (y hacer flush) fila a fila; cada
+     * trozo solo se pide a la base cuando la respuesta terminó de escribir el anterior.
+     */
+    @Override
+    public Flux<String> exportCalls(ExportFormat format) {
+        log.info("Begin export of call history as {}", format);
+        Flux<String> rows = repository.streamAll(EXPORT_FETCH_SIZE)
+                .map(CallMapper::projectionToDTO)
+                .map(callDTO -> format == ExportFormat.CSV ? csvRow(callDTO) : jsonRow(callDTO))
+                .buffer(EXPORT_CHUNK_ROWS)
+                .map(chunk -> String.join("", chunk));
+        return format == ExportFormat.CSV
+                ? Flux.concat(Mono.just(CallExportServiceImpl.CSV_HEADER + "\n"), rows)
+                : rows;
+    }
+
+    private static String csvRow(CallDTO callDTO) {
+        StringWriter writer = new StringWriter(128);
+        try {
+            CallExportServiceImpl.writeCsvRow(writer, callDTO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    private String jsonRow(CallDTO callDTO) {
+        try {
+            return objectMapper.writeValueAsString(callDTO) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record PendingCall(CallDTO call, Sinks.One<CallDTO> done) {
+    }
+}
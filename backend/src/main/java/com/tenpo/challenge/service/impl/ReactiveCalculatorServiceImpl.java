@@ -0,0 +1,132 @@
+package com.tenpo.challenge.service.impl;
+
+import com.tenpo.challenge.dto.CalculateBatchResponseDTO;
+import com.tenpo.challenge.dto.CalculatePairDTO;
+import com.tenpo.challenge.dto.CalculateResponseDTO;
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.exception.PercentageUnavailableException;
+import com.tenpo.challenge.model.UuidV7;
+import com.tenpo.challenge.service.CallService;
+import com.tenpo.challenge.service.ReactiveCalculatorService;
+import com.tenpo.challenge.service.ReactivePercentageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Misma lógica que {@link CalculatorServiceImpl} sobre {@link ReactivePercentageService}. El historial se entrega
+ * en {@code boundedElastic} sin esperar a que termine: según el modo, {@link CallService#saveCall(CallDTO)} puede
+ * bloquear (XADD del outbox, escritura del journal, política de desborde {@code BLOCK}) y no debe hacerlo en el
+ * hilo de Redis que completa el porcentaje.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveCalculatorServiceImpl implements ReactiveCalculatorService {
+
+    private final ReactivePercentageService percentageService;
+    private final CallService callService;
+    private final Scheduler historyScheduler = Schedulers.boundedElastic();
+
+    @Override
+    public Mono<CalculateResponseDTO> calculatePercentage(Double num1, Double num2) {
+
+        log.info("Begin process calculatePercentage with nums: {}, {}", num1, num2);
+        String timestamp = String.valueOf(LocalDateTime.now());
+
+        return percentageService.getPercentage()
+                .flatMap(percentage -> {
+                    double sum = num1 + num2;
+                    double result = sum + sum * percentage / 100;
+                    return percentageService.saveBackupPercentage(percentage)
+                            .then(Mono.fromSupplier(() -> {
+                                CallDTO call = successCall("/api/calculate", timestamp, num1, num2, percentage,
+                                        result);
+                                handOff(() -> callService.saveCall(call));
+                                return CalculateResponseDTO.builder()
+                                        .result(result)
+                                        .build();
+                            }));
+                })
+                .doOnError(PercentageUnavailableException.class, exception -> {
+                    CallDTO call = failedCall("/api/calculate", timestamp, num1, num2, exception);
+                    handOff(() -> callService.saveCall(call));
+                });
+    }
+
+    @Override
+    public Mono<CalculateBatchResponseDTO> calculatePercentages(List<CalculatePairDTO> pairs) {
+
+        log.info("Begin process calculatePercentages with {} pairs", pairs.size());
+        String timestamp = String.valueOf(LocalDateTime.now());
+
+        return percentageService.getPercentage()
+                .flatMap(percentage -> percentageService.saveBackupPercentage(percentage)
+                        .then(Mono.fromSupplier(() -> {
+                            List<Double> results = new ArrayList<>(pairs.size());
+                            List<CallDTO> calls = new ArrayList<>(pairs.size());
+                            for (CalculatePairDTO pair : pairs) {
+                                double sum = pair.num1() + pair.num2();
+                                double result = sum + sum * percentage / 100;
+                                results.add(result);
+                                calls.add(successCall("/api/calculate/batch", timestamp, pair.num1(), pair.num2(),
+                                        percentage, result));
+                            }
+                            handOff(() -> callService.saveCalls(calls));
+                            return CalculateBatchResponseDTO.builder()
+                                    .results(results)
+                                    .build();
+                        })))
+                .doOnError(PercentageUnavailableException.class, exception -> {
+                    List<CallDTO> failed = new ArrayList<>(pairs.size());
+                    for (CalculatePairDTO pair : pairs) {
+                        failed.add(failedCall("/api/calculate/batch", timestamp, pair.num1(), pair.num2(),
+                                exception));
+                    }
+                    handOff(() -> callService.saveCalls(failed));
+                });
+    }
+
+    private void handOff(Runnable save) {
+        Mono.fromRunnable(save)
+                .subscribeOn(historyScheduler)
+                .subscribe(null, error -> log.warn("No se pudo entregar la llamada al historial: {}",
+                        error.getMessage()));
+    }
+
+    private static CallDTO successCall(String endpoint, String timestamp, Double num1, Double num2,
+                                       double percentage, double result) {
+        return CallDTO.builder()
+                .id(UuidV7.next())
+                .timestamp(timestamp)
+                .endpoint(endpoint)
+                .num1(num1)
+                .num2(num2)
+                .percentage(percentage)
+                .result(result)
+                .success(true)
+                .build();
+    }
+
+    private static CallDTO failedCall(String endpoint, String timestamp, Double num1, Double num2,
+                                      PercentageUnavailableException exception) {
+        return CallDTO.builder()
+                .id(UuidV7.next())
+                .timestamp(timestamp)
+                .endpoint(endpoint)
+                .num1(num1)
+                .num2(num2)
+                .errorMessage(exception.getMessage())
+                .success(false)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.tenpo.challenge.service.impl;
+
+import com.tenpo.challenge.cache.PercentageNearCache;
+import com.tenpo.challenge.service.PercentageService;
+import com.tenpo.challenge.service.ReactivePercentageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.tenpo.challenge.service.impl.PercentageServiceImpl.PERCENTAGE_CACHE_KEY;
+
+/**
+ * Porcentaje sin bloquear hilos: near cache, después {@code GET} y {@code SET} con {@link ReactiveRedisTemplate}.
+ * <p>
+ * Solo un fallo de caché en Redis pasa al {@link PercentageService} bloqueante, en
+ * {@link Schedulers#boundedElastic()}, para reutilizar la coalescencia de cargas, el lock de refresco, el guard del
+ * proveedor y el respaldo. Con el refresco anticipado activo ese camino es excepcional.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactivePercentageServiceImpl implements ReactivePercentageService {
+
+    @Value("${app.percentage.cache-ttl}")
+    private long cacheTtlSeconds;
+
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final PercentageNearCache nearCache;
+    private final PercentageService percentageService;
+
+    @Override
+    public Mono<Double> getPercentage() {
+
+        Optional<Double> local = nearCache.get();
+        if (local.isPresent()) {
+            return Mono.just(local.get());
+        }
+
+        return reactiveRedisTemplate.opsForValue().get(PERCENTAGE_CACHE_KEY)
+                .map(cached -> Double.parseDouble(cached.toString()))
+                .flatMap(value -> remainingRedisTtl()
+                        .doOnNext(ttl -> {
+                            log.info("[Cache HIT] Porcentaje obtenido de Redis: {}%", value);
+                            nearCache.put(value, ttl);
+                        })
+                        .thenReturn(value))
+                .switchIfEmpty(Mono.defer(this::loadOnMiss));
+    }
+
+    private Mono<Double> loadOnMiss() {
+        return Mono.fromCallable(percentageService::getPercentage)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * {@code getExpire} emite cero si la clave no expira y nada si ya no existe.
+     */
+    private Mono<Duration> remainingRedisTtl() {
+        return reactiveRedisTemplate.getExpire(PERCENTAGE_CACHE_KEY)
+                .map(ttl -> ttl.isZero() ? Duration.ofSeconds(cacheTtlSeconds) : ttl)
+                .defaultIfEmpty(Duration.ZERO);
+    }
+
+    @Override
+    public Mono<Void> saveBackupPercentage(Double percentage) {
+        log.info("Guardando porcentaje en redis: {}", percentage);
+        return reactiveRedisTemplate.opsForValue().set(PERCENTAGE_CACHE_KEY + ":backup", percentage).then();
+    }
+}
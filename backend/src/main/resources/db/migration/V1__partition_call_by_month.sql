@@ -0,0 +1,66 @@
+-- El historial deja de ser una tabla única creada por Hibernate (ddl-auto=update) y pasa a particionarse por mes
+-- sobre timestamp. Las consultas por rango de fechas solo tocan las particiones implicadas y la retención se hace
+-- soltando particiones enteras (CallPartitionMaintenance), sin DELETE fila a fila.
+
+-- 1. Si existe la tabla antigua sin particionar, se aparta junto con su clave primaria e índices
+DO $$
+BEGIN
+    IF to_regclass('public.call') IS NOT NULL
+            AND (SELECT relkind FROM pg_class WHERE oid = 'public.call'::regclass) = 'r' THEN
+        ALTER TABLE call RENAME TO call_unpartitioned;
+        IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'call_pkey'
+                   AND conrelid = 'public.call_unpartitioned'::regclass) THEN
+            ALTER TABLE call_unpartitioned RENAME CONSTRAINT call_pkey TO call_unpartitioned_pkey;
+        END IF;
+        ALTER INDEX IF EXISTS idx_call_timestamp_id RENAME TO idx_call_unpartitioned_timestamp_id;
+    END IF;
+END $$;
+
+-- 2. Tabla particionada: la clave de partición tiene que formar parte de la clave primaria
+CREATE TABLE IF NOT EXISTS call (
+    id        uuid         NOT NULL,
+    timestamp timestamp(6) NOT NULL,
+    endpoint  varchar(255),
+    params    jsonb,
+    response  varchar(255),
+    success   boolean,
+    CONSTRAINT call_pkey PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE INDEX IF NOT EXISTS idx_call_timestamp_id ON call (timestamp, id);
+
+-- 3. Particiones desde el mes más antiguo con datos (o el anterior al actual) hasta dos meses por delante;
+--    el resto las crea CallPartitionMaintenance con antelación
+DO $$
+DECLARE
+    first_month date := (date_trunc('month', now()) - interval '1 month')::date;
+    bound       date;
+    missing     bigint;
+BEGIN
+    IF to_regclass('public.call_unpartitioned') IS NOT NULL THEN
+        -- Una fila sin timestamp no cabe en ninguna partición y la tabla antigua se borra al final: se aborta la
+        -- migración (Flyway la revierte entera, renombrado incluido) en vez de perder esas filas
+        SELECT count(*) INTO missing FROM call_unpartitioned WHERE timestamp IS NULL;
+        IF missing > 0 THEN
+            RAISE EXCEPTION 'call tiene % fila(s) sin timestamp; asígneles uno o bórrelas antes de migrar', missing;
+        END IF;
+        SELECT least(first_month, coalesce(date_trunc('month', min(timestamp))::date, first_month))
+          INTO first_month
+          FROM call_unpartitioned;
+    END IF;
+
+    bound := first_month;
+    WHILE bound <= date_trunc('month', now()) + interval '2 month' LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF call FOR VALUES FROM (%L) TO (%L)',
+                       'call_p' || to_char(bound, 'YYYYMM'), bound, (bound + interval '1 month')::date);
+        bound := (bound + interval '1 month')::date;
+    END LOOP;
+
+    -- 4. Copia del historial existente, completo: las filas sin timestamp ya se rechazaron arriba
+    IF to_regclass('public.call_unpartitioned') IS NOT NULL THEN
+        INSERT INTO call (id, timestamp, endpoint, params, response, success)
+        SELECT id, timestamp, endpoint, params, response, success
+          FROM call_unpartitioned;
+        DROP TABLE call_unpartitioned;
+    END IF;
+END $$;
@@ -0,0 +1,11 @@
+-- Índices para los filtros del historial (GET /calls/paginated/slice y /paginated/keyset). Al crearse sobre la
+-- tabla particionada, Postgres los replica en cada partición existente y futura.
+
+-- Rango de fechas: BRIN es diminuto y encaja con filas que llegan en orden de timestamp
+CREATE INDEX IF NOT EXISTS idx_call_timestamp_brin ON call USING brin (timestamp);
+
+-- "Llamadas fallidas en la última hora": igualdad sobre success y rango sobre timestamp
+CREATE INDEX IF NOT EXISTS idx_call_success_timestamp ON call (success, timestamp);
+
+-- Contención sobre params (params @> '{"num1":"100.0"}'); jsonb_path_ops solo sirve @>, pero ocupa menos
+CREATE INDEX IF NOT EXISTS idx_call_params_gin ON call USING gin (params jsonb_path_ops);
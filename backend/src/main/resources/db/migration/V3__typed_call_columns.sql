@@ -0,0 +1,33 @@
+-- Operandos, porcentaje y resultado como double precision en lugar de un jsonb con strings y un varchar de
+-- respuesta. El mensaje de error solo se guarda en las llamadas fallidas.
+ALTER TABLE call
+    ADD COLUMN num1 double precision,
+    ADD COLUMN num2 double precision,
+    ADD COLUMN percentage double precision,
+    ADD COLUMN result double precision,
+    ADD COLUMN error_message varchar(255);
+
+-- Las filas existentes se rellenan desde params/response; lo que no sea numérico queda a null
+UPDATE call SET
+    num1 = CASE WHEN params->>'num1' ~ '^-?[0-9]+(\.[0-9]+)?([eE][-+]?[0-9]+)?$'
+                THEN (params->>'num1')::double precision END,
+    num2 = CASE WHEN params->>'num2' ~ '^-?[0-9]+(\.[0-9]+)?([eE][-+]?[0-9]+)?$'
+                THEN (params->>'num2')::double precision END,
+    result = CASE WHEN success AND response ~ '^-?[0-9]+(\.[0-9]+)?([eE][-+]?[0-9]+)?$'
+                  THEN response::double precision END,
+    error_message = CASE WHEN success THEN NULL ELSE response END;
+
+-- El porcentaje no se guardaba: result = (num1 + num2) * (1 + percentage / 100)
+UPDATE call SET percentage = (result / (num1 + num2) - 1) * 100
+WHERE result IS NOT NULL AND num1 + num2 <> 0;
+
+DROP INDEX IF EXISTS idx_call_params_gin;
+ALTER TABLE call DROP COLUMN params, DROP COLUMN response;
+
+-- El filtro param=num1:valor / param=num2:valor pasa del GIN de params a estos btree: igualdad sobre el operando y,
+-- detrás, el mismo orden (timestamp, id) de las páginas, para cortar en LIMIT sin ordenar
+CREATE INDEX IF NOT EXISTS idx_call_num1_timestamp_id ON call (num1, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_call_num2_timestamp_id ON call (num2, timestamp, id);
+
+-- DROP COLUMN no reescribe las particiones: el espacio de params/response se recupera a medida que las filas se
+-- reescriben o con VACUUM FULL sobre cada partición (call_pYYYYMM) en una ventana de mantenimiento.
@@ -0,0 +1,59 @@
+package com.tenpo.challenge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.context.annotation.ConfigurationClassPostProcessor;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Registra las definiciones de beans de la aplicación (componentes escaneados y métodos {@code @Bean}) con la
+ * sobrescritura deshabilitada, como hace Spring Boot, pero sin instanciarlas: detecta choques de nombres sin
+ * necesitar Postgres ni Redis, que {@link ChallengeApplicationTests} sí necesita. Las autoconfiguraciones de Boot
+ * no se incluyen.
+ */
+class ApplicationBeanDefinitionsTest {
+
+    @ParameterizedTest(name = "profile={0}, virtualThreads={1}, historyMode={2}, historyStore={3}")
+    @CsvSource({
+            "default, false, direct, jpa",
+            "default, true, direct, jpa",
+            "default, false, outbox, jpa",
+            "reactive, false, direct, jpa",
+            "default, false, direct, r2dbc"
+    })
+    @DisplayName("Application bean definitions register without name clashes")
+    void beanDefinitions_registerWithoutOverriding(String profile, boolean virtualThreads, String historyMode,
+                                                   String historyStore) throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                "spring.threads.virtual.enabled", virtualThreads,
+                "app.history.mode", historyMode,
+                "app.history.store", historyStore)));
+        environment.getPropertySources().addLast(
+                new ResourcePropertySource(new ClassPathResource("application.properties")));
+        environment.setActiveProfiles(profile);
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.setAllowBeanDefinitionOverriding(false);
+        ClassPathBeanDefinitionScanner scanner = new ClassPathBeanDefinitionScanner(beanFactory, true, environment);
+
+        assertThatCode(() -> {
+            scanner.scan(ChallengeApplication.class.getPackageName());
+            ConfigurationClassPostProcessor postProcessor = new ConfigurationClassPostProcessor();
+            postProcessor.setEnvironment(environment);
+            postProcessor.postProcessBeanDefinitionRegistry(beanFactory);
+        }).doesNotThrowAnyException();
+        assertThat(beanFactory.getBeanDefinitionNames()).isNotEmpty();
+    }
+}
@@ -0,0 +1,102 @@
+package com.tenpo.challenge.benchmark;
+
+import com.tenpo.challenge.model.UuidV7;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Inserciones por segundo y tamaño final del índice de la clave primaria con ids UUIDv4 aleatorios frente a
+ * {@link UuidV7}, insertando en lotes como el escritor del historial. Necesita una base accesible:
+ * {@code mvn test -Dbenchmark=true -Dtest=CallIdBenchmarkTest
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/tenpo -Dbenchmark.jdbc-user=admin -Dbenchmark.jdbc-password=admin123}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class CallIdBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH_SIZE = 500;
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void connect() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc-url", "jdbc:postgresql://localhost:5432/tenpo")
+                        + "?reWriteBatchedInserts=true",
+                System.getProperty("benchmark.jdbc-user", "admin"),
+                System.getProperty("benchmark.jdbc-password", "admin123"));
+        connection.setAutoCommit(false);
+    }
+
+    @AfterAll
+    static void disconnect() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS call_id_bench");
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    /**
+     * Devuelve {@code {filas por segundo, bytes del índice de la clave primaria}}.
+     */
+    private static long[] insertAll(Supplier<UUID> ids) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS call_id_bench");
+            statement.execute("CREATE TABLE call_id_bench (id uuid PRIMARY KEY, timestamp timestamp, "
+                    + "endpoint varchar(255), num1 double precision, num2 double precision, percentage double precision, "
+                    + "result double precision, error_message varchar(255), success boolean)");
+        }
+        connection.commit();
+
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO call_id_bench "
+                + "(id, timestamp, endpoint, num1, num2, percentage, result, success) "
+                + "VALUES (?, ?, '/api/calculate', 100.0, 50.0, 10.0, 165.0, true)")) {
+            for (int i = 1; i <= ROWS; i++) {
+                insert.setObject(1, ids.get());
+                insert.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_relation_size('call_id_bench_pkey')")) {
+            rs.next();
+            return new long[]{ROWS * 1_000_000_000L / elapsedNanos, rs.getLong(1)};
+        }
+    }
+
+    @Test
+    @DisplayName("Insert throughput and primary key size: random UUIDv4 vs time-ordered UUIDv7")
+    void uuidV4VsV7() throws SQLException {
+        long[] v4 = insertAll(UUID::randomUUID);
+        long[] v7 = insertAll(UuidV7::next);
+
+        System.out.printf("%-8s %14s %16s%n", "ids", "rows/s", "pkey (KiB)");
+        System.out.printf("%-8s %14d %16d%n", "v4", v4[0], v4[1] / 1024);
+        System.out.printf("%-8s %14d %16d%n", "v7", v7[0], v7[1] / 1024);
+        // Las inserciones al final del btree llenan las hojas en lugar de partirlas por la mitad
+        assertThat(v7[1]).isLessThan(v4[1]);
+    }
+}
@@ -0,0 +1,177 @@
+package com.tenpo.challenge.benchmark;
+
+import com.tenpo.challenge.dto.CallCursor;
+import com.tenpo.challenge.dto.CallFilter;
+import com.tenpo.challenge.dto.CallProjection;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepositoryImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Latencia de la página profunda con OFFSET frente a la búsqueda por {@code (timestamp, id)} sobre una copia de
+ * la tabla {@code call} en Postgres, a varios tamaños. La página por cursor se lee con
+ * {@link CallRepositoryImpl#findKeyset}, es decir, con el SQL que genera Hibernate y no con uno escrito a mano; la
+ * tabla vive en el esquema {@value #SCHEMA} para no tocar el historial real. Necesita una base accesible:
+ * {@code mvn test -Dbenchmark=true -Dtest=CallPaginationBenchmarkTest
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/tenpo -Dbenchmark.jdbc-user=admin -Dbenchmark.jdbc-password=admin123}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class CallPaginationBenchmarkTest {
+
+    private static final String SCHEMA = "call_pagination_bench";
+    private static final int[] TABLE_SIZES = {10_000, 100_000, 1_000_000};
+    private static final int PAGE_SIZE = 20;
+    private static final int RUNS = 30;
+
+    private static Connection connection;
+    private static LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private static EntityManager entityManager;
+    private static CallRepositoryImpl repository;
+
+    @BeforeAll
+    static void connect() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc-url", "jdbc:postgresql://localhost:5432/tenpo");
+        String user = System.getProperty("benchmark.jdbc-user", "admin");
+        String password = System.getProperty("benchmark.jdbc-password", "admin123");
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA);
+        }
+
+        // Mismo mapeo que la aplicación (nombres en snake_case), pero con el esquema del benchmark por defecto
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(new DriverManagerDataSource(url, user, password));
+        entityManagerFactory.setPackagesToScan(Call.class.getPackageName());
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaPropertyMap(Map.of(
+                AvailableSettings.DEFAULT_SCHEMA, SCHEMA,
+                AvailableSettings.HBM2DDL_AUTO, "none",
+                AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        entityManagerFactory.afterPropertiesSet();
+        entityManager = entityManagerFactory.getObject().createEntityManager();
+        repository = new CallRepositoryImpl(entityManager);
+    }
+
+    @AfterAll
+    static void disconnect() throws SQLException {
+        entityManager.close();
+        entityManagerFactory.destroy();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        connection.close();
+    }
+
+    private static void fillTable(int rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + SCHEMA + ".call");
+            statement.execute("CREATE TABLE " + SCHEMA + ".call (id uuid PRIMARY KEY, timestamp timestamp(6), "
+                    + "endpoint varchar(255), num1 double precision, num2 double precision, percentage double precision, "
+                    + "result double precision, error_message varchar(255), success boolean)");
+            statement.execute("INSERT INTO " + SCHEMA + ".call "
+                    + "SELECT gen_random_uuid(), now() - make_interval(secs => g), '/api/calculate', "
+                    + "100.0, 50.0, 10.0, 165.0, null, true FROM generate_series(1, " + rows + ") g");
+            statement.execute("CREATE INDEX ON " + SCHEMA + ".call (timestamp, id)");
+            statement.execute("ANALYZE " + SCHEMA + ".call");
+        }
+    }
+
+    /**
+     * Devuelve la mediana en microsegundos de leer la página situada en {@code offset}.
+     */
+    private static long offsetPage(int offset) throws SQLException {
+        long[] samples = new long[RUNS];
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT * FROM " + SCHEMA + ".call ORDER BY timestamp DESC, id DESC LIMIT ? OFFSET ?")) {
+            for (int run = 0; run < RUNS; run++) {
+                query.setInt(1, PAGE_SIZE);
+                query.setInt(2, offset);
+                long start = System.nanoTime();
+                drain(query);
+                samples[run] = System.nanoTime() - start;
+            }
+        }
+        return median(samples);
+    }
+
+    private static long keysetPage(int offset) throws SQLException {
+        Timestamp timestamp;
+        UUID id;
+        try (PreparedStatement boundary = connection.prepareStatement(
+                "SELECT timestamp, id FROM " + SCHEMA + ".call ORDER BY timestamp DESC, id DESC LIMIT 1 OFFSET ?")) {
+            boundary.setInt(1, offset - 1);
+            try (ResultSet rs = boundary.executeQuery()) {
+                rs.next();
+                timestamp = rs.getTimestamp(1);
+                id = rs.getObject(2, UUID.class);
+            }
+        }
+
+        CallCursor position = new CallCursor(CallCursor.Direction.NEXT, timestamp.toLocalDateTime(), id);
+        long[] samples = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            List<CallProjection> page = repository.findKeyset(CallFilter.none(), position, PAGE_SIZE);
+            samples[run] = System.nanoTime() - start;
+            assertThat(page).hasSize(PAGE_SIZE);
+        }
+        return median(samples);
+    }
+
+    private static void drain(PreparedStatement query) throws SQLException {
+        try (ResultSet rs = query.executeQuery()) {
+            int rows = 0;
+            while (rs.next()) {
+                rows++;
+            }
+            assertThat(rows).isEqualTo(PAGE_SIZE);
+        }
+    }
+
+    private static long median(long[] samples) {
+        Arrays.sort(samples);
+        return samples[samples.length / 2] / 1_000;
+    }
+
+    @Test
+    @DisplayName("Deep page latency: OFFSET vs keyset at several table sizes")
+    void offsetVsKeyset() throws SQLException {
+        System.out.printf("%-10s %-10s %14s %14s%n", "rows", "page", "offset (us)", "keyset (us)");
+        for (int rows : TABLE_SIZES) {
+            fillTable(rows);
+            long deepKeyset = 0;
+            for (int offset : new int[]{PAGE_SIZE, rows / 2, rows - PAGE_SIZE}) {
+                long offsetMicros = offsetPage(offset);
+                long keysetMicros = keysetPage(offset);
+                System.out.printf("%-10d %-10d %14d %14d%n", rows, offset / PAGE_SIZE + 1, offsetMicros, keysetMicros);
+                deepKeyset = keysetMicros;
+            }
+            // The last page must not cost orders of magnitude more than the first one
+            assertThat(deepKeyset).isLessThan(50_000);
+        }
+    }
+}
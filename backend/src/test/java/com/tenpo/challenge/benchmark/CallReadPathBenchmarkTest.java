@@ -0,0 +1,153 @@
+package com.tenpo.challenge.benchmark;
+
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallProjection;
+import com.tenpo.challenge.dto.mapper.CallMapper;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Bytes asignados y latencia por página al leer el historial como entidades {@code Call} (con dirty checking) frente
+ * a la proyección {@link CallRepository#PROJECTION} dentro de una transacción de solo lectura. Usa la tabla
+ * {@code call} real (con las migraciones de Flyway aplicadas) con filas marcadas que se borran al terminar:
+ * {@code mvn test -Dbenchmark=true -Dtest=CallReadPathBenchmarkTest
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/tenpo -Dbenchmark.jdbc-user=admin -Dbenchmark.jdbc-password=admin123}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class CallReadPathBenchmarkTest {
+
+    private static final String ENDPOINT = "/benchmark/read-path";
+    private static final int ROWS = 20_000;
+    private static final int[] PAGE_SIZES = {20, 100, 500};
+    private static final int WARMUP = 50;
+    private static final int RUNS = 200;
+    private static final String ORDER = " where c.endpoint = :endpoint order by c.timestamp desc, c.id desc";
+
+    private static DriverManagerDataSource dataSource;
+    private static LocalContainerEntityManagerFactoryBean factoryBean;
+    private static EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.jdbc-url", "jdbc:postgresql://localhost:5432/tenpo"),
+                System.getProperty("benchmark.jdbc-user", "admin"),
+                System.getProperty("benchmark.jdbc-password", "admin123"));
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(Call.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "none"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM call WHERE endpoint = '" + ENDPOINT + "'");
+            statement.execute("INSERT INTO call (id, timestamp, endpoint, num1, num2, percentage, result, success) "
+                    + "SELECT gen_random_uuid(), now() - make_interval(secs => g), '" + ENDPOINT + "', "
+                    + "100.0, 50.0, 10.0, 165.0, true FROM generate_series(1, " + ROWS + ") g");
+            statement.execute("ANALYZE call");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement delete = connection.prepareStatement("DELETE FROM call WHERE endpoint = ?")) {
+            delete.setString(1, ENDPOINT);
+            delete.executeUpdate();
+        }
+        factoryBean.destroy();
+    }
+
+    private static List<CallDTO> entityPage(int size) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            List<CallDTO> page = entityManager.createQuery("select c from Call c" + ORDER, Call.class)
+                    .setParameter("endpoint", ENDPOINT)
+                    .setMaxResults(size)
+                    .getResultList().stream()
+                    .map(CallMapper::entityToDTO)
+                    .toList();
+            entityManager.getTransaction().commit();
+            return page;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static List<CallDTO> projectionPage(int size) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            List<CallDTO> page = entityManager.createQuery(CallRepository.PROJECTION + ORDER, CallProjection.class)
+                    .setParameter("endpoint", ENDPOINT)
+                    .setMaxResults(size)
+                    .getResultList().stream()
+                    .map(CallMapper::projectionToDTO)
+                    .toList();
+            entityManager.getTransaction().commit();
+            return page;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Devuelve {@code {mediana de latencia en microsegundos, media de bytes asignados por página}}.
+     */
+    private static long[] measure(IntFunction<List<CallDTO>> reader, int size) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP; i++) {
+            assertThat(reader.apply(size)).hasSize(size);
+        }
+        long[] samples = new long[RUNS];
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            reader.apply(size);
+            samples[run] = System.nanoTime() - start;
+        }
+        long allocated = (threads.getThreadAllocatedBytes(thread) - allocatedBefore) / RUNS;
+        Arrays.sort(samples);
+        return new long[]{samples[RUNS / 2] / 1_000, allocated};
+    }
+
+    @Test
+    @DisplayName("Per-page allocation and latency: managed entities vs read-only DTO projection")
+    void entityVsProjection() {
+        System.out.printf("%-6s %14s %14s %16s %16s%n", "size", "entity (us)", "proj (us)", "entity (B/page)",
+                "proj (B/page)");
+        for (int size : PAGE_SIZES) {
+            long[] entity = measure(CallReadPathBenchmarkTest::entityPage, size);
+            long[] projection = measure(CallReadPathBenchmarkTest::projectionPage, size);
+            System.out.printf("%-6d %14d %14d %16d %16d%n", size, entity[0], projection[0], entity[1], projection[1]);
+            // Sin entidades gestionadas no hay snapshots ni entradas en el contexto de persistencia
+            assertThat(projection[1]).isLessThan(entity[1]);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.tenpo.challenge.benchmark;
+
+import com.tenpo.challenge.client.HttpPercentageClient;
+import com.tenpo.challenge.client.StubPercentageServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Throughput del cliente HTTP contra el proveedor embebido.
+ * Se ejecuta con {@code mvn test -Dbenchmark=true -Dtest=HttpPercentageClientBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class HttpPercentageClientBenchmarkTest {
+
+    private static final int REQUESTS = 20_000;
+    private static final int IN_FLIGHT = 64;
+
+    @Test
+    @DisplayName("HttpPercentageClient throughput with 64 in-flight async requests")
+    void throughput() throws Exception {
+        try (StubPercentageServer server = new StubPercentageServer()) {
+            HttpPercentageClient client = new HttpPercentageClient("bench", server.uri(),
+                    Duration.ofSeconds(1), Duration.ofSeconds(2));
+
+            for (int i = 0; i < 1_000; i++) {
+                client.fetchPercentage().get();
+            }
+
+            Semaphore inFlight = new Semaphore(IN_FLIGHT);
+            AtomicInteger failures = new AtomicInteger();
+            CompletableFuture<?>[] calls = new CompletableFuture<?>[REQUESTS];
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                inFlight.acquire();
+                calls[i] = client.fetchPercentage().whenComplete((value, error) -> {
+                    if (error != null) {
+                        failures.incrementAndGet();
+                    }
+                    inFlight.release();
+                });
+            }
+            CompletableFuture.allOf(calls).exceptionally(e -> null).get(2, TimeUnit.MINUTES);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("HttpPercentageClient: %d requests in %.2f s -> %.0f req/s (%d failures)%n",
+                    REQUESTS, seconds, REQUESTS / seconds, failures.get());
+            assertThat(failures).hasValue(0);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.tenpo.challenge.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.ExportFormat;
+import com.tenpo.challenge.repository.R2dbcInMemoryCallDatabase;
+import com.tenpo.challenge.repository.R2dbcCallRepository;
+import com.tenpo.challenge.service.impl.R2dbcCallServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Filas por segundo del historial sobre R2DBC contra el sustituto en proceso ({@link R2dbcInMemoryCallDatabase}):
+ * una sentencia por fila frente a lotes de {@code insertAll}, {@code saveCall} con muchas llamadas concurrentes
+ * agrupadas por la cola, y la exportación completa en streaming. No necesita servicios externos:
+ * {@code mvn test -Dbenchmark=true -Dtest=R2dbcHistoryThroughputBenchmarkTest}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class R2dbcHistoryThroughputBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+    private static final int BATCH_SIZE = 500;
+    private static final int CONCURRENCY = 16;
+
+    private static R2dbcInMemoryCallDatabase database;
+    private static R2dbcCallRepository repository;
+
+    @BeforeAll
+    static void setUp() {
+        database = new R2dbcInMemoryCallDatabase("r2dbc_history_benchmark", CONCURRENCY);
+        repository = new R2dbcCallRepository(database.databaseClient());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    private static List<CallDTO> calls(int count) {
+        LocalDateTime start = LocalDateTime.now();
+        return IntStream.range(0, count)
+                .mapToObj(i -> CallDTO.builder()
+                        .timestamp(start.plusNanos(i * 1_000L).toString())
+                        .endpoint("/benchmark/r2dbc")
+                        .num1((double) i)
+                        .num2(50.0)
+                        .percentage(10.0)
+                        .result((i + 50.0) * 1.1)
+                        .success(true)
+                        .build())
+                .toList();
+    }
+
+    private static long rowsPerSecond(long rows, long startNanos) {
+        return rows * 1_000_000_000L / (System.nanoTime() - startNanos);
+    }
+
+    private static long singleRowInserts() {
+        database.truncate();
+        List<CallDTO> calls = calls(ROWS);
+        long start = System.nanoTime();
+        Flux.fromIterable(calls)
+                .flatMap(call -> repository.insertAll(List.of(call)), CONCURRENCY)
+                .blockLast();
+        return rowsPerSecond(ROWS, start);
+    }
+
+    private static long batchedInserts() {
+        database.truncate();
+        List<CallDTO> calls = calls(ROWS);
+        long start = System.nanoTime();
+        Flux.fromIterable(calls)
+                .buffer(BATCH_SIZE)
+                .flatMap(repository::insertAll, CONCURRENCY)
+                .blockLast();
+        return rowsPerSecond(ROWS, start);
+    }
+
+    private static long queuedSaves() throws InterruptedException {
+        database.truncate();
+        R2dbcCallServiceImpl service = new R2dbcCallServiceImpl(repository, new ObjectMapper(),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "queueCapacity", ROWS);
+        ReflectionTestUtils.setField(service, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(service, "flushIntervalMs", 50L);
+        service.start();
+        List<CallDTO> calls = calls(ROWS);
+        long start = System.nanoTime();
+        Flux.fromIterable(calls)
+                .flatMap(service::saveCall, ROWS)
+                .blockLast();
+        long throughput = rowsPerSecond(ROWS, start);
+        service.stop();
+        return throughput;
+    }
+
+    private static long streamedExport() {
+        R2dbcCallServiceImpl service = new R2dbcCallServiceImpl(repository, new ObjectMapper(),
+                new SimpleMeterRegistry());
+        long start = System.nanoTime();
+        long bytes = service.exportCalls(ExportFormat.CSV)
+                .map(String::length)
+                .reduce(0L, Long::sum)
+                .block();
+        assertThat(bytes).isPositive();
+        return rowsPerSecond(ROWS, start);
+    }
+
+    @Test
+    @DisplayName("R2DBC history throughput: single-row vs batched inserts, queued saves and streamed export")
+    void throughput() throws InterruptedException {
+        batchedInserts();
+
+        long single = singleRowInserts();
+        long batched = batchedInserts();
+        long queued = queuedSaves();
+        long export = streamedExport();
+
+        System.out.printf("%-22s %12s%n", "operation", "rows/s");
+        System.out.printf("%-22s %12d%n", "insert per row", single);
+        System.out.printf("%-22s %12d%n", "insertAll x" + BATCH_SIZE, batched);
+        System.out.printf("%-22s %12d%n", "saveCall (queued)", queued);
+        System.out.printf("%-22s %12d%n", "streamed CSV export", export);
+        assertThat(batched).isGreaterThan(single);
+        assertThat(queued).isGreaterThan(single);
+    }
+}
@@ -0,0 +1,125 @@
+package com.tenpo.challenge.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tenpo.challenge.resilience.ConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Peticiones por segundo y p99 de un servidor HTTP con 200 hilos de plataforma (el máximo por defecto de Tomcat)
+ * frente a un hilo virtual por petición, con unas 1000 peticiones en vuelo. Cada petición simula un {@code GET} a
+ * Redis de 20 ms y una de cada diez además una lectura de 5 ms en Postgres, ambos detrás de un
+ * {@link ConcurrencyLimiter} como en {@code VirtualThreadConfig}. No necesita servicios externos:
+ * {@code mvn test -Dbenchmark=true -Dtest=VirtualThreadLoadTest}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadLoadTest {
+
+    private static final int REQUESTS = 20_000;
+    private static final int IN_FLIGHT = 1_000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int JDBC_PERMITS = 10;
+
+    /**
+     * Devuelve {@code {peticiones por segundo, p99 en milisegundos, máximo de conexiones JDBC simultáneas}}.
+     */
+    private static long[] run(ExecutorService serverExecutor) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimiter redis = new ConcurrencyLimiter("redis", 256, Duration.ofSeconds(30), meterRegistry);
+        ConcurrencyLimiter jdbc = new ConcurrencyLimiter("jdbc", JDBC_PERMITS, Duration.ofSeconds(30), meterRegistry);
+        AtomicInteger counter = new AtomicInteger();
+        AtomicInteger jdbcPeak = new AtomicInteger();
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), IN_FLIGHT);
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/calculate", exchange -> {
+            redis.call(() -> sleep(20));
+            if (counter.incrementAndGet() % 10 == 0) {
+                jdbc.call(() -> {
+                    jdbcPeak.accumulateAndGet(jdbc.inUse(), Math::max);
+                    return sleep(5);
+                });
+            }
+            byte[] body = "{\"result\":165.0}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/api/calculate")).build();
+            Semaphore inFlight = new Semaphore(IN_FLIGHT);
+            long[] latencies = new long[REQUESTS];
+            List<CompletableFuture<?>> pending = new ArrayList<>(REQUESTS);
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                int index = i;
+                inFlight.acquire();
+                long sent = System.nanoTime();
+                pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            latencies[index] = System.nanoTime() - sent;
+                            inFlight.release();
+                        }));
+            }
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(latencies);
+            return new long[]{REQUESTS * 1_000_000_000L / elapsed, latencies[REQUESTS * 99 / 100] / 1_000_000,
+                    jdbcPeak.get()};
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    private static Object sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    @Test
+    @DisplayName("Throughput and p99 under 1000 in-flight requests: 200 platform threads vs virtual threads")
+    void platformVsVirtual() throws Exception {
+        run(Executors.newVirtualThreadPerTaskExecutor());
+
+        long[] platform = run(Executors.newFixedThreadPool(PLATFORM_THREADS));
+        long[] virtual = run(Executors.newVirtualThreadPerTaskExecutor());
+
+        System.out.printf("%-10s %12s %10s %10s%n", "mode", "req/s", "p99 (ms)", "jdbc peak");
+        System.out.printf("%-10s %12d %10d %10d%n", "platform", platform[0], platform[1], platform[2]);
+        System.out.printf("%-10s %12d %10d %10d%n", "virtual", virtual[0], virtual[1], virtual[2]);
+        assertThat(virtual[0]).isGreaterThan(platform[0]);
+        // El semáforo mantiene a Postgres dentro del tamaño del pool aunque no haya tope de hilos
+        assertThat(virtual[2]).isLessThanOrEqualTo(JDBC_PERMITS);
+    }
+}
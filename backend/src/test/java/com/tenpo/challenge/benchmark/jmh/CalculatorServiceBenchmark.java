@@ -0,0 +1,152 @@
+package com.tenpo.challenge.benchmark.jmh;
+
+import ch.qos.logback.classic.Level;
+import com.tenpo.challenge.dto.CalculateResponseDTO;
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallFilter;
+import com.tenpo.challenge.dto.CallSliceDTO;
+import com.tenpo.challenge.dto.KeysetPageDTO;
+import com.tenpo.challenge.service.CallService;
+import com.tenpo.challenge.service.PercentageService;
+import com.tenpo.challenge.service.impl.CalculatorServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CalculatorServiceImpl#calculatePercentage} con el porcentaje y el historial resueltos en memoria: mide la
+ * aritmética, el {@code UuidV7}, el timestamp y la construcción del {@link CallDTO} que paga cada petición antes de
+ * tocar Redis o Postgres. Los stubs son clases propias y no mocks de Mockito, cuyo coste por invocación taparía el
+ * del servicio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatorServiceBenchmark {
+
+    private CalculatorServiceImpl calculatorService;
+    private double num1;
+    private double num2;
+
+    @Setup
+    public void setUp() {
+        // Sin esto logback escribe en consola cada log.info y se mediría la terminal
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(Level.WARN);
+        calculatorService = new CalculatorServiceImpl(new FixedPercentageService(10.5), new DiscardingCallService());
+        num1 = 100.0;
+        num2 = 50.0;
+    }
+
+    @Benchmark
+    public CalculateResponseDTO calculatePercentage() {
+        return calculatorService.calculatePercentage(num1, num2);
+    }
+
+    static final class FixedPercentageService implements PercentageService {
+
+        private final Double percentage;
+
+        FixedPercentageService(double percentage) {
+            this.percentage = percentage;
+        }
+
+        @Override
+        public Double getPercentage() {
+            return percentage;
+        }
+
+        @Override
+        public Double fetchFromExternalService() {
+            return percentage;
+        }
+
+        @Override
+        public Double refreshPercentage() {
+            return percentage;
+        }
+
+        @Override
+        public void saveBackupPercentage(Double percentage) {
+        }
+    }
+
+    /**
+     * Guarda la última llamada en un campo volátil para que el JIT no elimine la construcción del DTO.
+     */
+    static final class DiscardingCallService implements CallService {
+
+        private static final CompletableFuture<CallDTO> SAVED = CompletableFuture.completedFuture(null);
+
+        private volatile CallDTO last;
+
+        @Override
+        public CompletableFuture<CallDTO> saveCall(CallDTO callDTO) {
+            last = callDTO;
+            return SAVED;
+        }
+
+        @Override
+        public CompletableFuture<List<CallDTO>> saveCalls(List<CallDTO> callDTOs) {
+            last = callDTOs.isEmpty() ? null : callDTOs.get(callDTOs.size() - 1);
+            return CompletableFuture.completedFuture(callDTOs);
+        }
+
+        @Override
+        public List<CallDTO> getAllCalls() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Page<CallDTO> getPaginatedCalls(int page, int size, String sortBy) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CallSliceDTO getCallSlice(int page, int size, String sortBy, boolean withTotal, CallFilter filter) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public KeysetPageDTO getCallsByCursor(String cursor, int size, CallFilter filter) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<List<CallDTO>> getAllCallsAsync() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Page<CallDTO>> getPaginatedCallsAsync(int page, int size, String sortBy) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<CallSliceDTO> getCallSliceAsync(int page, int size, String sortBy,
+                                                                 boolean withTotal, CallFilter filter) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<KeysetPageDTO> getCallsByCursorAsync(String cursor, int size, CallFilter filter) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.tenpo.challenge.benchmark.jmh;
+
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.mapper.CallMapper;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.model.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión entre {@link Call} y {@link CallDTO} en ambos sentidos. {@code parseTimestamp} aísla el
+ * {@code LocalDateTime.parse} que hace {@link CallMapper#dtoToEntity} para saber cuánto del coste es el parseo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallMapperBenchmark {
+
+    private Call call;
+    private CallDTO callDTO;
+
+    @Setup
+    public void setUp() {
+        call = Call.builder()
+                .id(UuidV7.next())
+                .timestamp(LocalDateTime.of(2026, 1, 1, 10, 0, 0, 123_456_789))
+                .endpoint("/api/calculate")
+                .num1(100.0)
+                .num2(50.0)
+                .percentage(10.5)
+                .result(165.75)
+                .success(true)
+                .build();
+        callDTO = CallMapper.entityToDTO(call);
+    }
+
+    @Benchmark
+    public CallDTO entityToDTO() {
+        return CallMapper.entityToDTO(call);
+    }
+
+    @Benchmark
+    public Call dtoToEntity() {
+        return CallMapper.dtoToEntity(callDTO);
+    }
+
+    @Benchmark
+    public LocalDateTime parseTimestamp() {
+        return LocalDateTime.parse(callDTO.getTimestamp());
+    }
+}
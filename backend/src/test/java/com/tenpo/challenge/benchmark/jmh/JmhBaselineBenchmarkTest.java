@@ -0,0 +1,168 @@
+package com.tenpo.challenge.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Ejecuta con JMH los benchmarks de este paquete (cálculo, mapper, JSON de respuestas y serializador de Redis) y
+ * compara cada media con la línea base versionada en {@code benchmarks/jmh-baseline.json}: falla si alguna empeora
+ * más de {@code benchmark.jmh.max-regression} (default 0.20).
+ * {@code mvn test -Dbenchmark=true -Dtest=JmhBaselineBenchmarkTest [-Dbenchmark.jmh.include=CallMapper]}
+ * <p>
+ * Junto a la línea base se guarda en {@code jmh-baseline.properties} la máquina y el JDK en que se midió. Las cifras
+ * solo son comparables en ese mismo entorno, así que el test falla si la línea base falta o se generó en otro;
+ * {@code -Dbenchmark.jmh.update-baseline=true} reemplaza ambos ficheros con la corrida actual.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+public class JmhBaselineBenchmarkTest {
+
+    private static final Path RESULT = Path.of("target", "jmh-result.json");
+    private static final Path BASELINE = Path.of(System.getProperty("benchmark.jmh.baseline",
+            "benchmarks/jmh-baseline.json"));
+    private static final Path BASELINE_ENVIRONMENT = BASELINE.resolveSibling(
+            BASELINE.getFileName().toString().replaceFirst("\\.json$", "") + ".properties");
+    private static final String UPDATE_HINT = "generarla con -Dbenchmark.jmh.update-baseline=true y versionarla";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("JMH hot path benchmarks stay within the allowed regression of the stored baseline")
+    void hotPaths_doNotRegressAgainstBaseline() throws RunnerException, IOException {
+        String include = System.getProperty("benchmark.jmh.include", "");
+        double maxRegression = Double.parseDouble(System.getProperty("benchmark.jmh.max-regression", "0.20"));
+        boolean updateBaseline = Boolean.getBoolean("benchmark.jmh.update-baseline");
+
+        // Antes de gastar minutos en JMH: sin una línea base de este mismo entorno no hay con qué comparar
+        Properties environment = currentEnvironment();
+        if (!updateBaseline) {
+            assertThat(BASELINE).as("no existe la línea base JMH; " + UPDATE_HINT).exists();
+            assertThat(BASELINE_ENVIRONMENT).as("no existe el entorno de la línea base JMH; " + UPDATE_HINT).exists();
+            Properties baselineEnvironment = new Properties();
+            try (Reader reader = Files.newBufferedReader(BASELINE_ENVIRONMENT)) {
+                baselineEnvironment.load(reader);
+            }
+            assertThat(environment)
+                    .as("la línea base se midió en otra máquina o JDK y las cifras no son comparables; " + UPDATE_HINT)
+                    .isEqualTo(baselineEnvironment);
+        }
+
+        Files.createDirectories(RESULT.getParent());
+        Options options = new OptionsBuilder()
+                .include(Pattern.quote(getClass().getPackageName() + ".") + ".*" + include + ".*")
+                .jvmArgsAppend("-Xms512m", "-Xmx512m")
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULT.toString())
+                .build();
+        new Runner(options).run();
+
+        Map<String, Double> current = readScores(RESULT);
+        assertThat(current).isNotEmpty();
+
+        if (updateBaseline) {
+            if (BASELINE.getParent() != null) {
+                Files.createDirectories(BASELINE.getParent());
+            }
+            Files.copy(RESULT, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+            try (Writer writer = Files.newBufferedWriter(BASELINE_ENVIRONMENT)) {
+                environment.store(writer, "Entorno en que se midió " + BASELINE.getFileName());
+            }
+            log.info("Línea base JMH guardada en {} ({} benchmarks, {})", BASELINE, current.size(), environment);
+            return;
+        }
+
+        Map<String, Double> baseline = readScores(BASELINE);
+        List<String> regressions = new ArrayList<>();
+        log.info("{}", String.format("%-70s %12s %12s %9s", "benchmark (ns/op)", "base", "actual", "delta"));
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double base = baseline.get(entry.getKey());
+            if (base == null) {
+                log.info("{}", String.format("%-70s %12s %12.1f %9s", entry.getKey(), "-", entry.getValue(), "nuevo"));
+                continue;
+            }
+            double delta = entry.getValue() / base - 1;
+            log.info("{}", String.format("%-70s %12.1f %12.1f %+8.1f%%",
+                    entry.getKey(), base, entry.getValue(), delta * 100));
+            if (delta > maxRegression) {
+                regressions.add(entry.getKey());
+            }
+        }
+
+        assertThat(regressions)
+                .as("benchmarks más lentos que la línea base en más de %.0f%%", maxRegression * 100)
+                .isEmpty();
+    }
+
+    /**
+     * Lo que hace comparables dos corridas: JDK, sistema operativo y CPU. El modelo de CPU solo se conoce en Linux.
+     */
+    private Properties currentEnvironment() throws IOException {
+        Properties environment = new Properties();
+        environment.setProperty("java.vm.name", System.getProperty("java.vm.name"));
+        environment.setProperty("java.vm.version", System.getProperty("java.vm.version"));
+        environment.setProperty("os.name", System.getProperty("os.name"));
+        environment.setProperty("os.arch", System.getProperty("os.arch"));
+        environment.setProperty("cpu.count", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        Path cpuInfo = Path.of("/proc/cpuinfo");
+        if (Files.isReadable(cpuInfo)) {
+            try (Stream<String> lines = Files.lines(cpuInfo)) {
+                lines.filter(line -> line.startsWith("model name"))
+                        .findFirst()
+                        .map(line -> line.substring(line.indexOf(':') + 1).trim())
+                        .ifPresent(model -> environment.setProperty("cpu.model", model));
+            }
+        }
+        return environment;
+    }
+
+    /**
+     * Media de cada benchmark del JSON de JMH, con clave {@code nombre[param=valor,...]}.
+     */
+    private Map<String, Double> readScores(Path file) throws IOException {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (JsonNode run : objectMapper.readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            JsonNode params = run.path("params");
+            if (params.isObject() && !params.isEmpty()) {
+                key.append('[');
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    key.append(field.getKey()).append('=').append(field.getValue().asText());
+                    if (fields.hasNext()) {
+                        key.append(',');
+                    }
+                }
+                key.append(']');
+            }
+            scores.put(key.toString(), run.path("primaryMetric").path("score").asDouble());
+        }
+        return scores;
+    }
+}
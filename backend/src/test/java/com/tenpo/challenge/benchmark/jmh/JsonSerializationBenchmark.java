@@ -0,0 +1,84 @@
+package com.tenpo.challenge.benchmark.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.challenge.config.RedisConfig;
+import com.tenpo.challenge.dto.CalculateResponseDTO;
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallSortKey;
+import com.tenpo.challenge.dto.mapper.CallMapper;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.model.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura a JSON de las respuestas de {@code /calculate} y {@code /calls/paginated}. Usa el {@code ObjectMapper} de
+ * {@link RedisConfig}, que al ser el único bean de ese tipo es también el que usa Spring MVC para los cuerpos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private CalculateResponseDTO calculateResponse;
+    private Page<CallDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new RedisConfig().redisObjectMapper();
+        calculateResponse = CalculateResponseDTO.builder().result(165.75).build();
+
+        List<CallDTO> content = new ArrayList<>(pageSize);
+        LocalDateTime timestamp = LocalDateTime.of(2026, 1, 1, 10, 0);
+        for (int i = 0; i < pageSize; i++) {
+            boolean success = i % 10 != 0;
+            content.add(CallMapper.entityToDTO(Call.builder()
+                    .id(UuidV7.next())
+                    .timestamp(timestamp.plusSeconds(i))
+                    .endpoint("/api/calculate")
+                    .num1((double) i)
+                    .num2(50.0)
+                    .percentage(success ? 10.5 : null)
+                    .result(success ? (i + 50.0) * 1.105 : null)
+                    .errorMessage(success ? null : "Percentage service unavailable")
+                    .success(success)
+                    .build()));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize, CallSortKey.ID.toSort()), 25_000L);
+    }
+
+    @Benchmark
+    public byte[] calculateResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(calculateResponse);
+    }
+
+    @Benchmark
+    public byte[] callPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,51 @@
+package com.tenpo.challenge.benchmark.jmh;
+
+import com.tenpo.challenge.config.RedisConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificación y decodificación del porcentaje con el mismo {@link GenericJackson2JsonRedisSerializer} que
+ * {@code RedisConfig} pone como serializador de valores del {@code RedisTemplate}: es lo que se paga en cada lectura
+ * y respaldo del porcentaje, aparte del viaje de red.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    private GenericJackson2JsonRedisSerializer serializer;
+    private Double percentage;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        serializer = new GenericJackson2JsonRedisSerializer(new RedisConfig().redisObjectMapper());
+        percentage = 10.5;
+        encoded = serializer.serialize(percentage);
+    }
+
+    @Benchmark
+    public byte[] serializePercentage() {
+        return serializer.serialize(percentage);
+    }
+
+    @Benchmark
+    public Object deserializePercentage() {
+        return serializer.deserialize(encoded);
+    }
+}
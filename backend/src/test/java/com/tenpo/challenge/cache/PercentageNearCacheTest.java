@@ -0,0 +1,114 @@
+package com.tenpo.challenge.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PercentageNearCacheTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private RedisSerializer<Object> valueSerializer;
+
+    private PercentageNearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        nearCache = new PercentageNearCache(redisTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(nearCache, "maxTtlSeconds", 60L);
+    }
+
+    @Test
+    @DisplayName("get: returns empty and counts a miss when nothing was stored")
+    void get_empty_countsMiss() {
+        assertThat(nearCache.get()).isEmpty();
+        assertThat(nearCache.getMissCount()).isEqualTo(1);
+        assertThat(nearCache.getHitCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("get: returns the stored value and counts a hit while the entry is fresh")
+    void get_fresh_countsHit() {
+        nearCache.put(10.5, Duration.ofSeconds(30));
+
+        assertThat(nearCache.get()).contains(10.5);
+        assertThat(nearCache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("put: ignores entries whose TTL has already run out")
+    void put_zeroTtl_isIgnored() {
+        nearCache.put(10.5, Duration.ZERO);
+
+        assertThat(nearCache.get()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("get: expires entries once the (capped) TTL elapses")
+    void get_expiredEntry_returnsEmpty() throws InterruptedException {
+        nearCache.put(10.5, Duration.ofMillis(20));
+        Thread.sleep(40);
+
+        assertThat(nearCache.get()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("onMessage: invalidates the local entry when another node publishes")
+    void onMessage_fromOtherNode_invalidates() {
+        when(redisTemplate.getValueSerializer()).thenAnswer(invocation -> valueSerializer);
+        when(valueSerializer.deserialize(any())).thenReturn("other-node");
+        nearCache.put(10.5, Duration.ofSeconds(30));
+
+        nearCache.onMessage(new DefaultMessage(new byte[0], new byte[0]), null);
+
+        assertThat(nearCache.get()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("invalidate: stops serving the entry but keeps it as the stale value")
+    void invalidate_keepsStaleValue() {
+        nearCache.put(10.5, Duration.ofSeconds(30));
+
+        nearCache.invalidate();
+
+        assertThat(nearCache.get()).isEmpty();
+        assertThat(nearCache.getStale()).contains(10.5);
+    }
+
+    @Test
+    @DisplayName("onMessage: keeps the local entry when the message was published by this node")
+    void onMessage_fromSelf_keepsEntry() {
+        String selfId = (String) ReflectionTestUtils.getField(nearCache, "nodeId");
+        when(redisTemplate.getValueSerializer()).thenAnswer(invocation -> valueSerializer);
+        when(valueSerializer.deserialize(any())).thenReturn(selfId);
+        nearCache.put(10.5, Duration.ofSeconds(30));
+
+        nearCache.onMessage(new DefaultMessage(new byte[0], new byte[0]), null);
+
+        assertThat(nearCache.get()).contains(10.5);
+    }
+
+    @Test
+    @DisplayName("publishInvalidation: publishes on the invalidation channel")
+    void publishInvalidation_sendsOnChannel() {
+        nearCache.publishInvalidation();
+
+        verify(redisTemplate).convertAndSend(eq(PercentageNearCache.INVALIDATION_CHANNEL), any());
+    }
+}
@@ -0,0 +1,85 @@
+package com.tenpo.challenge.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PercentageRefreshLockTest {
+
+    private static final String LOCK_KEY  = "external:percentage:lock";
+    private static final String FENCE_KEY = "external:percentage:lock:fence";
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PercentageRefreshLock refreshLock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        refreshLock = new PercentageRefreshLock(redisTemplate, meterRegistry);
+        ReflectionTestUtils.setField(refreshLock, "leaseMs", 5_000L);
+        ReflectionTestUtils.setField(refreshLock, "waitMs", 100L);
+
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("tryAcquire: returns a lease carrying the fencing token when SET NX succeeds")
+    void tryAcquire_setNxSucceeds_returnsLease() {
+        when(valueOperations.increment(FENCE_KEY)).thenReturn(42L);
+        when(valueOperations.setIfAbsent(LOCK_KEY, 42L, Duration.ofMillis(5_000L))).thenReturn(true);
+
+        assertThat(refreshLock.tryAcquire()).contains(new PercentageRefreshLock.Lease(42L));
+        assertThat(meterRegistry.get("percentage.refresh_lock.attempts").tag("outcome", "acquired")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("tryAcquire: returns empty and counts contention when another node holds the lease")
+    void tryAcquire_setNxFails_countsContention() {
+        when(valueOperations.increment(FENCE_KEY)).thenReturn(43L);
+        when(valueOperations.setIfAbsent(LOCK_KEY, 43L, Duration.ofMillis(5_000L))).thenReturn(false);
+
+        assertThat(refreshLock.tryAcquire()).isEmpty();
+        assertThat(meterRegistry.get("percentage.refresh_lock.attempts").tag("outcome", "contended")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("percentage.refresh_lock.acquire").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("awaitValue: returns the value once the lease holder publishes it and records the wait")
+    void awaitValue_valuePublished_returnsIt() {
+        AtomicInteger polls = new AtomicInteger();
+
+        assertThat(refreshLock.awaitValue(() -> polls.incrementAndGet() < 2 ? Optional.empty() : Optional.of(10.5)))
+                .contains(10.5);
+        assertThat(polls).hasValue(2);
+        assertThat(meterRegistry.get("percentage.refresh_lock.wait").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("awaitValue: gives up after the configured wait")
+    void awaitValue_nothingPublished_returnsEmpty() {
+        assertThat(refreshLock.awaitValue(Optional::empty)).isEmpty();
+    }
+}
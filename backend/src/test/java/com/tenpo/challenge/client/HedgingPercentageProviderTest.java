@@ -0,0 +1,158 @@
+package com.tenpo.challenge.client;
+
+import com.tenpo.challenge.service.PercentageProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class HedgingPercentageProviderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FakeProvider primary;
+    private FakeProvider secondary;
+    private HedgingPercentageProvider hedging;
+
+    /**
+     * Proveedor cuyo resultado controla el test, opcionalmente con una latencia fija desde la llamada.
+     */
+    private static class FakeProvider implements PercentageProvider {
+        final String name;
+        final AtomicInteger calls = new AtomicInteger();
+        volatile CompletableFuture<Double> next = new CompletableFuture<>();
+        volatile long latencyMs;
+
+        FakeProvider(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public CompletableFuture<Double> fetchPercentage() {
+            calls.incrementAndGet();
+            if (latencyMs > 0) {
+                return next.thenApplyAsync(value -> value,
+                        CompletableFuture.delayedExecutor(latencyMs, TimeUnit.MILLISECONDS));
+            }
+            return next;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        primary = new FakeProvider("primary");
+        secondary = new FakeProvider("secondary");
+        hedging = new HedgingPercentageProvider(primary, secondary,
+                Duration.ofMillis(10), Duration.ofMillis(50), meterRegistry);
+    }
+
+    private double wins(String provider) {
+        return meterRegistry.counter("percentage.hedge.wins", "provider", provider).count();
+    }
+
+    private double hedgesFired(String reason) {
+        return meterRegistry.counter("percentage.hedge.fired", "reason", reason).count();
+    }
+
+    private long primaryLatencyCount() {
+        return meterRegistry.get("percentage.provider.latency").tag("provider", "primary").timer().count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    @DisplayName("fetchPercentage: a fast primary wins and no hedge is sent")
+    void fetchPercentage_fastPrimary_noHedge() throws Exception {
+        primary.next = CompletableFuture.completedFuture(10.5);
+
+        assertThat(hedging.fetchPercentage().get(1, TimeUnit.SECONDS)).isEqualTo(10.5);
+        Thread.sleep(100);
+
+        assertThat(secondary.calls).hasValue(0);
+        assertThat(wins("primary")).isEqualTo(1.0);
+        assertThat(hedgesFired("delay")).isZero();
+    }
+
+    @Test
+    @DisplayName("fetchPercentage: a slow primary triggers a hedge, the secondary wins and the primary is cancelled")
+    void fetchPercentage_slowPrimary_secondaryWins() throws Exception {
+        CompletableFuture<Double> slowPrimary = new CompletableFuture<>();
+        primary.next = slowPrimary;
+        secondary.next = CompletableFuture.completedFuture(11.0);
+
+        assertThat(hedging.fetchPercentage().get(1, TimeUnit.SECONDS)).isEqualTo(11.0);
+
+        // The hedge completes on the delayed executor thread; give its callbacks a moment to run
+        awaitTrue(() -> slowPrimary.isCancelled() && wins("secondary") == 1.0);
+        assertThat(slowPrimary).isCancelled();
+        assertThat(wins("secondary")).isEqualTo(1.0);
+        assertThat(hedgesFired("delay")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("fetchPercentage: a failing primary fails over to the secondary immediately")
+    void fetchPercentage_primaryFails_failsOver() throws Exception {
+        primary.next = CompletableFuture.failedFuture(new IllegalStateException("HTTP 500"));
+        secondary.next = CompletableFuture.completedFuture(9.0);
+
+        assertThat(hedging.fetchPercentage().get(1, TimeUnit.SECONDS)).isEqualTo(9.0);
+        assertThat(hedgesFired("failover")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("fetchPercentage: fails only when both providers fail")
+    void fetchPercentage_bothFail_failsFuture() {
+        primary.next = CompletableFuture.failedFuture(new IllegalStateException("HTTP 500"));
+        secondary.next = CompletableFuture.failedFuture(new IllegalStateException("HTTP 503"));
+
+        assertThatThrownBy(() -> hedging.fetchPercentage().get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("hedgeDelay: cancelled slow primaries count towards the p95, so one fast win does not shrink the delay")
+    void hedgeDelay_slowPrimaryCancelled_delayStaysStable() throws Exception {
+        primary.next = CompletableFuture.completedFuture(10.5);
+        hedging.fetchPercentage().get(1, TimeUnit.SECONDS);
+
+        secondary.next = CompletableFuture.completedFuture(11.0);
+        secondary.latencyMs = 20;
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<Double> slowPrimary = new CompletableFuture<>();
+            primary.next = slowPrimary;
+            assertThat(hedging.fetchPercentage().get(1, TimeUnit.SECONDS)).isEqualTo(11.0);
+            awaitTrue(slowPrimary::isCancelled);
+        }
+        awaitTrue(() -> primaryLatencyCount() == 11);
+
+        // Counting only the fast win, the p95 would stay at ~0 ms and every request would hedge after the minimum
+        // 10 ms; the cancelled primaries (delay + 20 ms each) push it back up to the maximum
+        assertThat(primaryLatencyCount()).isEqualTo(11);
+        assertThat(hedging.hedgeDelay()).isGreaterThanOrEqualTo(Duration.ofMillis(40));
+    }
+
+    @Test
+    @DisplayName("hedgeDelay: uses the maximum delay until primary latency has been observed")
+    void hedgeDelay_noSamples_usesMaxDelay() {
+        assertThat(hedging.hedgeDelay()).isEqualTo(Duration.ofMillis(50));
+    }
+}
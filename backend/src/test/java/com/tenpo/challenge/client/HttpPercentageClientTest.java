@@ -0,0 +1,74 @@
+package com.tenpo.challenge.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class HttpPercentageClientTest {
+
+    private StubPercentageServer server;
+    private HttpPercentageClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubPercentageServer();
+        client = new HttpPercentageClient("primary", server.uri(), Duration.ofMillis(500), Duration.ofMillis(300));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("fetchPercentage: parses the percentage from a JSON object")
+    void fetchPercentage_jsonBody_returnsValue() throws Exception {
+        server.respond(200, "{\"source\":\"x\", \"percentage\" : 12.75}");
+
+        assertThat(client.fetchPercentage().get(5, TimeUnit.SECONDS)).isEqualTo(12.75);
+    }
+
+    @Test
+    @DisplayName("fetchPercentage: parses a bare numeric body")
+    void fetchPercentage_plainBody_returnsValue() throws Exception {
+        server.respond(200, " 7.5\n");
+
+        assertThat(client.fetchPercentage().get(5, TimeUnit.SECONDS)).isEqualTo(7.5);
+    }
+
+    @Test
+    @DisplayName("fetchPercentage: completes exceptionally on non-2xx responses")
+    void fetchPercentage_serverError_failsFuture() {
+        server.respond(503, "unavailable");
+
+        assertThatThrownBy(() -> client.fetchPercentage().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("HTTP 503");
+    }
+
+    @Test
+    @DisplayName("fetchPercentage: completes exceptionally when the read timeout elapses")
+    void fetchPercentage_slowServer_timesOut() {
+        server.delay(1_000);
+
+        assertThatThrownBy(() -> client.fetchPercentage().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(HttpTimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("parse: rejects bodies without a numeric percentage")
+    void parse_missingNumber_throws() {
+        assertThatThrownBy(() -> PercentageResponseParser.parse("{\"percentage\": null}".getBytes(StandardCharsets.US_ASCII)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
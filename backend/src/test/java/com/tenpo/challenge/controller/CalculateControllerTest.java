@@ -1,5 +1,7 @@
 package com.tenpo.challenge.controller;
 
+import com.tenpo.challenge.dto.CalculateBatchResponseDTO;
+import com.tenpo.challenge.dto.CalculatePairDTO;
 import com.tenpo.challenge.dto.CalculateResponseDTO;
 import com.tenpo.challenge.exception.PercentageUnavailableException;
 import com.tenpo.challenge.service.CalculatorService;
@@ -12,11 +14,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -37,6 +48,17 @@ public class CalculateControllerTest {
     @MockitoBean
     private CalculatorServiceImpl calculatorService;
 
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private ResultActions performAsync(RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     // -------------------------------------------------------------------------
     // Happy path
     // -------------------------------------------------------------------------
@@ -44,10 +66,10 @@ public class CalculateControllerTest {
     @Test
     @DisplayName("POST /calculate/{num1}/{num2} returns 200 with result in body")
     void calculate_returns200WithResult() throws Exception {
-        when(calculatorService.calculatePercentage(100.0, 50.0))
-                .thenReturn(CalculateResponseDTO.builder().result(165.0).build());
+        when(calculatorService.calculatePercentageAsync(100.0, 50.0))
+                .thenReturn(CompletableFuture.completedFuture(CalculateResponseDTO.builder().result(165.0).build()));
 
-        mockMvc.perform(post(BASE_URL + "/100.0/50.0")
+        performAsync(post(BASE_URL + "/100.0/50.0")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.result").value(165.0));
@@ -56,47 +78,46 @@ public class CalculateControllerTest {
     @Test
     @DisplayName("POST /calculate/{num1}/{num2} calls calculatorService with correct params")
     void calculate_callsServiceWithCorrectParams() throws Exception {
-        when(calculatorService.calculatePercentage(200.0, 300.0))
-                .thenReturn(CalculateResponseDTO.builder().result(750.0).build());
+        when(calculatorService.calculatePercentageAsync(200.0, 300.0))
+                .thenReturn(CompletableFuture.completedFuture(CalculateResponseDTO.builder().result(750.0).build()));
 
-        mockMvc.perform(post(BASE_URL + "/200.0/300.0")
+        performAsync(post(BASE_URL + "/200.0/300.0")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
 
-        verify(calculatorService, times(1)).calculatePercentage(200.0, 300.0);
+        verify(calculatorService, times(1)).calculatePercentageAsync(200.0, 300.0);
     }
 
     @Test
     @DisplayName("POST /calculate/{num1}/{num2} returns correct result with zero values")
     void calculate_withZeroValues_returns200() throws Exception {
-        when(calculatorService.calculatePercentage(0.0, 0.0))
-                .thenReturn(CalculateResponseDTO.builder().result(0.0).build());
+        when(calculatorService.calculatePercentageAsync(0.0, 0.0))
+                .thenReturn(CompletableFuture.completedFuture(CalculateResponseDTO.builder().result(0.0).build()));
 
-        mockMvc.perform(post(BASE_URL + "/0.0/0.0")
+        performAsync(post(BASE_URL + "/0.0/0.0")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.result").value(0.0));
     }
 
     @Test
-    @DisplayName("POST /calculate/{num1}/{num2} returns correct result with negative numbers")
-    void calculate_withNegativeNumbers_returns200() throws Exception {
-        when(calculatorService.calculatePercentage(-100.0, -50.0))
-                .thenReturn(CalculateResponseDTO.builder().result(-165.0).build());
-
+    @DisplayName("POST /calculate/{num1}/{num2} returns 400 for negative numbers")
+    void calculate_withNegativeNumbers_returns400() throws Exception {
         mockMvc.perform(post(BASE_URL + "/-100.0/-50.0")
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.result").value(-165.0));
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error de validación"));
+
+        verifyNoInteractions(calculatorService);
     }
 
     @Test
     @DisplayName("POST /calculate/{num1}/{num2} response body contains 'result' field")
     void calculate_responseBodyHasResultField() throws Exception {
-        when(calculatorService.calculatePercentage(10.0, 20.0))
-                .thenReturn(CalculateResponseDTO.builder().result(33.0).build());
+        when(calculatorService.calculatePercentageAsync(10.0, 20.0))
+                .thenReturn(CompletableFuture.completedFuture(CalculateResponseDTO.builder().result(33.0).build()));
 
-        mockMvc.perform(post(BASE_URL + "/10.0/20.0")
+        performAsync(post(BASE_URL + "/10.0/20.0")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.result").exists());
@@ -105,25 +126,129 @@ public class CalculateControllerTest {
     @Test
     @DisplayName("POST /calculate/{num1}/{num2} returns correct content type")
     void calculate_returnsJsonContentType() throws Exception {
-        when(calculatorService.calculatePercentage(1.0, 2.0))
-                .thenReturn(CalculateResponseDTO.builder().result(3.3).build());
+        when(calculatorService.calculatePercentageAsync(1.0, 2.0))
+                .thenReturn(CompletableFuture.completedFuture(CalculateResponseDTO.builder().result(3.3).build()));
 
-        mockMvc.perform(post(BASE_URL + "/1.0/2.0"))
+        performAsync(post(BASE_URL + "/1.0/2.0"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    @DisplayName("POST /calculate/batch returns one result per pair in request order")
+    void calculateBatch_returnsResultsInOrder() throws Exception {
+        List<CalculatePairDTO> pairs = List.of(new CalculatePairDTO(100.0, 50.0), new CalculatePairDTO(10.0, 20.0));
+        when(calculatorService.calculatePercentages(pairs))
+                .thenReturn(CalculateBatchResponseDTO.builder().results(List.of(165.0, 33.0)).build());
+
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"num1\":100.0,\"num2\":50.0},{\"num1\":10.0,\"num2\":20.0}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0]").value(165.0))
+                .andExpect(jsonPath("$.results[1]").value(33.0));
+
+        verify(calculatorService, times(1)).calculatePercentages(pairs);
+    }
+
     // -------------------------------------------------------------------------
     // Failure path
     // -------------------------------------------------------------------------
 
+    @Test
+    @DisplayName("POST /calculate/batch returns 503 when the percentage cannot be resolved")
+    void calculateBatch_returns503_whenPercentageUnavailable() throws Exception {
+        when(calculatorService.calculatePercentages(anyList()))
+                .thenThrow(new PercentageUnavailableException("Percentage service unavailable"));
+
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"num1\":1.0,\"num2\":2.0}]"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("POST /calculate/batch returns 400 when the body is not a JSON array of pairs")
+    void calculateBatch_returns400_whenBodyIsMalformed() throws Exception {
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"num1\":"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(calculatorService);
+    }
+
+    @Test
+    @DisplayName("POST /calculate/batch returns 400 for an empty array")
+    void calculateBatch_returns400_whenEmpty() throws Exception {
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error de validación"));
+
+        verifyNoInteractions(calculatorService);
+    }
+
+    @Test
+    @DisplayName("POST /calculate/batch returns 400 when the batch exceeds MAX_BATCH_SIZE pairs")
+    void calculateBatch_returns400_whenTooLarge() throws Exception {
+        String pairs = String.join(",",
+                Collections.nCopies(CalculateController.MAX_BATCH_SIZE + 1, "{\"num1\":1.0,\"num2\":2.0}"));
+
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + pairs + "]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error de validación"));
+
+        verifyNoInteractions(calculatorService);
+    }
+
+    @Test
+    @DisplayName("POST /calculate/batch returns 400 when an element of the array is null")
+    void calculateBatch_returns400_whenElementIsNull() throws Exception {
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"num1\":1.0,\"num2\":2.0},null]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error de validación"));
+
+        verifyNoInteractions(calculatorService);
+    }
+
+    @Test
+    @DisplayName("POST /calculate/batch returns 400 when a pair is missing an operand")
+    void calculateBatch_returns400_whenOperandIsNull() throws Exception {
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"num1\":1.0}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error de validación"));
+
+        verifyNoInteractions(calculatorService);
+    }
+
+    @Test
+    @DisplayName("POST /calculate/batch returns 400 when a pair has a negative operand")
+    void calculateBatch_returns400_whenOperandIsNegative() throws Exception {
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"num1\":1.0,\"num2\":2.0},{\"num1\":-10.0,\"num2\":20.0}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error de validación"));
+
+        verifyNoInteractions(calculatorService);
+    }
+
     @Test
     @DisplayName("POST /calculate/{num1}/{num2} returns 503 when PercentageUnavailableException is thrown")
     void calculate_returns503_whenPercentageUnavailable() throws Exception {
-        when(calculatorService.calculatePercentage(anyDouble(), anyDouble()))
-                .thenThrow(new PercentageUnavailableException("Percentage service unavailable"));
+        when(calculatorService.calculatePercentageAsync(anyDouble(), anyDouble()))
+                .thenReturn(CompletableFuture.failedFuture(new PercentageUnavailableException("Percentage service unavailable")));
 
-        mockMvc.perform(post(BASE_URL + "/10.0/20.0")
+        performAsync(post(BASE_URL + "/10.0/20.0")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isServiceUnavailable());
     }
@@ -135,4 +260,14 @@ public class CalculateControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("POST /calculate/{num1}/{num2} returns 503 when the calculate pool rejects the task")
+    void calculate_returns503_whenExecutorRejectsTask() throws Exception {
+        when(calculatorService.calculatePercentageAsync(anyDouble(), anyDouble()))
+                .thenThrow(new TaskRejectedException("calculateExecutor saturado"));
+
+        mockMvc.perform(post(BASE_URL + "/10.0/20.0"))
+                .andExpect(status().isServiceUnavailable());
+    }
 }
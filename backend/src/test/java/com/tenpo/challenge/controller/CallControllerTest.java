@@ -1,18 +1,41 @@
 package com.tenpo.challenge.controller;
 
 import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallFilter;
+import com.tenpo.challenge.dto.CallSliceDTO;
+import com.tenpo.challenge.dto.ExportFormat;
+import com.tenpo.challenge.dto.KeysetPageDTO;
+import com.tenpo.challenge.exception.InvalidCallFilterException;
+import com.tenpo.challenge.exception.InvalidCursorException;
+import com.tenpo.challenge.service.CallExportService;
 import com.tenpo.challenge.service.CallService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.*;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,16 +51,27 @@ public class CallControllerTest {
     @MockitoBean
     private CallService callService;
 
+    @MockitoBean
+    private CallExportService callExportService;
+
     // -------------------------------------------------------------------------
     // Helpers
     // -------------------------------------------------------------------------
 
+    private ResultActions performAsync(RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     private CallDTO buildCallDTO(String response, boolean success) {
         return CallDTO.builder()
                 .id(UUID.randomUUID())
                 .endpoint("/api/calculate")
                 .timestamp("2024-01-01T10:00:00")
-                .response(response)
+                .result(success ? Double.valueOf(response) : null)
+                .errorMessage(success ? null : response)
                 .success(success)
                 .build();
     }
@@ -54,9 +88,9 @@ public class CallControllerTest {
                 buildCallDTO("330.0", true)
         );
 
-        when(callService.getAllCalls()).thenReturn(calls);
+        when(callService.getAllCallsAsync()).thenReturn(CompletableFuture.completedFuture(calls));
 
-        mockMvc.perform(get(BASE_URL)
+        performAsync(get(BASE_URL)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2));
@@ -66,12 +100,12 @@ public class CallControllerTest {
     @DisplayName("GET /tenpo/api/calls returns correct fields in each call")
     void getAllCalls_returnsCorrectFields() throws Exception {
         CallDTO call = buildCallDTO("100.0", true);
-        when(callService.getAllCalls()).thenReturn(List.of(call));
+        when(callService.getAllCallsAsync()).thenReturn(CompletableFuture.completedFuture(List.of(call)));
 
-        mockMvc.perform(get(BASE_URL))
+        performAsync(get(BASE_URL))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].endpoint").value("/api/calculate"))
-                .andExpect(jsonPath("$[0].response").value("100.0"))
+                .andExpect(jsonPath("$[0].result").value(100.0))
                 .andExpect(jsonPath("$[0].success").value(true))
                 .andExpect(jsonPath("$[0].timestamp").value("2024-01-01T10:00:00"));
     }
@@ -79,9 +113,9 @@ public class CallControllerTest {
     @Test
     @DisplayName("GET /tenpo/api/calls returns empty list when no calls exist")
     void getAllCalls_returnsEmptyList() throws Exception {
-        when(callService.getAllCalls()).thenReturn(List.of());
+        when(callService.getAllCallsAsync()).thenReturn(CompletableFuture.completedFuture(List.of()));
 
-        mockMvc.perform(get(BASE_URL))
+        performAsync(get(BASE_URL))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(0));
     }
@@ -89,9 +123,9 @@ public class CallControllerTest {
     @Test
     @DisplayName("GET /tenpo/api/calls returns application/json content type")
     void getAllCalls_returnsJsonContentType() throws Exception {
-        when(callService.getAllCalls()).thenReturn(List.of());
+        when(callService.getAllCallsAsync()).thenReturn(CompletableFuture.completedFuture(List.of()));
 
-        mockMvc.perform(get(BASE_URL))
+        performAsync(get(BASE_URL))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
@@ -99,11 +133,11 @@ public class CallControllerTest {
     @Test
     @DisplayName("GET /tenpo/api/calls calls service exactly once")
     void getAllCalls_callsServiceOnce() throws Exception {
-        when(callService.getAllCalls()).thenReturn(List.of());
+        when(callService.getAllCallsAsync()).thenReturn(CompletableFuture.completedFuture(List.of()));
 
-        mockMvc.perform(get(BASE_URL));
+        performAsync(get(BASE_URL));
 
-        verify(callService, times(1)).getAllCalls();
+        verify(callService, times(1)).getAllCallsAsync();
     }
 
     @Test
@@ -114,9 +148,9 @@ public class CallControllerTest {
                 buildCallDTO("Percentage service unavailable", false)
         );
 
-        when(callService.getAllCalls()).thenReturn(calls);
+        when(callService.getAllCallsAsync()).thenReturn(CompletableFuture.completedFuture(calls));
 
-        mockMvc.perform(get(BASE_URL))
+        performAsync(get(BASE_URL))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].success").value(true))
                 .andExpect(jsonPath("$[1].success").value(false));
@@ -126,24 +160,220 @@ public class CallControllerTest {
     @DisplayName("GET /tenpo/api/calls returns 200 with single call")
     void getAllCalls_returnsSingleCall() throws Exception {
         CallDTO call = buildCallDTO("50.0", true);
-        when(callService.getAllCalls()).thenReturn(List.of(call));
+        when(callService.getAllCallsAsync()).thenReturn(CompletableFuture.completedFuture(List.of(call)));
 
-        mockMvc.perform(get(BASE_URL))
+        performAsync(get(BASE_URL))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1));
     }
 
+    @Test
+    @DisplayName("GET /tenpo/api/calls/paginated/slice returns hasNext and the estimated total when asked")
+    void getCallSlice_returnsSliceWithEstimate() throws Exception {
+        CallSliceDTO slice = CallSliceDTO.builder()
+                .content(List.of(buildCallDTO("165.0", true)))
+                .page(1)
+                .size(10)
+                .hasNext(true)
+                .estimatedTotal(25_000_000L)
+                .estimatedTotalPages(2_500_000)
+                .build();
+        when(callService.getCallSliceAsync(1, 10, "id", true, CallFilter.none()))
+                .thenReturn(CompletableFuture.completedFuture(slice));
+
+        performAsync(get(BASE_URL + "/paginated/slice").param("withTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.estimatedTotal").value(25_000_000L))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /tenpo/api/calls/paginated/keyset returns the page with its cursors")
+    void getCallsByCursor_returnsPageWithCursors() throws Exception {
+        KeysetPageDTO page = KeysetPageDTO.builder()
+                .content(List.of(buildCallDTO("165.0", true)))
+                .size(1)
+                .nextCursor("bi0y")
+                .build();
+        when(callService.getCallsByCursorAsync("abc", 1, CallFilter.none()))
+                .thenReturn(CompletableFuture.completedFuture(page));
+
+        performAsync(get(BASE_URL + "/paginated/keyset").param("cursor", "abc").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("bi0y"))
+                .andExpect(jsonPath("$.prevCursor").isEmpty());
+    }
+
+    @Test
+    @DisplayName("GET /tenpo/api/calls/paginated/slice parses the time range, success and params filters")
+    void getCallSlice_parsesFilters() throws Exception {
+        CallFilter filter = new CallFilter(LocalDateTime.of(2026, 1, 1, 9, 0), LocalDateTime.of(2026, 1, 1, 10, 0),
+                "/api/calculate", false, 100.0, 50.0);
+        CallSliceDTO slice = CallSliceDTO.builder().content(List.of()).page(1).size(10).hasNext(false).build();
+        when(callService.getCallSliceAsync(1, 10, "timestamp", false, filter))
+                .thenReturn(CompletableFuture.completedFuture(slice));
+
+        performAsync(get(BASE_URL + "/paginated/slice")
+                        .param("sortBy", "timestamp")
+                        .param("from", "2026-01-01T09:00:00")
+                        .param("to", "2026-01-01T10:00:00")
+                        .param("endpoint", "/api/calculate")
+                        .param("success", "false")
+                        .param("param", "num1:100.0", "num2:50.0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("GET /tenpo/api/calls/export streams CSV as an attachment")
+    void exportCalls_streamsCsvAttachment() throws Exception {
+        when(callExportService.exportCalls(eq(ExportFormat.CSV), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("id,timestamp\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        MvcResult result = mockMvc.perform(get(BASE_URL + "/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"calls.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id,timestamp\n"));
+    }
+
+    @Test
+    @DisplayName("GET /tenpo/api/calls/export gzips the stream when asked")
+    void exportCalls_gzip_compressesBody() throws Exception {
+        when(callExportService.exportCalls(eq(ExportFormat.NDJSON), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"result\":165.0}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get(BASE_URL + "/export").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(gunzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"result\":165.0}\n");
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Failure path
     // -------------------------------------------------------------------------
 
+    @Test
+    @DisplayName("GET /tenpo/api/calls/export returns 400 for an unknown format")
+    void exportCalls_returns400_whenFormatIsUnknown() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(callExportService);
+    }
+
+    @Test
+    @DisplayName("GET /tenpo/api/calls/paginated/keyset returns 400 for an invalid cursor")
+    void getCallsByCursor_returns400_whenCursorIsInvalid() throws Exception {
+        when(callService.getCallsByCursorAsync("broken", 10, CallFilter.none()))
+                .thenReturn(CompletableFuture.failedFuture(new InvalidCursorException("Cursor de paginación inválido")));
+
+        performAsync(get(BASE_URL + "/paginated/keyset").param("cursor", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /tenpo/api/calls/paginated/keyset returns 400 when size is out of range")
+    void getCallsByCursor_returns400_whenSizeIsOutOfRange() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/paginated/keyset").param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(callService);
+    }
+
+    @Test
+    @DisplayName("GET /tenpo/api/calls/paginated/slice returns 400 for a malformed params filter")
+    void getCallSlice_returns400_whenParamFilterIsMalformed() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/paginated/slice").param("param", "num1"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(callService);
+    }
+
+    @Test
+    @DisplayName("GET /tenpo/api/calls/paginated/slice returns 400 for params other than numeric num1/num2")
+    void getCallSlice_returns400_whenParamFilterIsNotATypedOperand() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/paginated/slice").param("param", "percentage:10.0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(BASE_URL + "/paginated/slice").param("param", "num1:abc"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(callService);
+    }
+
+    @Test
+    @DisplayName("GET /tenpo/api/calls/paginated/keyset returns 400 when from is not before to")
+    void getCallsByCursor_returns400_whenRangeIsEmpty() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/paginated/keyset")
+                        .param("from", "2026-01-01T10:00:00")
+                        .param("to", "2026-01-01T09:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /tenpo/api/calls/paginated/slice returns 400 for a sort key without an index")
+    void getCallSlice_returns400_whenSortIsNotIndexed() throws Exception {
+        when(callService.getCallSliceAsync(1, 10, "response", false, CallFilter.none()))
+                .thenReturn(CompletableFuture.failedFuture(new InvalidCallFilterException("Orden no soportado: response")));
+
+        performAsync(get(BASE_URL + "/paginated/slice").param("sortBy", "response"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Orden no soportado: response"));
+    }
+
     @Test
     @DisplayName("GET /tenpo/api/calls returns 500 when service throws unexpected exception")
     void getAllCalls_returns500_whenServiceThrowsException() throws Exception {
-        when(callService.getAllCalls()).thenThrow(new RuntimeException("Unexpected DB error"));
+        when(callService.getAllCallsAsync())
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Unexpected DB error")));
 
-        mockMvc.perform(get(BASE_URL))
+        performAsync(get(BASE_URL))
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    @DisplayName("GET /tenpo/api/calls returns 503 when the history read pool rejects the task")
+    void getAllCalls_returns503_whenExecutorRejectsTask() throws Exception {
+        when(callService.getAllCallsAsync()).thenThrow(new TaskRejectedException("historyReadExecutor saturado"));
+
+        mockMvc.perform(get(BASE_URL))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Servicio saturado, reintente en unos instantes"));
+    }
+
+    @Test
+    @DisplayName("GET /tenpo/api/calls returns 503 when the read does not finish before the timeout")
+    void getAllCalls_returns503_whenReadTimesOut() throws Exception {
+        when(callService.getAllCallsAsync()).thenReturn(new CompletableFuture<>());
+
+        MvcResult result = mockMvc.perform(get(BASE_URL))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value(containsString("tiempo máximo")));
+    }
+
 }
@@ -0,0 +1,105 @@
+package com.tenpo.challenge.controller;
+
+import com.tenpo.challenge.dto.CalculateBatchResponseDTO;
+import com.tenpo.challenge.dto.CalculateResponseDTO;
+import com.tenpo.challenge.exception.PercentageUnavailableException;
+import com.tenpo.challenge.service.CallService;
+import com.tenpo.challenge.service.ReactiveCalculatorService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReactiveCalculateController.class, properties = "app.reactive.calculate.timeout-ms=100")
+@ActiveProfiles("reactive")
+public class ReactiveCalculateControllerTest {
+
+    private static final String BASE_URL = "/tenpo/api/calculator/calculate";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReactiveCalculatorService calculatorService;
+
+    @MockitoBean
+    private CallService callService;
+
+    @Test
+    @DisplayName("POST /calculate/{num1}/{num2} is served asynchronously and returns the Mono's result")
+    void calculate_returnsMonoResult() throws Exception {
+        when(calculatorService.calculatePercentage(100.0, 50.0))
+                .thenReturn(Mono.just(CalculateResponseDTO.builder().result(165.0).build()));
+
+        MvcResult started = mockMvc.perform(post(BASE_URL + "/100.0/50.0")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value(165.0));
+    }
+
+    @Test
+    @DisplayName("POST /calculate/{num1}/{num2} returns 503 when the Mono errors with PercentageUnavailableException")
+    void calculate_returns503_whenPercentageUnavailable() throws Exception {
+        when(calculatorService.calculatePercentage(1.0, 2.0))
+                .thenReturn(Mono.error(new PercentageUnavailableException("sin porcentaje")));
+
+        MvcResult started = mockMvc.perform(post(BASE_URL + "/1.0/2.0")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("POST /calculate/{num1}/{num2} returns 503 when the Mono does not emit before the timeout")
+    void calculate_returns503_whenMonoTimesOut() throws Exception {
+        when(calculatorService.calculatePercentage(1.0, 2.0)).thenReturn(Mono.never());
+
+        MvcResult started = mockMvc.perform(post(BASE_URL + "/1.0/2.0")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value(containsString("100 ms")));
+    }
+
+    @Test
+    @DisplayName("POST /calculate/batch returns one result per pair from the Mono")
+    void calculateBatch_returnsMonoResults() throws Exception {
+        when(calculatorService.calculatePercentages(anyList()))
+                .thenReturn(Mono.just(CalculateBatchResponseDTO.builder().results(List.of(165.0, 33.0)).build()));
+
+        MvcResult started = mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"num1\":100.0,\"num2\":50.0},{\"num1\":10.0,\"num2\":20.0}]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0]").value(165.0))
+                .andExpect(jsonPath("$.results[1]").value(33.0));
+    }
+}
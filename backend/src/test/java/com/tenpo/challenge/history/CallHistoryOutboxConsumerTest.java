@@ -0,0 +1,198 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CallHistoryOutboxConsumerTest {
+
+    private static final String STREAM = "call-history";
+    private static final String GROUP = "call-history-writers";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StreamOperations<String, String, String> streamOperations;
+
+    @Mock
+    private CallRepository callRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CallHistoryOutboxConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new CallHistoryOutboxConsumer(redisTemplate, callRepository,
+                TransactionOperations.withoutTransaction(), meterRegistry,
+                Thread.ofPlatform().daemon(true).factory());
+        ReflectionTestUtils.setField(consumer, "streamKey", STREAM);
+        ReflectionTestUtils.setField(consumer, "group", GROUP);
+        ReflectionTestUtils.setField(consumer, "consumerName", "replica-a");
+        ReflectionTestUtils.setField(consumer, "batchSize", 100);
+        ReflectionTestUtils.setField(consumer, "blockMs", 10L);
+        ReflectionTestUtils.setField(consumer, "claimIdleMs", 60_000L);
+        // Nothing left over from a previous run and no claim due yet: go straight to new entries
+        ReflectionTestUtils.setField(consumer, "ownPendingRecovered", true);
+        ReflectionTestUtils.setField(consumer, "lastClaimNanos", System.nanoTime());
+
+        lenient().when(redisTemplate.<String, String>opsForStream()).thenReturn(streamOperations);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private MapRecord<String, String, String> record(String id, String result) {
+        return StreamRecords.newRecord()
+                .in(STREAM)
+                .withId(RecordId.of(id))
+                .ofMap(Map.of("t", "2026-01-01T10:00:00", "e", "/api/calculate", "res", result, "s", "1"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void newEntries(List<MapRecord<String, String, String>> records) {
+        when(streamOperations.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(records);
+    }
+
+    // -------------------------------------------------------------------------
+    // Drain
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("drainOnce: bulk-inserts a batch and acknowledges it only after the insert commits")
+    @SuppressWarnings("unchecked")
+    void drainOnce_insertsThenAcknowledges() {
+        newEntries(List.of(record("1-0", "165.0"), record("2-0", "30.0")));
+        when(callRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(consumer.drainOnce()).isEqualTo(2);
+
+        ArgumentCaptor<List<Call>> batch = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(callRepository, streamOperations);
+        inOrder.verify(callRepository).saveAll(batch.capture());
+        inOrder.verify(streamOperations).acknowledge(STREAM, GROUP, RecordId.of("1-0"), RecordId.of("2-0"));
+        inOrder.verify(streamOperations).delete(STREAM, RecordId.of("1-0"), RecordId.of("2-0"));
+        assertThat(batch.getValue()).extracting(Call::getResult).containsExactly(165.0, 30.0);
+        assertThat(meterRegistry.counter("history.outbox.drained").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("drainOnce: leaves entries pending when the database insert fails")
+    void drainOnce_databaseFails_doesNotAcknowledge() {
+        newEntries(List.of(record("1-0", "165.0")));
+        when(callRepository.saveAll(any())).thenThrow(new RuntimeException("Connection refused"));
+
+        assertThatThrownBy(() -> consumer.drainOnce()).hasMessage("Connection refused");
+
+        verify(streamOperations, never()).acknowledge(anyString(), anyString(), any(RecordId[].class));
+        verify(streamOperations, never()).delete(anyString(), any(RecordId[].class));
+    }
+
+    @Test
+    @DisplayName("drainOnce: first re-reads entries this consumer left unacknowledged in a previous run")
+    @SuppressWarnings("unchecked")
+    void drainOnce_afterRestart_readsOwnPendingFirst() {
+        ReflectionTestUtils.setField(consumer, "ownPendingRecovered", false);
+        newEntries(List.of(record("1-0", "165.0")));
+        when(callRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        consumer.drainOnce();
+
+        ArgumentCaptor<StreamOffset<String>> offset = ArgumentCaptor.forClass(StreamOffset.class);
+        verify(streamOperations).read(any(Consumer.class), any(StreamReadOptions.class), offset.capture());
+        assertThat(offset.getValue().getOffset().getOffset()).isEqualTo("0");
+    }
+
+    @Test
+    @DisplayName("drainOnce: claims entries another replica left idle and persists them")
+    void drainOnce_idleEntriesOfDeadReplica_areClaimed() {
+        ReflectionTestUtils.setField(consumer, "lastClaimNanos", 0L);
+        ReflectionTestUtils.setField(consumer, "claimIdleMs", 1_000L);
+        PendingMessage abandoned = new PendingMessage(RecordId.of("1-0"), Consumer.from(GROUP, "replica-b"),
+                Duration.ofSeconds(5), 1);
+        when(streamOperations.pending(eq(STREAM), eq(GROUP), any(Range.class), eq(100L)))
+                .thenReturn(new PendingMessages(GROUP, List.of(abandoned)));
+        when(streamOperations.claim(eq(STREAM), eq(GROUP), eq("replica-a"), any(XClaimOptions.class)))
+                .thenReturn(List.of(record("1-0", "165.0")));
+        when(callRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(consumer.drainOnce()).isEqualTo(1);
+
+        verify(streamOperations).acknowledge(STREAM, GROUP, RecordId.of("1-0"));
+        assertThat(meterRegistry.counter("history.outbox.reclaimed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("drainOnce: pages past pending entries of live replicas to reach the idle ones behind them")
+    @SuppressWarnings("unchecked")
+    void drainOnce_idleEntriesBehindLiveOnes_pagesThroughPending() {
+        ReflectionTestUtils.setField(consumer, "lastClaimNanos", 0L);
+        ReflectionTestUtils.setField(consumer, "claimIdleMs", 1_000L);
+        ReflectionTestUtils.setField(consumer, "batchSize", 2);
+        Consumer live = Consumer.from(GROUP, "replica-c");
+        Consumer dead = Consumer.from(GROUP, "replica-b");
+        when(streamOperations.pending(eq(STREAM), eq(GROUP), any(Range.class), eq(2L)))
+                .thenReturn(new PendingMessages(GROUP, List.of(
+                        new PendingMessage(RecordId.of("1-0"), live, Duration.ofMillis(10), 1),
+                        new PendingMessage(RecordId.of("2-0"), live, Duration.ofMillis(10), 1))))
+                .thenReturn(new PendingMessages(GROUP, List.of(
+                        new PendingMessage(RecordId.of("3-0"), dead, Duration.ofSeconds(5), 1))));
+        when(streamOperations.claim(eq(STREAM), eq(GROUP), eq("replica-a"), any(XClaimOptions.class)))
+                .thenReturn(List.of(record("3-0", "165.0")));
+        when(callRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(consumer.drainOnce()).isEqualTo(1);
+
+        ArgumentCaptor<Range<String>> ranges = ArgumentCaptor.forClass(Range.class);
+        verify(streamOperations, times(2)).pending(eq(STREAM), eq(GROUP), ranges.capture(), eq(2L));
+        assertThat(ranges.getAllValues().get(1).getLowerBound())
+                .isEqualTo(Range.Bound.exclusive("2-0"));
+        ArgumentCaptor<XClaimOptions> claim = ArgumentCaptor.forClass(XClaimOptions.class);
+        verify(streamOperations).claim(eq(STREAM), eq(GROUP), eq("replica-a"), claim.capture());
+        assertThat(claim.getValue().getIds()).containsExactly(RecordId.of("3-0"));
+    }
+
+    @Test
+    @DisplayName("ensureGroup: tolerates the group already existing")
+    void ensureGroup_groupExists_isIgnored() {
+        when(streamOperations.createGroup(eq(STREAM), any(ReadOffset.class), eq(GROUP)))
+                .thenThrow(new RedisSystemException("BUSYGROUP Consumer Group name already exists", null));
+
+        assertThatCode(() -> consumer.ensureGroup()).doesNotThrowAnyException();
+    }
+}
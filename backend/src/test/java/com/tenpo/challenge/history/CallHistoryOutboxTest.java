@@ -0,0 +1,147 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.dto.CallDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CallHistoryOutboxTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    @Mock
+    private CallHistoryWriter fallback;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CallHistoryOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outbox = new CallHistoryOutbox(redisTemplate, fallback, meterRegistry);
+        ReflectionTestUtils.setField(outbox, "streamKey", "call-history");
+        lenient().when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+    }
+
+    private CallDTO buildCallDTO() {
+        return CallDTO.builder()
+                .timestamp("2026-01-01T10:00:00")
+                .endpoint("/api/calculate")
+                .num1(100.0)
+                .num2(50.0)
+                .percentage(10.0)
+                .result(165.0)
+                .success(true)
+                .build();
+    }
+
+    @Test
+    @DisplayName("submit: XADDs a compact record to the stream and completes immediately")
+    @SuppressWarnings("unchecked")
+    void submit_appendsToStream() {
+        CallDTO callDTO = buildCallDTO();
+        when(streamOperations.add(any(MapRecord.class))).thenReturn(RecordId.of("1-0"));
+
+        CompletableFuture<CallDTO> future = outbox.submit(callDTO);
+
+        ArgumentCaptor<MapRecord<String, String, String>> record = ArgumentCaptor.forClass(MapRecord.class);
+        verify(streamOperations).add(record.capture());
+        assertThat(record.getValue().getStream()).isEqualTo("call-history");
+        assertThat(record.getValue().getValue())
+                .containsEntry("res", "165.0")
+                .containsEntry("s", "1")
+                .containsEntry("n1", "100.0")
+                .doesNotContainKey("err");
+        assertThat(future).isCompletedWithValue(callDTO);
+        verifyNoInteractions(fallback);
+        assertThat(meterRegistry.counter("history.outbox.appended").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("submit: falls back to the local writer when Redis rejects the XADD")
+    @SuppressWarnings("unchecked")
+    void submit_redisDown_fallsBackToWriter() {
+        CallDTO callDTO = buildCallDTO();
+        when(streamOperations.add(any(MapRecord.class))).thenThrow(new RedisConnectionFailureException("down"));
+        CompletableFuture<CallDTO> pending = new CompletableFuture<>();
+        when(fallback.submit(callDTO)).thenReturn(pending);
+
+        assertThat(outbox.submit(callDTO)).isSameAs(pending);
+        assertThat(meterRegistry.counter("history.outbox.append_failures").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("submitAll: sends every XADD in a single pipeline and completes immediately")
+    @SuppressWarnings("unchecked")
+    void submitAll_appendsInOnePipeline() {
+        List<CallDTO> callDTOs = List.of(buildCallDTO(), buildCallDTO());
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(redisTemplate);
+            return List.of();
+        });
+
+        CompletableFuture<List<CallDTO>> future = outbox.submitAll(callDTOs);
+
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(streamOperations, times(2)).add(any(MapRecord.class));
+        assertThat(future).isCompletedWithValue(callDTOs);
+        verifyNoInteractions(fallback);
+        assertThat(meterRegistry.counter("history.outbox.appended").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("submitAll: falls back to the local writer with the whole list when the pipeline fails")
+    @SuppressWarnings("unchecked")
+    void submitAll_redisDown_fallsBackToWriter() {
+        List<CallDTO> callDTOs = List.of(buildCallDTO(), buildCallDTO());
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        CompletableFuture<List<CallDTO>> pending = new CompletableFuture<>();
+        when(fallback.submitAll(callDTOs)).thenReturn(pending);
+
+        assertThat(outbox.submitAll(callDTOs)).isSameAs(pending);
+        assertThat(meterRegistry.counter("history.outbox.append_failures").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("toFields/fromFields: round-trips a call through the stream encoding")
+    void fields_roundTrip() {
+        CallDTO callDTO = buildCallDTO();
+
+        assertThat(CallHistoryOutbox.fromFields(CallHistoryOutbox.toFields(callDTO))).isEqualTo(callDTO);
+    }
+
+    @Test
+    @DisplayName("toFields/fromFields: carries the client-assigned id so replays can be deduplicated")
+    void fields_roundTripId() {
+        CallDTO callDTO = buildCallDTO();
+        callDTO.setId(UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057"));
+
+        assertThat(CallHistoryOutbox.toFields(callDTO)).containsEntry("i", "01890a5d-ac96-774b-bcce-b302099a8057");
+        assertThat(CallHistoryOutbox.fromFields(CallHistoryOutbox.toFields(callDTO))).isEqualTo(callDTO);
+    }
+}
@@ -0,0 +1,116 @@
+package com.tenpo.challenge.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.challenge.repository.CallCountEstimator;
+import com.tenpo.challenge.repository.CallRepository;
+import com.tenpo.challenge.service.PercentageService;
+import com.tenpo.challenge.service.impl.CalculatorServiceImpl;
+import com.tenpo.challenge.service.impl.CallServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Simula un Postgres bloqueado: la primera escritura del historial no vuelve hasta el final del test.
+ * El cálculo debe seguir respondiendo con latencia plana, sin excepciones, sea cual sea la política de desborde.
+ */
+public class CallHistoryStallLoadTest {
+
+    private static final int THREADS = 8;
+    private static final int CALLS_PER_THREAD = 2_500;
+
+    @TempDir
+    Path tempDir;
+
+    private final CountDownLatch databaseStall = new CountDownLatch(1);
+    private CallRepository callRepository;
+    private CallHistoryWriter writer;
+    private CalculatorServiceImpl calculatorService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        callRepository = mock(CallRepository.class);
+        when(callRepository.saveAll(any())).thenAnswer(invocation -> {
+            databaseStall.await();
+            return invocation.getArgument(0);
+        });
+        PercentageService percentageService = mock(PercentageService.class);
+        when(percentageService.getPercentage()).thenReturn(10.0);
+
+        writer = new CallHistoryWriter(callRepository, TransactionOperations.withoutTransaction(),
+                new CallSpillFile(new ObjectMapper(), tempDir.resolve("spill.ndjson").toString()),
+                mock(ObjectProvider.class), new SimpleMeterRegistry(),
+                Thread.ofPlatform().daemon(true).factory());
+        ReflectionTestUtils.setField(writer, "queueCapacity", 1_000);
+        ReflectionTestUtils.setField(writer, "batchSize", 100);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(writer, "blockBudgetMs", 1L);
+
+        calculatorService = new CalculatorServiceImpl(percentageService, new CallServiceImpl(callRepository, writer,
+                new CallCountEstimator(callRepository)));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        databaseStall.countDown();
+        writer.stop();
+    }
+
+    @ParameterizedTest
+    @EnumSource(OverflowPolicy.class)
+    @DisplayName("calculatePercentage: latency stays flat and nothing throws while the history database is stalled")
+    void calculatePercentage_databaseStalled_latencyStaysFlat(OverflowPolicy policy) throws Exception {
+        ReflectionTestUtils.setField(writer, "overflowPolicy", policy);
+        writer.start();
+
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(clients.submit(() -> {
+                long[] latencies = new long[CALLS_PER_THREAD];
+                for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                    long start = System.nanoTime();
+                    calculatorService.calculatePercentage(100.0, 50.0);
+                    latencies[i] = System.nanoTime() - start;
+                }
+                return latencies;
+            }));
+        }
+
+        long[] all = new long[THREADS * CALLS_PER_THREAD];
+        int offset = 0;
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get(30, TimeUnit.SECONDS);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        clients.shutdown();
+
+        Arrays.sort(all);
+        long p99Millis = TimeUnit.NANOSECONDS.toMillis(all[(int) (all.length * 0.99)]);
+        assertThat(p99Millis).isLessThan(50);
+        assertThat(writer.getQueueSize()).isLessThanOrEqualTo(1_000);
+        verify(callRepository, atMost(1)).saveAll(any());
+    }
+}
@@ -0,0 +1,315 @@
+package com.tenpo.challenge.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CallHistoryWriterTest {
+
+    @Mock
+    private CallRepository callRepository;
+
+    @Mock
+    private ObjectProvider<CallJournal> journalProvider;
+
+    @TempDir
+    Path tempDir;
+
+    private CallHistoryWriter writer;
+    private CallSpillFile spillFile;
+    private SimpleMeterRegistry meterRegistry;
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private void startWriter(int capacity, int batchSize, long flushIntervalMs) {
+        startWriter(capacity, batchSize, flushIntervalMs, OverflowPolicy.DROP_NEWEST);
+    }
+
+    private void startWriter(int capacity, int batchSize, long flushIntervalMs, OverflowPolicy policy) {
+        startWriter(capacity, batchSize, flushIntervalMs, policy, Thread.ofPlatform().daemon(true).factory());
+    }
+
+    private void startWriter(int capacity, int batchSize, long flushIntervalMs, OverflowPolicy policy,
+                             ThreadFactory threadFactory) {
+        meterRegistry = new SimpleMeterRegistry();
+        spillFile = new CallSpillFile(new ObjectMapper(), tempDir.resolve("spill.ndjson").toString());
+        writer = new CallHistoryWriter(callRepository, TransactionOperations.withoutTransaction(),
+                spillFile, journalProvider, meterRegistry, threadFactory);
+        ReflectionTestUtils.setField(writer, "queueCapacity", capacity);
+        ReflectionTestUtils.setField(writer, "batchSize", batchSize);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", flushIntervalMs);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(writer, "blockBudgetMs", 20L);
+        writer.start();
+    }
+
+    private double rejections(OverflowPolicy policy) {
+        return meterRegistry.counter("history.rejections", "policy", policy.name()).count();
+    }
+
+    private CallDTO buildCallDTO(String errorMessage) {
+        return CallDTO.builder()
+                .timestamp(LocalDateTime.now().toString())
+                .endpoint("/api/calculate")
+                .num1(1.0)
+                .num2(2.0)
+                .errorMessage(errorMessage)
+                .success(false)
+                .build();
+    }
+
+    private void echoSaveAll() {
+        when(callRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Flush triggers
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("submit: flushes a full batch in a single saveAll without waiting for the interval")
+    @SuppressWarnings("unchecked")
+    void submit_fullBatch_flushesInOneSaveAll() throws Exception {
+        echoSaveAll();
+        startWriter(100, 3, 60_000);
+
+        List<CompletableFuture<CallDTO>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(writer.submit(buildCallDTO(String.valueOf(i))));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<List<Call>> batch = ArgumentCaptor.forClass(List.class);
+        verify(callRepository, times(1)).saveAll(batch.capture());
+        assertThat(batch.getValue()).hasSize(3);
+        assertThat(futures.get(2).get().getErrorMessage()).isEqualTo("2");
+    }
+
+    @Test
+    @DisplayName("submitAll: queues the whole list and flushes it in one saveAll without waiting for the interval")
+    @SuppressWarnings("unchecked")
+    void submitAll_flushesInOneSaveAll() throws Exception {
+        echoSaveAll();
+        startWriter(100, 500, 60_000);
+
+        List<CallDTO> saved = writer.submitAll(List.of(buildCallDTO("0"), buildCallDTO("1"), buildCallDTO("2")))
+                .get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<List<Call>> batch = ArgumentCaptor.forClass(List.class);
+        verify(callRepository, times(1)).saveAll(batch.capture());
+        assertThat(batch.getValue()).hasSize(3);
+        assertThat(saved).extracting(CallDTO::getErrorMessage).containsExactly("0", "1", "2");
+    }
+
+    @Test
+    @DisplayName("submit: flushes a partial batch once the flush interval elapses")
+    void submit_partialBatch_flushesOnInterval() throws Exception {
+        echoSaveAll();
+        startWriter(100, 500, 50);
+
+        CallDTO saved = writer.submit(buildCallDTO("165.0")).get(5, TimeUnit.SECONDS);
+
+        assertThat(saved.getErrorMessage()).isEqualTo("165.0");
+        verify(callRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("start: drains on a thread from the given factory, virtual when virtual threads are enabled")
+    void start_virtualThreadFactory_drainsOnVirtualThread() throws Exception {
+        AtomicReference<Thread> drainer = new AtomicReference<>();
+        when(callRepository.saveAll(any())).thenAnswer(invocation -> {
+            drainer.set(Thread.currentThread());
+            return invocation.getArgument(0);
+        });
+        startWriter(100, 1, 60_000, OverflowPolicy.DROP_NEWEST, Thread.ofVirtual().factory());
+
+        writer.submit(buildCallDTO("virtual")).get(5, TimeUnit.SECONDS);
+
+        assertThat(drainer.get().isVirtual()).isTrue();
+        assertThat(drainer.get().getName()).isEqualTo("CallHistoryWriter");
+    }
+
+    @Test
+    @DisplayName("submit: rejects new calls through the future when the queue is full")
+    void submit_queueFull_rejects() {
+        startWriter(1, 500, 60_000);
+
+        writer.submit(buildCallDTO("first"));
+        CompletableFuture<CallDTO> rejected = writer.submit(buildCallDTO("second"));
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::get).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(writer.getQueueSize()).isEqualTo(1);
+        assertThat(rejections(OverflowPolicy.DROP_NEWEST)).isEqualTo(1.0);
+    }
+
+    // -------------------------------------------------------------------------
+    // Overflow policies
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("DROP_OLDEST: evicts the oldest queued call to make room for the new one")
+    void submit_dropOldest_evictsOldest() {
+        startWriter(1, 500, 60_000, OverflowPolicy.DROP_OLDEST);
+
+        CompletableFuture<CallDTO> oldest = writer.submit(buildCallDTO("first"));
+        CompletableFuture<CallDTO> newest = writer.submit(buildCallDTO("second"));
+
+        assertThat(oldest).isCompletedExceptionally();
+        assertThat(newest).isNotDone();
+        assertThat(rejections(OverflowPolicy.DROP_OLDEST)).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("BLOCK: waits at most the budget for room, then rejects the new call")
+    void submit_block_rejectsAfterBudget() {
+        startWriter(1, 500, 60_000, OverflowPolicy.BLOCK);
+        writer.submit(buildCallDTO("first"));
+
+        long start = System.nanoTime();
+        CompletableFuture<CallDTO> rejected = writer.submit(buildCallDTO("second"));
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThat(waitedMs).isBetween(15L, 1_000L);
+    }
+
+    @Test
+    @DisplayName("SPILL_TO_DISK: spills overflow to disk and replays it on the next run once the queue is empty")
+    @SuppressWarnings("unchecked")
+    void submit_spillToDisk_replaysSpilledCalls() throws Exception {
+        echoSaveAll();
+        startWriter(1, 500, 60_000, OverflowPolicy.SPILL_TO_DISK);
+
+        CompletableFuture<CallDTO> queued = writer.submit(buildCallDTO("queued"));
+        CompletableFuture<CallDTO> spilled = writer.submit(buildCallDTO("spilled"));
+
+        assertThat(spilled.get().getErrorMessage()).isEqualTo("spilled");
+        assertThat(spillFile.hasPending()).isTrue();
+        assertThat(meterRegistry.counter("history.spilled").count()).isEqualTo(1.0);
+
+        writer.stop();
+        assertThat(queued).isCompleted();
+
+        // A fresh writer on the same spill file picks up what the previous one left behind
+        startWriter(100, 500, 20, OverflowPolicy.SPILL_TO_DISK);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (spillFile.hasPending() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        ArgumentCaptor<List<Call>> batches = ArgumentCaptor.forClass(List.class);
+        verify(callRepository, times(2)).saveAll(batches.capture());
+        assertThat(batches.getAllValues()).flatMap(batch -> batch)
+                .extracting(Call::getErrorMessage)
+                .containsExactly("queued", "spilled");
+    }
+
+    // -------------------------------------------------------------------------
+    // Journal
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("submit: with the journal enabled, completes once the call is journaled and never touches the queue")
+    void submit_journalEnabled_completesWithoutQueue() {
+        CallJournal journal = new CallJournal(tempDir.resolve("journal").toString(), 64 * 1024);
+        when(journalProvider.getIfAvailable()).thenReturn(journal);
+        startWriter(1, 500, 60_000);
+
+        CompletableFuture<CallDTO> first = writer.submit(buildCallDTO("first"));
+        CompletableFuture<CallDTO> second = writer.submit(buildCallDTO("second"));
+
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(writer.getQueueSize()).isZero();
+        assertThat(journal.readBatch(10).calls()).extracting(CallDTO::getErrorMessage)
+                .containsExactly("first", "second");
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("submitAll: with the journal enabled, journals the whole list at once and never touches the queue")
+    void submitAll_journalEnabled_completesWithoutQueue() throws Exception {
+        CallJournal journal = new CallJournal(tempDir.resolve("journal").toString(), 64 * 1024);
+        when(journalProvider.getIfAvailable()).thenReturn(journal);
+        startWriter(1, 500, 60_000);
+
+        CompletableFuture<List<CallDTO>> result = writer.submitAll(List.of(buildCallDTO("first"),
+                buildCallDTO("second")));
+
+        assertThat(result).isCompleted();
+        assertThat(writer.getQueueSize()).isZero();
+        assertThat(meterRegistry.counter("history.journaled").count()).isEqualTo(2.0);
+        assertThat(journal.readBatch(10).calls()).extracting(CallDTO::getErrorMessage)
+                .containsExactly("first", "second");
+        journal.close();
+    }
+
+    // -------------------------------------------------------------------------
+    // Failures and shutdown
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("flush: fails every future of the batch when the database write fails")
+    void flush_databaseFailure_failsBatchFutures() {
+        when(callRepository.saveAll(any())).thenThrow(new RuntimeException("DB error"));
+        startWriter(100, 2, 60_000);
+
+        CompletableFuture<CallDTO> first = writer.submit(buildCallDTO("1"));
+        CompletableFuture<CallDTO> second = writer.submit(buildCallDTO("2"));
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("stop: flushes whatever is still queued before shutting down")
+    void stop_flushesRemainingCalls() throws Exception {
+        echoSaveAll();
+        startWriter(100, 500, 60_000);
+
+        CompletableFuture<CallDTO> pending = writer.submit(buildCallDTO("165.0"));
+        writer.stop();
+        writer = null;
+
+        assertThat(pending).isCompleted();
+        assertThat(pending.get().getErrorMessage()).isEqualTo("165.0");
+    }
+}
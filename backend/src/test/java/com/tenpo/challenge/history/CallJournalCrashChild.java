@@ -0,0 +1,21 @@
+package com.tenpo.challenge.history;
+
+/**
+ * Proceso hijo de {@link CallJournalTest}: escribe en el journal, avisa por stdout y se queda esperando
+ * a que el test lo mate con SIGKILL, sin cerrar ni forzar nada.
+ */
+public class CallJournalCrashChild {
+
+    static final String READY = "JOURNAL_READY";
+
+    public static void main(String[] args) throws InterruptedException {
+        CallJournal journal = new CallJournal(args[0], Integer.parseInt(args[1]));
+        int calls = Integer.parseInt(args[2]);
+        for (int i = 0; i < calls; i++) {
+            journal.append(CallJournalTest.buildCallDTO(String.valueOf(i)));
+        }
+        System.out.println(READY);
+        System.out.flush();
+        Thread.sleep(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,110 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CallJournalReplayerTest {
+
+    @Mock
+    private CallRepository callRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private CallJournal journal;
+    private SimpleMeterRegistry meterRegistry;
+    private CallJournalReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        journal = new CallJournal(tempDir.toString(), 64 * 1024);
+        meterRegistry = new SimpleMeterRegistry();
+        replayer = new CallJournalReplayer(journal, callRepository, TransactionOperations.withoutTransaction(),
+                meterRegistry, Thread.ofPlatform().daemon(true).factory());
+        ReflectionTestUtils.setField(replayer, "batchSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("replayOnce: persists a batch and advances the checkpoint past it")
+    @SuppressWarnings("unchecked")
+    void replayOnce_databaseHealthy_persistsAndCommits() {
+        when(callRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        journal.append(CallJournalTest.buildCallDTO("1"));
+        journal.append(CallJournalTest.buildCallDTO("2"));
+        journal.append(CallJournalTest.buildCallDTO("3"));
+
+        assertThat(replayer.replayOnce()).isEqualTo(2);
+        assertThat(replayer.replayOnce()).isEqualTo(1);
+        assertThat(replayer.replayOnce()).isZero();
+
+        ArgumentCaptor<List<Call>> batches = ArgumentCaptor.forClass(List.class);
+        verify(callRepository, times(2)).saveAll(batches.capture());
+        assertThat(batches.getAllValues()).flatMap(batch -> batch)
+                .extracting(Call::getErrorMessage).containsExactly("1", "2", "3");
+        assertThat(journal.hasPending()).isFalse();
+        assertThat(meterRegistry.counter("history.journal.replayed").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("replayOnce: keeps the batch in the journal while the database is down and replays it once it is back")
+    void replayOnce_databaseDown_keepsBatchForRetry() {
+        when(callRepository.saveAll(any()))
+                .thenThrow(new RuntimeException("Connection refused"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        journal.append(CallJournalTest.buildCallDTO("1"));
+
+        assertThatThrownBy(() -> replayer.replayOnce()).hasMessage("Connection refused");
+        assertThat(journal.readBatch(10).calls()).extracting(CallDTO::getErrorMessage).containsExactly("1");
+
+        assertThat(replayer.replayOnce()).isEqualTo(1);
+        assertThat(journal.hasPending()).isFalse();
+    }
+
+    @Test
+    @DisplayName("replayOnce: skips calls whose id is already in the database after a crash before the checkpoint")
+    @SuppressWarnings("unchecked")
+    void replayOnce_alreadyPersisted_isSkipped() {
+        CallDTO persisted = CallJournalTest.buildCallDTO("1");
+        persisted.setId(UUID.randomUUID());
+        CallDTO pending = CallJournalTest.buildCallDTO("2");
+        pending.setId(UUID.randomUUID());
+        journal.append(persisted);
+        journal.append(pending);
+        when(callRepository.findExistingIds(List.of(persisted.getId(), pending.getId())))
+                .thenReturn(List.of(persisted.getId()));
+        when(callRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(replayer.replayOnce()).isEqualTo(2);
+
+        ArgumentCaptor<List<Call>> batch = ArgumentCaptor.forClass(List.class);
+        verify(callRepository).saveAll(batch.capture());
+        assertThat(batch.getValue()).extracting(Call::getId).containsExactly(pending.getId());
+        assertThat(journal.hasPending()).isFalse();
+    }
+}
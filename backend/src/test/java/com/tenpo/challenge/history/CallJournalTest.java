@@ -0,0 +1,208 @@
+package com.tenpo.challenge.history;
+
+import com.tenpo.challenge.dto.CallDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class CallJournalTest {
+
+    private static final int SEGMENT_BYTES = 4 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private CallJournal journal;
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private CallJournal openJournal() {
+        journal = new CallJournal(tempDir.toString(), SEGMENT_BYTES);
+        return journal;
+    }
+
+    static CallDTO buildCallDTO(String errorMessage) {
+        return CallDTO.builder()
+                .timestamp("2026-01-01T10:00:00.000001")
+                .endpoint("/api/calculate")
+                .num1(100.0)
+                .num2(50.0)
+                .errorMessage(errorMessage)
+                .success(false)
+                .build();
+    }
+
+    private List<String> drain(CallJournal journal) {
+        List<String> responses = new ArrayList<>();
+        CallJournal.Batch batch;
+        while (!(batch = journal.readBatch(100)).isEmpty()) {
+            batch.calls().forEach(call -> responses.add(call.getErrorMessage()));
+            journal.commit(batch);
+        }
+        return responses;
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-")).count();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Append, read and commit
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("encode/decode: round-trips every field, including nulls")
+    void encode_decode_roundTrips() {
+        CallDTO call = CallDTO.builder()
+                .timestamp("2026-01-01T10:00")
+                .endpoint("/api/calculate")
+                .num1(1.0)
+                .percentage(-0.0)
+                .errorMessage("ñandú 165.0")
+                .success(null)
+                .build();
+        CallDTO succeeded = CallDTO.builder()
+                .num1(100.0)
+                .num2(50.0)
+                .percentage(10.0)
+                .result(165.0)
+                .success(true)
+                .build();
+
+        assertThat(CallJournal.decode(CallJournal.encode(call))).isEqualTo(call);
+        assertThat(CallJournal.decode(CallJournal.encode(succeeded))).isEqualTo(succeeded);
+    }
+
+    @Test
+    @DisplayName("encode/decode: round-trips the client-assigned id and still reads records written without one")
+    void encode_decode_withId_roundTrips() {
+        CallDTO withId = buildCallDTO("165.0");
+        withId.setId(UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057"));
+
+        assertThat(CallJournal.decode(CallJournal.encode(withId))).isEqualTo(withId);
+        assertThat(CallJournal.decode(CallJournal.encode(buildCallDTO("165.0"))).getId()).isNull();
+    }
+
+    @Test
+    @DisplayName("readBatch: returns appended calls in order without consuming them until commit")
+    void readBatch_beforeCommit_returnsSameCallsAgain() {
+        openJournal();
+        journal.append(buildCallDTO("1"));
+        journal.append(buildCallDTO("2"));
+
+        assertThat(journal.readBatch(10).calls()).extracting(CallDTO::getErrorMessage).containsExactly("1", "2");
+        assertThat(journal.readBatch(1).calls()).extracting(CallDTO::getErrorMessage).containsExactly("1");
+
+        journal.commit(journal.readBatch(1));
+        assertThat(journal.readBatch(10).calls()).extracting(CallDTO::getErrorMessage).containsExactly("2");
+        assertThat(journal.hasPending()).isTrue();
+    }
+
+    @Test
+    @DisplayName("append: rolls over to new segments and commit deletes the consumed ones")
+    void append_rollsOverSegments_commitDeletesThem() throws Exception {
+        openJournal();
+        for (int i = 0; i < 200; i++) {
+            journal.append(buildCallDTO(String.valueOf(i)));
+        }
+        assertThat(segmentCount()).isGreaterThan(3);
+
+        List<String> responses = drain(journal);
+
+        assertThat(responses).hasSize(200).startsWith("0", "1").endsWith("199");
+        assertThat(journal.hasPending()).isFalse();
+        assertThat(segmentCount()).isEqualTo(1);
+    }
+
+    // -------------------------------------------------------------------------
+    // Recovery
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("recover: a reopened journal resumes from the checkpoint and keeps appending after the last record")
+    void recover_reopened_resumesFromCheckpoint() {
+        CallJournal first = openJournal();
+        for (int i = 0; i < 100; i++) {
+            first.append(buildCallDTO(String.valueOf(i)));
+        }
+        first.commit(first.readBatch(40));
+        first.close();
+
+        openJournal();
+        journal.append(buildCallDTO("100"));
+
+        List<String> responses = drain(journal);
+        assertThat(responses).hasSize(61).startsWith("40").endsWith("99", "100");
+    }
+
+    @Test
+    @DisplayName("recover: ignores a torn record at the tail of the active segment")
+    void recover_tornTail_stopsAtLastValidRecord() throws Exception {
+        CallJournal first = openJournal();
+        first.append(buildCallDTO("ok"));
+        int recordBytes = 8 + CallJournal.encode(buildCallDTO("ok")).length;
+        first.close();
+
+        // Length header written but the payload never made it to disk
+        try (RandomAccessFile file = new RandomAccessFile(tempDir.resolve("segment-0.log").toFile(), "rw")) {
+            file.seek(recordBytes);
+            file.writeInt(50);
+        }
+
+        openJournal();
+        assertThat(drain(journal)).containsExactly("ok");
+    }
+
+    @Test
+    @DisplayName("recover: no journaled call is lost when the writing process is killed with SIGKILL")
+    void recover_afterKill9_losesNothing() throws Exception {
+        int calls = 5_000;
+        String javaBin = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process child = new ProcessBuilder(javaBin, "-cp", System.getProperty("java.class.path"),
+                CallJournalCrashChild.class.getName(), tempDir.toString(), String.valueOf(SEGMENT_BYTES),
+                String.valueOf(calls))
+                .redirectErrorStream(true)
+                .start();
+
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(child.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null && !line.equals(CallJournalCrashChild.READY)) {
+                // skip log output until the child has appended everything
+            }
+            assertThat(line).isEqualTo(CallJournalCrashChild.READY);
+        }
+        child.destroyForcibly();
+        assertThat(child.waitFor(10, TimeUnit.SECONDS)).isTrue();
+
+        openJournal();
+        List<String> responses = drain(journal);
+        assertThat(responses).hasSize(calls);
+        assertThat(responses.get(calls - 1)).isEqualTo(String.valueOf(calls - 1));
+    }
+}
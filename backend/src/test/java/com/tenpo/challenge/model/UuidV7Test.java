@@ -0,0 +1,87 @@
+package com.tenpo.challenge.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class UuidV7Test {
+
+    /** Orden de Postgres para uuid: bytes sin signo, de izquierda a derecha. */
+    private static final Comparator<UUID> UNSIGNED = Comparator
+            .comparing((UUID uuid) -> uuid.getMostSignificantBits(), Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    @Test
+    @DisplayName("next: sets version 7 and the RFC 9562 variant")
+    void next_setsVersionAndVariant() {
+        UUID uuid = UuidV7.next();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("next: embeds the generation time in the first 48 bits")
+    void next_embedsTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(UuidV7.timestampMillis(uuid)).isBetween(before, after + 1);
+    }
+
+    @Test
+    @DisplayName("next: ids are strictly increasing within the same millisecond and when the clock goes back")
+    void next_isMonotonic() {
+        long now = System.currentTimeMillis();
+        UUID first = UuidV7.next(now);
+        UUID sameMillis = UuidV7.next(now);
+        UUID clockBack = UuidV7.next(now - 1_000);
+        UUID later = UuidV7.next(now + 1);
+
+        assertThat(List.of(first, sameMillis, clockBack, later)).isSortedAccordingTo(UNSIGNED).doesNotHaveDuplicates();
+        assertThat(UNSIGNED.compare(first, sameMillis)).isNegative();
+        assertThat(UNSIGNED.compare(sameMillis, clockBack)).isNegative();
+    }
+
+    @Test
+    @DisplayName("next: stays unique and ordered per thread under concurrent generation")
+    void next_concurrent_isUnique() throws InterruptedException {
+        int threads = 8;
+        int perThread = 20_000;
+        Set<UUID> all = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Boolean> sorted = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                List<UUID> mine = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) {
+                    mine.add(UuidV7.next());
+                }
+                all.addAll(mine);
+                List<UUID> copy = new ArrayList<>(mine);
+                copy.sort(UNSIGNED);
+                synchronized (sorted) {
+                    sorted.add(copy.equals(mine));
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(all).hasSize(threads * perThread);
+        assertThat(new HashSet<>(sorted)).containsExactly(true);
+    }
+}
@@ -0,0 +1,59 @@
+package com.tenpo.challenge.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CallCountEstimatorTest {
+
+    @Mock
+    private CallRepository callRepository;
+
+    @InjectMocks
+    private CallCountEstimator estimator;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(estimator, "ttlMs", 60_000L);
+    }
+
+    @Test
+    @DisplayName("estimate: reads pg_class statistics once and serves the cached value afterwards")
+    void estimate_cachesStatistics() {
+        when(callRepository.estimateCount()).thenReturn(25_000_000L);
+
+        assertThat(estimator.estimate()).isEqualTo(25_000_000L);
+        assertThat(estimator.estimate()).isEqualTo(25_000_000L);
+
+        verify(callRepository, times(1)).estimateCount();
+        verify(callRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("estimate: refreshes the statistics once the cached value expires")
+    void estimate_expired_refreshes() {
+        ReflectionTestUtils.setField(estimator, "ttlMs", 0L);
+        when(callRepository.estimateCount()).thenReturn(10L, 20L);
+
+        assertThat(estimator.estimate()).isEqualTo(10L);
+        assertThat(estimator.estimate()).isEqualTo(20L);
+    }
+
+    @Test
+    @DisplayName("estimate: falls back to an exact count when the table has never been analyzed")
+    void estimate_noStatistics_countsExactly() {
+        when(callRepository.estimateCount()).thenReturn(-1L);
+        when(callRepository.count()).thenReturn(42L);
+
+        assertThat(estimator.estimate()).isEqualTo(42L);
+    }
+}
@@ -0,0 +1,177 @@
+package com.tenpo.challenge.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CallPartitionMaintenanceTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2026, 3);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CallPartitionMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        maintenance = new CallPartitionMaintenance(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                taskScheduler, meterRegistry);
+        ReflectionTestUtils.setField(maintenance, "premakeMonths", 2);
+        ReflectionTestUtils.setField(maintenance, "retentionMonths", 12);
+        ReflectionTestUtils.setField(maintenance, "retentionAction", CallPartitionMaintenance.RetentionAction.DROP);
+        ReflectionTestUtils.setField(maintenance, "cron", "0 15 3 * * *");
+    }
+
+    private void lockAcquired(boolean acquired) {
+        when(jdbcTemplate.queryForObject(eq("select pg_try_advisory_xact_lock(?)"), eq(Boolean.class), anyLong()))
+                .thenReturn(acquired);
+    }
+
+    private void existingPartitions(String... partitions) {
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class))).thenReturn(List.of(partitions));
+    }
+
+    // -------------------------------------------------------------------------
+    // Partition creation
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("maintain: creates the current month and the premade ones with month-aligned bounds")
+    void maintain_createsCurrentAndFuturePartitions() {
+        lockAcquired(true);
+        existingPartitions();
+
+        maintenance.maintain(CURRENT);
+
+        verify(jdbcTemplate).execute("create table if not exists call_p202603 partition of call "
+                + "for values from ('2026-03-01') to ('2026-04-01')");
+        verify(jdbcTemplate).execute("create table if not exists call_p202604 partition of call "
+                + "for values from ('2026-04-01') to ('2026-05-01')");
+        verify(jdbcTemplate).execute("create table if not exists call_p202605 partition of call "
+                + "for values from ('2026-05-01') to ('2026-06-01')");
+        verify(jdbcTemplate, times(3)).execute(startsWith("create table"));
+    }
+
+    @Test
+    @DisplayName("maintain: rolls over the year boundary")
+    void maintain_crossesYearBoundary() {
+        lockAcquired(true);
+        existingPartitions();
+
+        maintenance.maintain(YearMonth.of(2026, 12));
+
+        verify(jdbcTemplate).execute("create table if not exists call_p202701 partition of call "
+                + "for values from ('2027-01-01') to ('2027-02-01')");
+    }
+
+    @Test
+    @DisplayName("maintain: does nothing when another replica holds the advisory lock")
+    void maintain_lockHeldElsewhere_skips() {
+        lockAcquired(false);
+
+        maintenance.maintain(CURRENT);
+
+        verify(jdbcTemplate, never()).execute(anyString());
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+    }
+
+    // -------------------------------------------------------------------------
+    // Retention
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("maintain: drops whole partitions older than the retention window and keeps the rest")
+    void maintain_dropsExpiredPartitions() {
+        lockAcquired(true);
+        existingPartitions("call_p202502", "call_p202503", "call_p202603", "call_archive", "call_pbogus");
+
+        maintenance.maintain(CURRENT);
+
+        verify(jdbcTemplate).execute("drop table call_p202502");
+        verify(jdbcTemplate, never()).execute("drop table call_p202503");
+        verify(jdbcTemplate, times(1)).execute(startsWith("drop table"));
+        verify(jdbcTemplate, never()).execute(contains("delete"));
+        assertThat(meterRegistry.counter("history.partitions.retired", "action", "DROP").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("maintain: detaches expired partitions when the retention action is DETACH")
+    void maintain_detachesExpiredPartitions() {
+        ReflectionTestUtils.setField(maintenance, "retentionAction", CallPartitionMaintenance.RetentionAction.DETACH);
+        lockAcquired(true);
+        existingPartitions("call_p202501");
+
+        maintenance.maintain(CURRENT);
+
+        verify(jdbcTemplate).execute("alter table call detach partition call_p202501");
+        verify(jdbcTemplate, never()).execute(startsWith("drop table"));
+    }
+
+    @Test
+    @DisplayName("maintain: keeps every partition when retention is disabled")
+    void maintain_retentionDisabled_keepsEverything() {
+        ReflectionTestUtils.setField(maintenance, "retentionMonths", 0);
+        lockAcquired(true);
+
+        maintenance.maintain(CURRENT);
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+    }
+
+    // -------------------------------------------------------------------------
+    // Scheduling and naming
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("start: runs once immediately and schedules the cron job")
+    void start_runsAndSchedules() {
+        lockAcquired(true);
+        existingPartitions();
+
+        maintenance.start();
+
+        verify(jdbcTemplate, atLeastOnce()).execute(startsWith("create table"));
+        verify(taskScheduler).schedule(any(Runnable.class), any(CronTrigger.class));
+    }
+
+    @Test
+    @DisplayName("run: a database failure is counted and does not escape the scheduler thread")
+    void run_failure_isCounted() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyLong()))
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        assertThatCode(() -> maintenance.run()).doesNotThrowAnyException();
+        assertThat(meterRegistry.counter("history.partitions.failures").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("partitionName/parseMonth: round-trip managed names and ignore foreign ones")
+    void partitionName_roundTrips() {
+        assertThat(CallPartitionMaintenance.partitionName(CURRENT)).isEqualTo("call_p202603");
+        assertThat(CallPartitionMaintenance.parseMonth("call_p202603")).isEqualTo(CURRENT);
+        assertThat(CallPartitionMaintenance.parseMonth("call_archive")).isNull();
+        assertThat(CallPartitionMaintenance.parseMonth("call_p2026")).isNull();
+    }
+}
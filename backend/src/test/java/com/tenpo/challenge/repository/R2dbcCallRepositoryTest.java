@@ -0,0 +1,144 @@
+package com.tenpo.challenge.repository;
+
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallProjection;
+import com.tenpo.challenge.dto.CallSortKey;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class R2dbcCallRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    private static R2dbcInMemoryCallDatabase database;
+    private static R2dbcCallRepository repository;
+
+    @BeforeAll
+    static void setUp() {
+        database = new R2dbcInMemoryCallDatabase("r2dbc_call_repository", 4);
+        repository = new R2dbcCallRepository(database.databaseClient());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @BeforeEach
+    void clean() {
+        database.truncate();
+    }
+
+    private static List<CallDTO> calls(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> CallDTO.builder()
+                        .timestamp(START.plusSeconds(count - i).toString())
+                        .endpoint("/api/calculate")
+                        .num1((double) i)
+                        .num2(1.0)
+                        .percentage(10.0)
+                        .result((i + 1.0) * 1.1)
+                        .success(true)
+                        .build())
+                .toList();
+    }
+
+    // -------------------------------------------------------------------------
+    // insertAll
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("insertAll: writes the whole batch in one statement and assigns missing ids")
+    void insertAll_writesBatchAndAssignsIds() {
+        List<CallDTO> calls = calls(250);
+
+        assertThat(repository.insertAll(calls).block()).isEqualTo(250L);
+
+        assertThat(repository.count().block()).isEqualTo(250L);
+        assertThat(calls).allSatisfy(call -> assertThat(call.getId()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("insertAll: round-trips nulls for failed calls")
+    void insertAll_failedCall_roundTripsNulls() {
+        CallDTO failed = CallDTO.builder()
+                .timestamp(START.toString())
+                .endpoint("/api/calculate")
+                .num1(1.0)
+                .num2(2.0)
+                .errorMessage("sin porcentaje")
+                .success(false)
+                .build();
+
+        repository.insertAll(List.of(failed)).block();
+
+        CallProjection row = repository.streamAll(10).blockFirst();
+        assertThat(row.id()).isEqualTo(failed.getId());
+        assertThat(row.timestamp()).isEqualTo(START);
+        assertThat(row.percentage()).isNull();
+        assertThat(row.result()).isNull();
+        assertThat(row.errorMessage()).isEqualTo("sin porcentaje");
+        assertThat(row.success()).isFalse();
+    }
+
+    @Test
+    @DisplayName("insertAll: an empty batch never opens a connection")
+    void insertAll_empty_returnsZero() {
+        assertThat(repository.insertAll(List.of()).block()).isZero();
+    }
+
+    // -------------------------------------------------------------------------
+    // findPage / streamAll
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("findPage: orders by timestamp and applies limit and offset")
+    void findPage_timestampOrder_limitOffset() {
+        repository.insertAll(calls(30)).block();
+
+        List<CallProjection> page = repository.findPage(CallSortKey.TIMESTAMP, 10, 10).collectList().block();
+
+        assertThat(page).hasSize(10);
+        assertThat(page).extracting(CallProjection::timestamp).isSorted();
+        assertThat(page.get(0).timestamp()).isEqualTo(START.plusSeconds(11));
+    }
+
+    @Test
+    @DisplayName("streamAll: emits only what the subscriber requests")
+    void streamAll_honoursBackpressure() {
+        repository.insertAll(calls(100)).block();
+        List<Long> requests = new CopyOnWriteArrayList<>();
+
+        List<CallProjection> first = repository.streamAll(10)
+                .doOnRequest(requests::add)
+                .limitRate(5)
+                .take(12)
+                .collectList()
+                .block();
+
+        assertThat(first).hasSize(12);
+        assertThat(requests).allSatisfy(requested -> assertThat(requested).isLessThanOrEqualTo(5L));
+    }
+
+    @Test
+    @DisplayName("streamAll: reads every row in (timestamp, id) order")
+    void streamAll_readsEverythingInOrder() {
+        repository.insertAll(calls(1_500)).block();
+
+        List<LocalDateTime> timestamps = new ArrayList<>();
+        repository.streamAll(100).map(CallProjection::timestamp).toStream().forEach(timestamps::add);
+
+        assertThat(timestamps).hasSize(1_500).isSorted();
+    }
+}
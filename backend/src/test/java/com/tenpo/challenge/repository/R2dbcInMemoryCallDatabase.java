@@ -0,0 +1,46 @@
+package com.tenpo.challenge.repository;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Sustituto en proceso de Postgres para tests R2DBC: H2 en memoria en modo PostgreSQL, detrás del mismo
+ * {@link ConnectionPool} que usa {@code R2dbcConfig}, con la tabla {@code call} tal como queda tras la migración
+ * {@code V3__typed_call_columns} (sin particiones).
+ */
+public class R2dbcInMemoryCallDatabase implements AutoCloseable {
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+
+    public R2dbcInMemoryCallDatabase(String name, int maxConnections) {
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get("r2dbc:h2:mem:///" + name
+                        + "?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"))
+                .maxSize(maxConnections)
+                .build());
+        databaseClient = DatabaseClient.create(pool);
+        databaseClient.sql("create table if not exists \"call\" (id uuid not null, \"timestamp\" timestamp not null, "
+                        + "endpoint varchar(255), num1 double precision, num2 double precision, "
+                        + "percentage double precision, result double precision, error_message varchar(255), "
+                        + "success boolean, primary key (id, \"timestamp\"))")
+                .then()
+                .block();
+        truncate();
+    }
+
+    public DatabaseClient databaseClient() {
+        return databaseClient;
+    }
+
+    public void truncate() {
+        databaseClient.sql("delete from \"call\"").then().block();
+    }
+
+    @Override
+    public void close() {
+        databaseClient.sql("drop table \"call\"").then().block();
+        pool.dispose();
+    }
+}
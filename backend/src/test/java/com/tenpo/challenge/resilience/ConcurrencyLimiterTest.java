@@ -0,0 +1,130 @@
+package com.tenpo.challenge.resilience;
+
+import com.tenpo.challenge.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new ConcurrencyLimiter("jdbc", 2, Duration.ofMillis(50), meterRegistry);
+    }
+
+    private double rejections() {
+        return meterRegistry.counter("concurrency.limiter.rejections", "name", "jdbc").count();
+    }
+
+    // -------------------------------------------------------------------------
+    // ConcurrencyLimiter
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("acquire: rejects once every permit is in use and the wait budget runs out")
+    void acquire_exhausted_rejectsAfterMaxWait() {
+        limiter.acquire();
+        limiter.acquire();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(limiter::acquire).isInstanceOf(ConcurrencyLimitExceededException.class);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(40);
+        assertThat(rejections()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("concurrency.limiter.in_use").tag("name", "jdbc").gauge().value())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("call: never lets more than max-concurrent virtual threads in at once")
+    void call_manyVirtualThreads_boundsConcurrency() throws Exception {
+        ConcurrencyLimiter wide = new ConcurrencyLimiter("redis", 4, Duration.ofSeconds(10), meterRegistry);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1_000; i++) {
+                executor.submit(() -> wide.call(() -> {
+                    peak.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return inside.decrementAndGet();
+                }));
+            }
+        }
+
+        assertThat(peak.get()).isBetween(1, 4);
+        assertThat(wide.inUse()).isZero();
+    }
+
+    @Test
+    @DisplayName("call: gives the permit back when the guarded call throws")
+    void call_throws_releasesPermit() {
+        assertThatThrownBy(() -> limiter.call(() -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(limiter.inUse()).isZero();
+    }
+
+    // -------------------------------------------------------------------------
+    // LimitedDataSource
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("LimitedDataSource: holds a permit per open connection and releases it once on close")
+    void limitedDataSource_releasesOnClose() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        LimitedDataSource dataSource = new LimitedDataSource(target, limiter);
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertThat(limiter.inUse()).isEqualTo(2);
+
+        first.close();
+        first.close();
+        assertThat(limiter.inUse()).isEqualTo(1);
+        second.close();
+        assertThat(limiter.inUse()).isZero();
+        assertThat(first).isEqualTo(first).isNotEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("LimitedDataSource: fails like an exhausted pool and keeps no permit when the target fails")
+    void limitedDataSource_exhaustedOrFailing() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(mock(Connection.class))
+                .thenThrow(new SQLException("connection refused"));
+        LimitedDataSource dataSource = new LimitedDataSource(target, limiter);
+
+        Connection held = dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).hasMessage("connection refused");
+        assertThat(limiter.inUse()).isEqualTo(1);
+
+        limiter.acquire();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        verify(target, times(2)).getConnection();
+        held.close();
+    }
+}
@@ -0,0 +1,209 @@
+package com.tenpo.challenge.resilience;
+
+import com.tenpo.challenge.exception.ExternalServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ExternalCallGuardTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExternalCallGuard guard;
+    private StubProvider provider;
+
+    /**
+     * Proveedor local que simula latencia y fallos del servicio externo.
+     */
+    private static class StubProvider implements Supplier<Double> {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile long latencyMs;
+        volatile boolean failing;
+        volatile CountDownLatch gate;
+        volatile boolean ignoresInterrupts;
+
+        @Override
+        public Double get() {
+            calls.incrementAndGet();
+            if (ignoresInterrupts) {
+                awaitIgnoringInterrupts();
+                return 10.5;
+            }
+            try {
+                if (gate != null) {
+                    gate.await();
+                }
+                if (latencyMs > 0) {
+                    Thread.sleep(latencyMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted", e);
+            }
+            if (failing) {
+                throw new IllegalStateException("HTTP 500");
+            }
+            return 10.5;
+        }
+
+        /** Como un cliente HTTP bloqueado en un socket: la interrupción no lo despierta. */
+        private void awaitIgnoringInterrupts() {
+            while (gate.getCount() > 0) {
+                try {
+                    gate.await();
+                } catch (InterruptedException ignored) {
+                    // se sigue esperando
+                }
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new ExternalCallGuard(meterRegistry);
+        ReflectionTestUtils.setField(guard, "timeoutMs", 100L);
+        ReflectionTestUtils.setField(guard, "maxConcurrentCalls", 1);
+        ReflectionTestUtils.setField(guard, "failureThreshold", 3);
+        ReflectionTestUtils.setField(guard, "openMs", 200L);
+        guard.init();
+        provider = new StubProvider();
+    }
+
+    @AfterEach
+    void tearDown() {
+        guard.shutdown();
+    }
+
+    private double transitions(String from, String to) {
+        return meterRegistry.counter("circuit_breaker.transitions",
+                "name", "percentage-provider", "from", from, "to", to).count();
+    }
+
+    @Test
+    @DisplayName("execute: returns the provider value when it answers within the deadline")
+    void execute_fastProvider_returnsValue() {
+        assertThat(guard.execute(provider)).isEqualTo(10.5);
+        assertThat(guard.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("execute: fails fast once the per-call deadline is exceeded")
+    void execute_slowProvider_failsAtDeadline() {
+        provider.latencyMs = 2_000;
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> guard.execute(provider))
+                .isInstanceOf(ExternalServiceUnavailableException.class);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(meterRegistry.counter("percentage.external.rejections", "reason", "timeout").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("execute: opens the breaker after consecutive failures and stops calling the provider")
+    void execute_consecutiveFailures_opensBreaker() {
+        provider.failing = true;
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> guard.execute(provider))
+                    .isInstanceOf(ExternalServiceUnavailableException.class);
+        }
+
+        assertThat(guard.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> guard.execute(provider))
+                .isInstanceOf(ExternalServiceUnavailableException.class)
+                .hasMessageContaining("Circuit breaker");
+        assertThat(provider.calls).hasValue(3);
+        assertThat(transitions("CLOSED", "OPEN")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("circuit_breaker.state").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("execute: lets a trial call through after the open period and closes on success")
+    void execute_afterOpenPeriod_halfOpenTrialCloses() throws InterruptedException {
+        provider.failing = true;
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> guard.execute(provider));
+        }
+        Thread.sleep(250);
+        provider.failing = false;
+
+        assertThat(guard.execute(provider)).isEqualTo(10.5);
+
+        assertThat(guard.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(transitions("OPEN", "HALF_OPEN")).isEqualTo(1.0);
+        assertThat(transitions("HALF_OPEN", "CLOSED")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("execute: re-opens the breaker when the half-open trial fails")
+    void execute_halfOpenTrialFails_reopens() throws InterruptedException {
+        provider.failing = true;
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> guard.execute(provider));
+        }
+        Thread.sleep(250);
+
+        assertThatThrownBy(() -> guard.execute(provider));
+
+        assertThat(guard.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(transitions("HALF_OPEN", "OPEN")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("execute: rejects calls beyond the concurrency cap without waiting")
+    void execute_bulkheadFull_rejects() throws Exception {
+        ReflectionTestUtils.setField(guard, "timeoutMs", 5_000L);
+        provider.gate = new CountDownLatch(1);
+        CompletableFuture<Double> inFlight = CompletableFuture.supplyAsync(() -> guard.execute(provider));
+        while (provider.calls.get() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> guard.execute(provider))
+                .isInstanceOf(ExternalServiceUnavailableException.class)
+                .hasMessageContaining("concurrentes");
+        assertThat(meterRegistry.counter("percentage.external.rejections", "reason", "bulkhead").count())
+                .isEqualTo(1.0);
+
+        provider.gate.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isEqualTo(10.5);
+    }
+
+    @Test
+    @DisplayName("execute: a timed-out call that ignores interruption keeps its permit until it really finishes")
+    void execute_nonInterruptibleTimeout_holdsPermitUntilTaskEnds() throws Exception {
+        provider.gate = new CountDownLatch(1);
+        provider.ignoresInterrupts = true;
+        assertThatThrownBy(() -> guard.execute(provider))
+                .isInstanceOf(ExternalServiceUnavailableException.class)
+                .hasMessageContaining("deadline");
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> guard.execute(provider))
+                .isInstanceOf(ExternalServiceUnavailableException.class)
+                .hasMessageContaining("concurrentes");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(50);
+        assertThat(provider.calls).hasValue(1);
+
+        provider.gate.countDown();
+        Semaphore bulkhead = (Semaphore) ReflectionTestUtils.getField(guard, "bulkhead");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.availablePermits() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(guard.execute(provider)).isEqualTo(10.5);
+    }
+}
@@ -1,6 +1,8 @@
 package com.tenpo.challenge.service;
 
 
+import com.tenpo.challenge.dto.CalculateBatchResponseDTO;
+import com.tenpo.challenge.dto.CalculatePairDTO;
 import com.tenpo.challenge.dto.CalculateResponseDTO;
 import com.tenpo.challenge.dto.CallDTO;
 import com.tenpo.challenge.exception.PercentageUnavailableException;
@@ -13,6 +15,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -70,13 +74,15 @@ public class CalculatorServiceImplTests {
         CallDTO savedCall = callCaptor.getValue();
         assertThat(savedCall.getEndpoint()).isEqualTo("/api/calculate");
         assertThat(savedCall.getSuccess()).isTrue();
-        assertThat(savedCall.getParams()).containsEntry("num1", "100.0")
-                .containsEntry("num2", "200.0");
-        assertThat(savedCall.getResponse()).isNotNull();
+        assertThat(savedCall.getNum1()).isEqualTo(100.0);
+        assertThat(savedCall.getNum2()).isEqualTo(200.0);
+        assertThat(savedCall.getPercentage()).isEqualTo(10.0);
+        assertThat(savedCall.getResult()).isEqualTo(330.0);
+        assertThat(savedCall.getErrorMessage()).isNull();
     }
 
     @Test
-    @DisplayName("Should set a random UUID on the success call log")
+    @DisplayName("Should set a time-ordered UUIDv7 on the success call log")
     void calculatePercentage_setsIdOnSuccessCall() {
         when(percentageService.getPercentage()).thenReturn(5.0);
 
@@ -86,6 +92,7 @@ public class CalculatorServiceImplTests {
         verify(callService).saveCall(captor.capture());
 
         assertThat(captor.getValue().getId()).isNotNull();
+        assertThat(captor.getValue().getId().version()).isEqualTo(7);
     }
 
     @Test
@@ -156,9 +163,10 @@ public class CalculatorServiceImplTests {
         CallDTO savedCall = captor.getValue();
         assertThat(savedCall.getEndpoint()).isEqualTo("/api/calculate");
         assertThat(savedCall.getSuccess()).isFalse();
-        assertThat(savedCall.getResponse()).isEqualTo(errorMessage);
-        assertThat(savedCall.getParams()).containsEntry("num1", "10.0")
-                .containsEntry("num2", "20.0");
+        assertThat(savedCall.getErrorMessage()).isEqualTo(errorMessage);
+        assertThat(savedCall.getResult()).isNull();
+        assertThat(savedCall.getNum1()).isEqualTo(10.0);
+        assertThat(savedCall.getNum2()).isEqualTo(20.0);
     }
 
     @Test
@@ -174,8 +182,8 @@ public class CalculatorServiceImplTests {
     }
 
     @Test
-    @DisplayName("Should not set UUID on failure call log")
-    void calculatePercentage_noIdOnFailureCall() {
+    @DisplayName("Should set a UUIDv7 on the failure call log too")
+    void calculatePercentage_setsIdOnFailureCall() {
         when(percentageService.getPercentage())
                 .thenThrow(new PercentageUnavailableException("error"));
 
@@ -185,8 +193,67 @@ public class CalculatorServiceImplTests {
         ArgumentCaptor<CallDTO> captor = ArgumentCaptor.forClass(CallDTO.class);
         verify(callService).saveCall(captor.capture());
 
-        // UUID is not set on the error path (no .id(...) call in the catch block)
-        assertThat(captor.getValue().getId()).isNull();
+        // The id is assigned before the call reaches the history sink, on every path
+        assertThat(captor.getValue().getId()).isNotNull();
+        assertThat(captor.getValue().getId().version()).isEqualTo(7);
+    }
+
+    // -------------------------------------------------------------------------
+    // Batch
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("calculatePercentages: resolves and backs up the percentage once for the whole batch")
+    void calculatePercentages_resolvesPercentageOnce() {
+        when(percentageService.getPercentage()).thenReturn(10.0);
+
+        CalculateBatchResponseDTO response = calculatorService.calculatePercentages(List.of(
+                new CalculatePairDTO(100.0, 50.0), new CalculatePairDTO(10.0, 20.0), new CalculatePairDTO(0.0, 0.0)));
+
+        assertThat(response.getResults()).containsExactly(165.0, 33.0, 0.0);
+        verify(percentageService, times(1)).getPercentage();
+        verify(percentageService, times(1)).saveBackupPercentage(10.0);
     }
 
+    @Test
+    @DisplayName("calculatePercentages: hands the whole history to a single bulk save")
+    @SuppressWarnings("unchecked")
+    void calculatePercentages_savesHistoryInBulk() {
+        when(percentageService.getPercentage()).thenReturn(10.0);
+
+        calculatorService.calculatePercentages(List.of(new CalculatePairDTO(100.0, 50.0),
+                new CalculatePairDTO(10.0, 20.0)));
+
+        ArgumentCaptor<List<CallDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(callService, times(1)).saveCalls(captor.capture());
+        verify(callService, never()).saveCall(any());
+        assertThat(captor.getValue()).extracting(CallDTO::getResult).containsExactly(165.0, 33.0);
+        assertThat(captor.getValue()).extracting(CallDTO::getNum1).containsExactly(100.0, 10.0);
+        assertThat(captor.getValue()).allSatisfy(call -> {
+            assertThat(call.getEndpoint()).isEqualTo("/api/calculate/batch");
+            assertThat(call.getSuccess()).isTrue();
+            assertThat(call.getPercentage()).isEqualTo(10.0);
+            assertThat(call.getId().version()).isEqualTo(7);
+        });
+    }
+
+    @Test
+    @DisplayName("calculatePercentages: records a failed call per pair and rethrows without a percentage")
+    @SuppressWarnings("unchecked")
+    void calculatePercentages_percentageUnavailable_recordsFailuresAndRethrows() {
+        when(percentageService.getPercentage()).thenThrow(new PercentageUnavailableException("Sin porcentaje"));
+
+        assertThatThrownBy(() -> calculatorService.calculatePercentages(List.of(new CalculatePairDTO(1.0, 2.0),
+                new CalculatePairDTO(3.0, 4.0))))
+                .isInstanceOf(PercentageUnavailableException.class);
+
+        ArgumentCaptor<List<CallDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(callService, times(1)).saveCalls(captor.capture());
+        verify(percentageService, never()).saveBackupPercentage(anyDouble());
+        assertThat(captor.getValue()).hasSize(2).allSatisfy(call -> {
+            assertThat(call.getSuccess()).isFalse();
+            assertThat(call.getResult()).isNull();
+            assertThat(call.getErrorMessage()).isEqualTo("Sin porcentaje");
+        });
+    }
 }
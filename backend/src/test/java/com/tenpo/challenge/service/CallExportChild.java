@@ -0,0 +1,46 @@
+package com.tenpo.challenge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.challenge.dto.ExportFormat;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepository;
+import com.tenpo.challenge.service.impl.CallExportServiceImpl;
+import jakarta.persistence.EntityManager;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Proceso hijo de {@link CallExportServiceImplTest}: exporta N filas generadas al vuelo con un heap pequeño.
+ * Si la exportación retuviera las filas en memoria, terminaría con {@link OutOfMemoryError}.
+ */
+public class CallExportChild {
+
+    static final String RESULT_PREFIX = "EXPORTED ";
+
+    public static void main(String[] args) throws Exception {
+        long rows = Long.parseLong(args[0]);
+        CallRepository repository = stub(CallRepository.class, () -> Stream.iterate(0L, i -> i + 1)
+                .limit(rows)
+                .map(i -> CallExportServiceImplTest.buildCall(i, String.valueOf(i))));
+        EntityManager entityManager = stub(EntityManager.class, () -> null);
+
+        CallExportServiceImpl exportService = new CallExportServiceImpl(repository, entityManager, new ObjectMapper());
+        long ndjson = exportService.exportCalls(ExportFormat.NDJSON, OutputStream.nullOutputStream());
+        long csv = exportService.exportCalls(ExportFormat.CSV, OutputStream.nullOutputStream());
+
+        System.out.println(RESULT_PREFIX + Math.min(ndjson, csv));
+    }
+
+    /**
+     * Implementación mínima de la interfaz: {@code streamAll} devuelve lo que produce {@code answer} y el resto
+     * de métodos no hace nada.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Supplier<Object> answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, methodArgs) -> method.getName().equals("streamAll") ? answer.get() : null);
+    }
+}
@@ -0,0 +1,136 @@
+package com.tenpo.challenge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.challenge.dto.ExportFormat;
+import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.repository.CallRepository;
+import com.tenpo.challenge.service.impl.CallExportServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CallExportServiceImplTest {
+
+    @Mock
+    private CallRepository callRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private CallExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new CallExportServiceImpl(callRepository, entityManager, new ObjectMapper());
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    static Call buildCall(long index, String errorMessage) {
+        Call call = new Call();
+        call.setId(new UUID(0, index));
+        call.setTimestamp(LocalDateTime.of(2026, 1, 1, 10, 0).plusSeconds(index));
+        call.setEndpoint("/api/calculate");
+        call.setNum1(100.0);
+        call.setNum2(50.0);
+        call.setErrorMessage(errorMessage);
+        call.setSuccess(false);
+        return call;
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportCalls(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // -------------------------------------------------------------------------
+    // Formats
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("exportCalls: writes one JSON object per line in NDJSON")
+    void exportCalls_ndjson_writesOneObjectPerLine() throws Exception {
+        when(callRepository.streamAll()).thenReturn(Stream.of(buildCall(1, "165.0"), buildCall(2, "30.0")));
+
+        String[] lines = export(ExportFormat.NDJSON).split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(new ObjectMapper().readTree(lines[0]).get("errorMessage").asText()).isEqualTo("165.0");
+        assertThat(new ObjectMapper().readTree(lines[1]).get("num1").asDouble()).isEqualTo(100.0);
+    }
+
+    @Test
+    @DisplayName("exportCalls: writes a header and RFC 4180 escaped rows in CSV")
+    void exportCalls_csv_escapesFields() throws Exception {
+        when(callRepository.streamAll()).thenReturn(Stream.of(buildCall(1, "Error, \"timeout\"")));
+
+        String[] lines = export(ExportFormat.CSV).split("\n");
+
+        assertThat(lines[0]).isEqualTo("id,timestamp,endpoint,num1,num2,percentage,result,errorMessage,success");
+        assertThat(lines[1]).isEqualTo("00000000-0000-0000-0000-000000000001,2026-01-01T10:00:01,/api/calculate,"
+                + "100.0,50.0,,,\"Error, \"\"timeout\"\"\",false");
+    }
+
+    // -------------------------------------------------------------------------
+    // Resource handling
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("exportCalls: clears the persistence context every fetch-size rows and closes the cursor")
+    void exportCalls_clearsPersistenceContextAndClosesStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Call> calls = Stream.iterate(0L, i -> i + 1).limit(2_500)
+                .map(i -> buildCall(i, "165.0"))
+                .onClose(() -> closed.set(true));
+        when(callRepository.streamAll()).thenReturn(calls);
+
+        long exported = exportService.exportCalls(ExportFormat.NDJSON, OutputStream.nullOutputStream());
+
+        assertThat(exported).isEqualTo(2_500);
+        verify(entityManager, times(2)).clear();
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("exportCalls: exports a million rows in a JVM limited to 32 MB of heap")
+    void exportCalls_millionRows_fitsInSmallHeap() throws Exception {
+        String javaBin = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process child = new ProcessBuilder(javaBin, "-Xmx32m", "-cp", System.getProperty("java.class.path"),
+                CallExportChild.class.getName(), "1000000")
+                .redirectErrorStream(true)
+                .start();
+
+        List<String> output;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(child.getInputStream(), StandardCharsets.UTF_8))) {
+            output = reader.lines().toList();
+        }
+        assertThat(child.waitFor(5, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(child.exitValue()).as(String.join("\n", output)).isZero();
+        assertThat(output).contains(CallExportChild.RESULT_PREFIX + 1_000_000);
+    }
+}
@@ -1,8 +1,16 @@
 package com.tenpo.challenge.service;
 
+import com.tenpo.challenge.dto.CallCursor;
 import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallFilter;
+import com.tenpo.challenge.dto.CallProjection;
+import com.tenpo.challenge.dto.CallSliceDTO;
+import com.tenpo.challenge.dto.KeysetPageDTO;
 import com.tenpo.challenge.dto.mapper.CallMapper;
-import com.tenpo.challenge.model.Call;
+import com.tenpo.challenge.exception.InvalidCallFilterException;
+import com.tenpo.challenge.exception.InvalidCursorException;
+import com.tenpo.challenge.history.CallHistorySink;
+import com.tenpo.challenge.repository.CallCountEstimator;
 import com.tenpo.challenge.repository.CallRepository;
 import com.tenpo.challenge.service.impl.CallServiceImpl;
 import org.junit.jupiter.api.DisplayName;
@@ -12,7 +20,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -26,6 +42,12 @@ public class CallServiceImplTest {
     @Mock
     private CallRepository callRepository;
 
+    @Mock
+    private CallHistorySink callHistorySink;
+
+    @Mock
+    private CallCountEstimator callCountEstimator;
+
     @InjectMocks
     private CallServiceImpl callService;
 
@@ -33,20 +55,19 @@ public class CallServiceImplTest {
     // Helpers
     // -------------------------------------------------------------------------
 
-    private Call buildCall(UUID id, String response) {
-        Call call = new Call();
-        call.setId(id);
-        call.setEndpoint("/api/calculate");
-        call.setResponse(response);
-        call.setSuccess(true);
-        return call;
+    private CallProjection buildCall(UUID id, double result) {
+        return buildCall(id, result, LocalDateTime.of(2026, 1, 1, 10, 0));
     }
 
-    private CallDTO buildCallDTO(UUID id, String response) {
+    private CallProjection buildCall(UUID id, double result, LocalDateTime timestamp) {
+        return new CallProjection(id, timestamp, "/api/calculate", 100.0, 50.0, 10.0, result, null, true);
+    }
+
+    private CallDTO buildCallDTO(UUID id, double result) {
         return CallDTO.builder()
                 .id(id)
                 .endpoint("/api/calculate")
-                .response(response)
+                .result(result)
                 .success(true)
                 .build();
     }
@@ -56,21 +77,21 @@ public class CallServiceImplTest {
     // -------------------------------------------------------------------------
 
     @Test
-    @DisplayName("getAllCalls should return mapped DTOs for every entity in the repository")
+    @DisplayName("getAllCalls should return mapped DTOs for every projection in the repository")
     void getAllCalls_returnsMappedDTOs() {
         UUID id1 = UUID.randomUUID();
         UUID id2 = UUID.randomUUID();
 
-        Call call1 = buildCall(id1, "165.0");
-        Call call2 = buildCall(id2, "330.0");
-        CallDTO dto1 = buildCallDTO(id1, "165.0");
-        CallDTO dto2 = buildCallDTO(id2, "330.0");
+        CallProjection call1 = buildCall(id1, 165.0);
+        CallProjection call2 = buildCall(id2, 330.0);
+        CallDTO dto1 = buildCallDTO(id1, 165.0);
+        CallDTO dto2 = buildCallDTO(id2, 330.0);
 
-        when(callRepository.findAll()).thenReturn(List.of(call1, call2));
+        when(callRepository.findAllProjected()).thenReturn(List.of(call1, call2));
 
         try (MockedStatic<CallMapper> mapper = mockStatic(CallMapper.class)) {
-            mapper.when(() -> CallMapper.entityToDTO(call1)).thenReturn(dto1);
-            mapper.when(() -> CallMapper.entityToDTO(call2)).thenReturn(dto2);
+            mapper.when(() -> CallMapper.projectionToDTO(call1)).thenReturn(dto1);
+            mapper.when(() -> CallMapper.projectionToDTO(call2)).thenReturn(dto2);
 
             List<CallDTO> result = callService.getAllCalls();
 
@@ -81,7 +102,7 @@ public class CallServiceImplTest {
     @Test
     @DisplayName("getAllCalls should return an empty list when the repository is empty")
     void getAllCalls_returnsEmptyList_whenRepositoryIsEmpty() {
-        when(callRepository.findAll()).thenReturn(List.of());
+        when(callRepository.findAllProjected()).thenReturn(List.of());
 
         List<CallDTO> result = callService.getAllCalls();
 
@@ -89,26 +110,27 @@ public class CallServiceImplTest {
     }
 
     @Test
-    @DisplayName("getAllCalls should call findAll exactly once")
-    void getAllCalls_callsFindAllOnce() {
-        when(callRepository.findAll()).thenReturn(List.of());
+    @DisplayName("getAllCalls should read projections once and never load entities")
+    void getAllCalls_callsFindAllProjectedOnce() {
+        when(callRepository.findAllProjected()).thenReturn(List.of());
 
         callService.getAllCalls();
 
-        verify(callRepository, times(1)).findAll();
+        verify(callRepository, times(1)).findAllProjected();
+        verify(callRepository, never()).findAll();
     }
 
     @Test
-    @DisplayName("getAllCalls should return a single DTO when only one entity exists")
+    @DisplayName("getAllCalls should return a single DTO when only one call exists")
     void getAllCalls_returnsSingleDTO() {
         UUID id = UUID.randomUUID();
-        Call call = buildCall(id, "100.0");
-        CallDTO dto = buildCallDTO(id, "100.0");
+        CallProjection call = buildCall(id, 100.0);
+        CallDTO dto = buildCallDTO(id, 100.0);
 
-        when(callRepository.findAll()).thenReturn(List.of(call));
+        when(callRepository.findAllProjected()).thenReturn(List.of(call));
 
         try (MockedStatic<CallMapper> mapper = mockStatic(CallMapper.class)) {
-            mapper.when(() -> CallMapper.entityToDTO(call)).thenReturn(dto);
+            mapper.when(() -> CallMapper.projectionToDTO(call)).thenReturn(dto);
 
             List<CallDTO> result = callService.getAllCalls();
 
@@ -116,83 +138,251 @@ public class CallServiceImplTest {
         }
     }
 
+    @Test
+    @DisplayName("getAllCalls should copy every projected column into the DTO")
+    void getAllCalls_mapsProjectionColumns() {
+        UUID id = UUID.randomUUID();
+        when(callRepository.findAllProjected()).thenReturn(List.of(buildCall(id, 165.0)));
+
+        CallDTO dto = callService.getAllCalls().get(0);
+
+        assertThat(dto.getId()).isEqualTo(id);
+        assertThat(dto.getTimestamp()).isEqualTo("2026-01-01T10:00");
+        assertThat(dto.getEndpoint()).isEqualTo("/api/calculate");
+        assertThat(dto.getNum1()).isEqualTo(100.0);
+        assertThat(dto.getNum2()).isEqualTo(50.0);
+        assertThat(dto.getPercentage()).isEqualTo(10.0);
+        assertThat(dto.getResult()).isEqualTo(165.0);
+        assertThat(dto.getErrorMessage()).isNull();
+        assertThat(dto.getSuccess()).isTrue();
+    }
+
+    // -------------------------------------------------------------------------
+    // getPaginatedCalls
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("getPaginatedCalls should page projections with a zero-based page request")
+    void getPaginatedCalls_readsProjectedPage() {
+        Pageable pageable = PageRequest.of(1, 2, Sort.by("timestamp", "id"));
+        when(callRepository.findAllProjected(pageable))
+                .thenReturn(new PageImpl<>(List.of(buildCall(UUID.randomUUID(), 3.0)), pageable, 3));
+
+        Page<CallDTO> page = callService.getPaginatedCalls(2, 2, "timestamp");
+
+        assertThat(page.getContent()).extracting(CallDTO::getResult).containsExactly(3.0);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        verify(callRepository, never()).findAll(any(Pageable.class));
+    }
+
     // -------------------------------------------------------------------------
     // saveCall
     // -------------------------------------------------------------------------
 
     @Test
-    @DisplayName("saveCall should persist the entity and return mapped DTO inside CompletableFuture")
-    void saveCall_persistsAndReturnsMappedDTO() throws ExecutionException, InterruptedException {
+    @DisplayName("saveCall should hand the DTO to the history sink and return its future")
+    void saveCall_delegatesToHistorySink() throws ExecutionException, InterruptedException {
         UUID id = UUID.randomUUID();
-        CallDTO inputDTO = buildCallDTO(id, "165.0");
-        Call entity = buildCall(id, "165.0");
-        Call savedEntity = buildCall(id, "165.0");
-        CallDTO expectedDTO = buildCallDTO(id, "165.0");
+        CallDTO inputDTO = buildCallDTO(id, 165.0);
+        CallDTO expectedDTO = buildCallDTO(id, 165.0);
+        when(callHistorySink.submit(inputDTO)).thenReturn(CompletableFuture.completedFuture(expectedDTO));
 
-        try (MockedStatic<CallMapper> mapper = mockStatic(CallMapper.class)) {
-            mapper.when(() -> CallMapper.dtoToEntity(inputDTO)).thenReturn(entity);
-            when(callRepository.save(entity)).thenReturn(savedEntity);
-            mapper.when(() -> CallMapper.entityToDTO(savedEntity)).thenReturn(expectedDTO);
+        CompletableFuture<CallDTO> future = callService.saveCall(inputDTO);
 
-            CompletableFuture<CallDTO> future = callService.saveCall(inputDTO);
-            CallDTO result = future.get();
+        assertThat(future.get()).isEqualTo(expectedDTO);
+    }
 
-            assertThat(result).isEqualTo(expectedDTO);
-        }
+    @Test
+    @DisplayName("saveCall should not write to the repository on the caller thread")
+    void saveCall_doesNotTouchRepository() {
+        CallDTO inputDTO = buildCallDTO(UUID.randomUUID(), 200.0);
+        when(callHistorySink.submit(inputDTO)).thenReturn(new CompletableFuture<>());
+
+        callService.saveCall(inputDTO);
+
+        verifyNoInteractions(callRepository);
     }
 
     @Test
-    @DisplayName("saveCall should call repository.save exactly once with the mapped entity")
-    void saveCall_callsRepositorySaveOnce() throws ExecutionException, InterruptedException {
-        UUID id = UUID.randomUUID();
-        CallDTO inputDTO = buildCallDTO(id, "200.0");
-        Call entity = buildCall(id, "200.0");
-        Call savedEntity = buildCall(id, "200.0");
+    @DisplayName("saveCall should surface sink failures through the returned future, not as an exception")
+    void saveCall_propagatesSinkFailureThroughFuture() {
+        CallDTO inputDTO = buildCallDTO(UUID.randomUUID(), 0.0);
+        when(callHistorySink.submit(inputDTO))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("DB error")));
 
-        try (MockedStatic<CallMapper> mapper = mockStatic(CallMapper.class)) {
-            mapper.when(() -> CallMapper.dtoToEntity(inputDTO)).thenReturn(entity);
-            when(callRepository.save(entity)).thenReturn(savedEntity);
-            mapper.when(() -> CallMapper.entityToDTO(savedEntity)).thenReturn(inputDTO);
+        CompletableFuture<CallDTO> future = callService.saveCall(inputDTO);
 
-            callService.saveCall(inputDTO).get();
+        assertThat(future).isCompletedExceptionally();
+        assertThatThrownBy(future::get).isInstanceOf(ExecutionException.class);
+    }
 
-            verify(callRepository, times(1)).save(entity);
-        }
+    @Test
+    @DisplayName("saveCalls should hand the whole list to the history sink in one submitAll")
+    void saveCalls_delegatesToHistorySinkInBulk() {
+        List<CallDTO> inputDTOs = List.of(buildCallDTO(UUID.randomUUID(), 165.0),
+                buildCallDTO(UUID.randomUUID(), 33.0));
+        CompletableFuture<List<CallDTO>> pending = new CompletableFuture<>();
+        when(callHistorySink.submitAll(inputDTOs)).thenReturn(pending);
+
+        assertThat(callService.saveCalls(inputDTOs)).isSameAs(pending);
+        verify(callHistorySink, never()).submit(any());
+        verifyNoInteractions(callRepository);
+    }
+
+    // -------------------------------------------------------------------------
+    // getCallSlice
+    // -------------------------------------------------------------------------
+
+    private CallProjection buildTimedCall(double result) {
+        return buildCall(UUID.randomUUID(), result);
     }
 
     @Test
-    @DisplayName("saveCall should return a completed (non-null) CompletableFuture")
-    void saveCall_returnsCompletedFuture() {
-        UUID id = UUID.randomUUID();
-        CallDTO inputDTO = buildCallDTO(id, "50.0");
-        Call entity = buildCall(id, "50.0");
-        Call savedEntity = buildCall(id, "50.0");
+    @DisplayName("getCallSlice should read a Slice and never run a count query")
+    void getCallSlice_withoutTotal_skipsCount() {
+        Pageable pageable = PageRequest.of(1, 2, Sort.by("id"));
+        when(callRepository.findFiltered(CallFilter.none(), pageable))
+                .thenReturn(new SliceImpl<>(List.of(buildTimedCall(1.0), buildTimedCall(2.0)), pageable, true));
+
+        CallSliceDTO slice = callService.getCallSlice(2, 2, "id", false, CallFilter.none());
+
+        assertThat(slice.getContent()).extracting(CallDTO::getResult).containsExactly(1.0, 2.0);
+        assertThat(slice.isHasNext()).isTrue();
+        assertThat(slice.getEstimatedTotal()).isNull();
+        verify(callRepository, never()).count();
+        verify(callRepository, never()).findAll(any(Pageable.class));
+        verifyNoInteractions(callCountEstimator);
+    }
 
-        try (MockedStatic<CallMapper> mapper = mockStatic(CallMapper.class)) {
-            mapper.when(() -> CallMapper.dtoToEntity(inputDTO)).thenReturn(entity);
-            when(callRepository.save(entity)).thenReturn(savedEntity);
-            mapper.when(() -> CallMapper.entityToDTO(savedEntity)).thenReturn(inputDTO);
+    @Test
+    @DisplayName("getCallSlice should add the estimated total and pages when asked")
+    void getCallSlice_withTotal_addsEstimate() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
+        when(callRepository.findFiltered(CallFilter.none(), pageable))
+                .thenReturn(new SliceImpl<>(List.of(buildTimedCall(1.0)), pageable, true));
+        when(callCountEstimator.estimate()).thenReturn(1_234L);
 
-            CompletableFuture<CallDTO> future = callService.saveCall(inputDTO);
+        CallSliceDTO slice = callService.getCallSlice(1, 10, "id", true, CallFilter.none());
 
-            assertThat(future).isNotNull().isDone();
-        }
+        assertThat(slice.getEstimatedTotal()).isEqualTo(1_234L);
+        assertThat(slice.getEstimatedTotalPages()).isEqualTo(124);
     }
 
     @Test
-    @DisplayName("saveCall should propagate exception when repository.save fails")
-    void saveCall_propagatesException_whenRepositoryFails() {
-        UUID id = UUID.randomUUID();
-        CallDTO inputDTO = buildCallDTO(id, "error");
-        Call entity = buildCall(id, "error");
+    @DisplayName("getCallSlice should never estimate fewer rows than the pages already seen")
+    void getCallSlice_staleEstimate_isRaisedToRowsSeen() {
+        Pageable pageable = PageRequest.of(4, 10, Sort.by("id"));
+        when(callRepository.findFiltered(CallFilter.none(), pageable))
+                .thenReturn(new SliceImpl<>(List.of(buildTimedCall(1.0)), pageable, false));
+        when(callCountEstimator.estimate()).thenReturn(0L);
 
-        try (MockedStatic<CallMapper> mapper = mockStatic(CallMapper.class)) {
-            mapper.when(() -> CallMapper.dtoToEntity(inputDTO)).thenReturn(entity);
-            when(callRepository.save(entity)).thenThrow(new RuntimeException("DB error"));
+        CallSliceDTO slice = callService.getCallSlice(5, 10, "id", true, CallFilter.none());
+
+        assertThat(slice.getEstimatedTotal()).isEqualTo(41L);
+        assertThat(slice.getEstimatedTotalPages()).isEqualTo(5);
+    }
 
-            org.assertj.core.api.Assertions.assertThatThrownBy(
-                    () -> callService.saveCall(inputDTO).get()
-            ).isInstanceOf(RuntimeException.class);
+    @Test
+    @DisplayName("getCallSlice should pass the filter through and skip the table-wide estimate")
+    void getCallSlice_withFilter_skipsEstimate() {
+        CallFilter filter = CallFilter.of(LocalDateTime.of(2026, 1, 1, 9, 0), LocalDateTime.of(2026, 1, 1, 10, 0),
+                null, false, List.of("num1:100.0"));
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("timestamp", "id"));
+        when(callRepository.findFiltered(filter, pageable))
+                .thenReturn(new SliceImpl<>(List.of(buildTimedCall(1.0)), pageable, false));
+
+        CallSliceDTO slice = callService.getCallSlice(1, 10, "timestamp", true, filter);
+
+        assertThat(slice.getContent()).hasSize(1);
+        assertThat(slice.getEstimatedTotal()).isNull();
+        verifyNoInteractions(callCountEstimator);
+    }
+
+    @Test
+    @DisplayName("getCallSlice should reject sort keys without an index")
+    void getCallSlice_unindexedSort_throws() {
+        assertThatThrownBy(() -> callService.getCallSlice(1, 10, "response", false, CallFilter.none()))
+                .isInstanceOf(InvalidCallFilterException.class)
+                .hasMessageContaining("response");
+        verifyNoInteractions(callRepository);
+    }
+
+    @Test
+    @DisplayName("getPaginatedCalls should reject sort keys without an index")
+    void getPaginatedCalls_unindexedSort_throws() {
+        assertThatThrownBy(() -> callService.getPaginatedCalls(1, 10, "endpoint"))
+                .isInstanceOf(InvalidCallFilterException.class);
+        verifyNoInteractions(callRepository);
+    }
+
+    // -------------------------------------------------------------------------
+    // getCallsByCursor
+    // -------------------------------------------------------------------------
+
+    private List<CallProjection> buildTimeline(int count) {
+        List<CallProjection> calls = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 10, 0);
+        for (int i = count - 1; i >= 0; i--) {
+            calls.add(buildCall(UUID.randomUUID(), i, start.plusSeconds(i)));
         }
+        return calls;
+    }
+
+    @Test
+    @DisplayName("getCallsByCursor without cursor returns the newest calls and only a next cursor")
+    void getCallsByCursor_firstPage_returnsNextCursorOnly() {
+        List<CallProjection> timeline = buildTimeline(3);
+        when(callRepository.findKeyset(CallFilter.none(), null, 3)).thenReturn(timeline);
+
+        KeysetPageDTO page = callService.getCallsByCursor(null, 2, CallFilter.none());
+
+        assertThat(page.getContent()).extracting(CallDTO::getResult).containsExactly(2.0, 1.0);
+        assertThat(page.getPrevCursor()).isNull();
+        CallCursor next = CallCursor.decode(page.getNextCursor());
+        assertThat(next.direction()).isEqualTo(CallCursor.Direction.NEXT);
+        assertThat(next.id()).isEqualTo(timeline.get(1).id());
+        assertThat(next.timestamp()).isEqualTo(timeline.get(1).timestamp());
+    }
+
+    @Test
+    @DisplayName("getCallsByCursor with a next cursor seeks past it and omits the next cursor on the last page")
+    void getCallsByCursor_nextCursor_seeksOlderCalls() {
+        List<CallProjection> timeline = buildTimeline(3);
+        CallProjection boundary = timeline.get(1);
+        String cursor = new CallCursor(CallCursor.Direction.NEXT, boundary.timestamp(), boundary.id()).encode();
+        when(callRepository.findKeyset(CallFilter.none(), CallCursor.decode(cursor), 3))
+                .thenReturn(List.of(timeline.get(2)));
+
+        KeysetPageDTO page = callService.getCallsByCursor(cursor, 2, CallFilter.none());
+
+        assertThat(page.getContent()).extracting(CallDTO::getResult).containsExactly(0.0);
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(CallCursor.decode(page.getPrevCursor()).id()).isEqualTo(timeline.get(2).id());
+        verify(callRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("getCallsByCursor with a prev cursor returns the newer calls back in descending order")
+    void getCallsByCursor_prevCursor_returnsNewerCallsDescending() {
+        List<CallProjection> timeline = buildTimeline(4);
+        CallProjection boundary = timeline.get(3);
+        String cursor = new CallCursor(CallCursor.Direction.PREV, boundary.timestamp(), boundary.id()).encode();
+        when(callRepository.findKeyset(CallFilter.none(), CallCursor.decode(cursor), 3))
+                .thenReturn(List.of(timeline.get(2), timeline.get(1), timeline.get(0)));
+
+        KeysetPageDTO page = callService.getCallsByCursor(cursor, 2, CallFilter.none());
+
+        assertThat(page.getContent()).extracting(CallDTO::getResult).containsExactly(2.0, 1.0);
+        assertThat(page.getPrevCursor()).isNotNull();
+        assertThat(CallCursor.decode(page.getNextCursor()).id()).isEqualTo(timeline.get(2).id());
+    }
+
+    @Test
+    @DisplayName("getCallsByCursor rejects a tampered cursor")
+    void getCallsByCursor_invalidCursor_throws() {
+        assertThatThrownBy(() -> callService.getCallsByCursor("not-a-cursor", 10, CallFilter.none()))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(callRepository);
     }
 }
@@ -0,0 +1,133 @@
+package com.tenpo.challenge.service;
+
+import com.tenpo.challenge.service.impl.PercentageRefreshScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PercentageRefreshSchedulerTest {
+
+    private static final String CACHE_KEY = "external:percentage";
+
+    @Mock
+    private PercentageService percentageService;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private PercentageRefreshScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new PercentageRefreshScheduler(percentageService, redisTemplate, taskScheduler);
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+        ReflectionTestUtils.setField(scheduler, "refreshRatio", 0.8);
+        ReflectionTestUtils.setField(scheduler, "jitterMs", 1_000L);
+        ReflectionTestUtils.setField(scheduler, "minDelayMs", 500L);
+        ReflectionTestUtils.setField(scheduler, "cacheTtlSeconds", 1_800L);
+    }
+
+    @Test
+    @DisplayName("start: does not schedule anything when refresh-ahead is disabled")
+    void start_disabled_schedulesNothing() {
+        ReflectionTestUtils.setField(scheduler, "enabled", false);
+
+        scheduler.start();
+
+        verifyNoInteractions(taskScheduler);
+    }
+
+    @Test
+    @DisplayName("start: schedules the refresh at the configured ratio of the TTL, minus jitter")
+    void start_schedulesAtRatioMinusJitter() {
+        when(redisTemplate.getExpire(CACHE_KEY, TimeUnit.MILLISECONDS)).thenReturn(1_800_000L);
+
+        Instant before = Instant.now();
+        scheduler.start();
+        Instant after = Instant.now();
+
+        ArgumentCaptor<Instant> at = ArgumentCaptor.forClass(Instant.class);
+        verify(taskScheduler).schedule(any(Runnable.class), at.capture());
+        assertThat(at.getValue())
+                .isAfterOrEqualTo(before.plusMillis(1_440_000L - 1_000L))
+                .isBeforeOrEqualTo(after.plusMillis(1_440_000L));
+    }
+
+    @Test
+    @DisplayName("start: refreshes after the minimum delay when the value is missing or about to expire")
+    void start_missingValue_schedulesAfterMinDelay() {
+        when(redisTemplate.getExpire(CACHE_KEY, TimeUnit.MILLISECONDS)).thenReturn(-2L);
+
+        Instant before = Instant.now();
+        scheduler.start();
+        Instant after = Instant.now();
+
+        ArgumentCaptor<Instant> at = ArgumentCaptor.forClass(Instant.class);
+        verify(taskScheduler).schedule(any(Runnable.class), at.capture());
+        assertThat(at.getValue())
+                .isAfterOrEqualTo(before.plusMillis(500L))
+                .isBeforeOrEqualTo(after.plusMillis(500L));
+    }
+
+    @Test
+    @DisplayName("scheduled task: refreshes the percentage and schedules the next run even if the refresh fails")
+    void scheduledTask_refreshesAndReschedules() {
+        when(redisTemplate.getExpire(CACHE_KEY, TimeUnit.MILLISECONDS)).thenReturn(0L);
+        when(percentageService.refreshPercentage()).thenThrow(new RuntimeException("timeout"));
+
+        scheduler.start();
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(task.capture(), any(Instant.class));
+
+        task.getValue().run();
+
+        verify(percentageService).refreshPercentage();
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("scheduled task: skips the external fetch when another node already pushed the expiry forward")
+    void scheduledTask_expiryAlreadyPushed_onlyReschedules() {
+        when(redisTemplate.getExpire(CACHE_KEY, TimeUnit.MILLISECONDS)).thenReturn(0L, 1_790_000L);
+
+        scheduler.start();
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(task.capture(), any(Instant.class));
+
+        task.getValue().run();
+
+        verify(percentageService, never()).refreshPercentage();
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("scheduled task: refreshes when the remaining TTL is still inside the refresh window plus jitter")
+    void scheduledTask_insideWindow_refreshes() {
+        when(redisTemplate.getExpire(CACHE_KEY, TimeUnit.MILLISECONDS)).thenReturn(0L, 360_000L);
+
+        scheduler.start();
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(task.capture(), any(Instant.class));
+
+        task.getValue().run();
+
+        verify(percentageService).refreshPercentage();
+    }
+}
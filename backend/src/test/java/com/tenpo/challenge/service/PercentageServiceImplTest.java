@@ -1,6 +1,10 @@
 package com.tenpo.challenge.service;
 
+import com.tenpo.challenge.cache.PercentageNearCache;
+import com.tenpo.challenge.cache.PercentageRefreshLock;
+import com.tenpo.challenge.exception.ExternalServiceUnavailableException;
 import com.tenpo.challenge.exception.PercentageUnavailableException;
+import com.tenpo.challenge.resilience.ExternalCallGuard;
 import com.tenpo.challenge.service.impl.PercentageServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,11 +13,27 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +50,21 @@ public class PercentageServiceImplTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
+    @Mock
+    private PercentageNearCache nearCache;
+
+    @Mock
+    private PercentageRefreshLock refreshLock;
+
+    @Mock
+    private ExternalCallGuard externalCallGuard;
+
+    @Mock
+    private ObjectProvider<PercentageProvider> percentageProvider;
+
+    @Mock
+    private PercentageProvider httpProvider;
+
     @InjectMocks
     private PercentageServiceImpl percentageService;
 
@@ -38,9 +73,30 @@ public class PercentageServiceImplTest {
         // Inject @Value fields
         ReflectionTestUtils.setField(percentageService, "mockPercentage", 10.0);
         ReflectionTestUtils.setField(percentageService, "cacheTtlSeconds", 300L);
+        ReflectionTestUtils.setField(percentageService, "missWaitTimeoutMs", 5_000L);
 
         // Wire opsForValue stub (lenient: not every test needs both read & write)
         lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // The resilience layer is exercised in ExternalCallGuardTest; here it just runs the call
+        lenient().when(externalCallGuard.execute(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    /**
+     * El servicio lee valor y PTTL de Redis con un único script; la respuesta es {@code [valor, pttl]}.
+     */
+    @SuppressWarnings("unchecked")
+    private OngoingStubbing<Object> whenRedisRead() {
+        return when(redisTemplate.execute(any(RedisScript.class), eq(List.of(CACHE_KEY))));
+    }
+
+    private static List<Object> redisReply(Object value, long pttlMillis) {
+        return Arrays.asList(value, pttlMillis);
     }
 
     // -------------------------------------------------------------------------
@@ -50,7 +106,7 @@ public class PercentageServiceImplTest {
     @Test
     @DisplayName("getPercentage: returns cached value when Redis has it (cache HIT)")
     void getPercentage_cacheHit_returnsCachedValue() {
-        when(valueOperations.get(CACHE_KEY)).thenReturn("25.0");
+        whenRedisRead().thenReturn(redisReply("25.0", 120_000L));
 
         Double result = percentageService.getPercentage();
 
@@ -60,7 +116,7 @@ public class PercentageServiceImplTest {
     @Test
     @DisplayName("getPercentage: does NOT call external service on cache HIT")
     void getPercentage_cacheHit_doesNotCallExternalService() {
-        when(valueOperations.get(CACHE_KEY)).thenReturn("25.0");
+        whenRedisRead().thenReturn(redisReply("25.0", 120_000L));
 
         // Spy so we can verify fetchFromExternalService is never invoked
         PercentageServiceImpl spy = spy(percentageService);
@@ -72,11 +128,47 @@ public class PercentageServiceImplTest {
     @Test
     @DisplayName("getPercentage: parses integer-like string from cache correctly")
     void getPercentage_cacheHit_parsesIntegerString() {
-        when(valueOperations.get(CACHE_KEY)).thenReturn("5");
+        whenRedisRead().thenReturn(redisReply("5", 120_000L));
 
         assertThat(percentageService.getPercentage()).isEqualTo(5.0);
     }
 
+    @Test
+    @DisplayName("getPercentage: stores the Redis value in the near cache with the PTTL read in the same round trip")
+    void getPercentage_cacheHit_populatesNearCacheWithRemainingTtl() {
+        whenRedisRead().thenReturn(redisReply("25.0", 120_000L));
+
+        percentageService.getPercentage();
+
+        verify(nearCache).put(25.0, Duration.ofMillis(120_000L));
+        verify(redisTemplate, never()).getExpire(any(), any());
+    }
+
+    @Test
+    @DisplayName("getPercentage: a Redis key without expiry fills the near cache with the configured TTL")
+    void getPercentage_cacheHitWithoutExpiry_usesConfiguredTtl() {
+        whenRedisRead().thenReturn(redisReply("25.0", -1L));
+
+        percentageService.getPercentage();
+
+        verify(nearCache).put(25.0, Duration.ofSeconds(300L));
+    }
+
+    // -------------------------------------------------------------------------
+    // getPercentage – near cache HIT
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("getPercentage: returns the near cache value without touching Redis")
+    void getPercentage_nearCacheHit_skipsRedis() {
+        when(nearCache.get()).thenReturn(Optional.of(12.5));
+
+        Double result = percentageService.getPercentage();
+
+        assertThat(result).isEqualTo(12.5);
+        verifyNoInteractions(valueOperations);
+    }
+
     // -------------------------------------------------------------------------
     // getPercentage – cache MISS, external service OK
     // -------------------------------------------------------------------------
@@ -84,7 +176,7 @@ public class PercentageServiceImplTest {
     @Test
     @DisplayName("getPercentage: calls external service on cache MISS and returns its value")
     void getPercentage_cacheMiss_externalOk_returnsExternalValue() {
-        when(valueOperations.get(CACHE_KEY)).thenReturn(null);
+        whenRedisRead().thenReturn(redisReply(null, -2L));
 
         Double result = percentageService.getPercentage();
 
@@ -94,7 +186,7 @@ public class PercentageServiceImplTest {
     @Test
     @DisplayName("getPercentage: stores value in Redis with TTL after fetching from external service")
     void getPercentage_cacheMiss_externalOk_storesInRedisTtl() {
-        when(valueOperations.get(CACHE_KEY)).thenReturn(null);
+        whenRedisRead().thenReturn(redisReply(null, -2L));
 
         percentageService.getPercentage();
 
@@ -102,6 +194,166 @@ public class PercentageServiceImplTest {
                 .set(CACHE_KEY, 10.0, Duration.ofSeconds(300L));
     }
 
+    @Test
+    @DisplayName("getPercentage: refreshes the near cache and notifies other nodes after an external fetch")
+    void getPercentage_cacheMiss_externalOk_publishesInvalidation() {
+        whenRedisRead().thenReturn(redisReply(null, -2L));
+
+        percentageService.getPercentage();
+
+        verify(nearCache).put(10.0, Duration.ofSeconds(300L));
+        verify(nearCache).publishInvalidation();
+    }
+
+    // -------------------------------------------------------------------------
+    // getPercentage – concurrent cache MISSES (single-flight)
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("getPercentage: 1,000 simultaneous misses trigger exactly one external call and one Redis SET")
+    void getPercentage_concurrentMisses_triggerSingleExternalCall() throws Exception {
+        AtomicReference<Object> redisValue = new AtomicReference<>();
+        whenRedisRead().thenAnswer(invocation -> redisReply(redisValue.get(), redisValue.get() == null ? -2L : 300_000L));
+        doAnswer(invocation -> {
+            redisValue.set(invocation.getArgument(1));
+            return null;
+        }).when(valueOperations).set(eq(CACHE_KEY), any(), any(Duration.class));
+
+        PercentageServiceImpl spy = spy(percentageService);
+        AtomicInteger externalCalls = new AtomicInteger();
+        doAnswer(invocation -> {
+            externalCalls.incrementAndGet();
+            Thread.sleep(300);
+            return 10.0;
+        }).when(spy).fetchFromExternalService();
+
+        int callers = 1_000;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch ready = new CountDownLatch(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Double>> results = new ArrayList<>(callers);
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return spy.getPercentage();
+                }));
+            }
+            ready.await();
+            start.countDown();
+
+            for (Future<Double> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(10.0);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(externalCalls).hasValue(1);
+        verify(valueOperations, times(1)).set(CACHE_KEY, 10.0, Duration.ofSeconds(300L));
+    }
+
+    @Test
+    @DisplayName("getPercentage: the load leader re-reads Redis and skips the external call when a previous load just wrote it")
+    void getPercentage_leaderFindsValueOnRecheck_skipsExternalCall() {
+        PercentageServiceImpl spy = spy(percentageService);
+        whenRedisRead().thenReturn(redisReply(null, -2L), redisReply("25.0", 120_000L));
+
+        assertThat(spy.getPercentage()).isEqualTo(25.0);
+
+        verify(spy, never()).fetchFromExternalService();
+        verify(valueOperations, never()).set(eq(CACHE_KEY), any(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("refreshPercentage: always reloads from the external service even while Redis still holds a value")
+    void refreshPercentage_doesNotShortCircuitOnCachedValue() {
+        PercentageServiceImpl spy = spy(percentageService);
+
+        assertThat(spy.refreshPercentage()).isEqualTo(10.0);
+
+        verify(spy).fetchFromExternalService();
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList());
+    }
+
+    @Test
+    @DisplayName("getPercentage: waiting callers fall back to the backup when the in-flight load exceeds the timeout")
+    void getPercentage_inFlightTimeout_fallsBackToBackup() throws Exception {
+        ReflectionTestUtils.setField(percentageService, "missWaitTimeoutMs", 50L);
+        whenRedisRead().thenReturn(redisReply(null, -2L));
+        when(valueOperations.get(BACKUP_CACHE_KEY)).thenReturn("15.0");
+
+        PercentageServiceImpl spy = spy(percentageService);
+        CountDownLatch leaderInside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            leaderInside.countDown();
+            release.await();
+            return 10.0;
+        }).when(spy).fetchFromExternalService();
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Double> leader = pool.submit(spy::getPercentage);
+            leaderInside.await();
+
+            assertThat(spy.getPercentage()).isEqualTo(15.0);
+
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(10.0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // getPercentage – cluster-wide refresh lock
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("getPercentage: lease holder writes the new value fenced by its token and releases the lease")
+    void getPercentage_refreshLockAcquired_writesFencedAndReleases() {
+        PercentageRefreshLock.Lease lease = new PercentageRefreshLock.Lease(7L);
+        whenRedisRead().thenReturn(redisReply(null, -2L));
+        when(refreshLock.isEnabled()).thenReturn(true);
+        when(refreshLock.tryAcquire()).thenReturn(Optional.of(lease));
+        when(refreshLock.writeFenced(lease, CACHE_KEY, 10.0, Duration.ofSeconds(300L))).thenReturn(true);
+
+        assertThat(percentageService.getPercentage()).isEqualTo(10.0);
+
+        verify(valueOperations, never()).set(eq(CACHE_KEY), any(), any(Duration.class));
+        verify(nearCache).publishInvalidation();
+        verify(refreshLock).release(lease);
+    }
+
+    @Test
+    @DisplayName("getPercentage: node without the lease serves the previous value and skips the external call")
+    void getPercentage_refreshLockContended_servesStaleValue() {
+        PercentageServiceImpl spy = spy(percentageService);
+        whenRedisRead().thenReturn(redisReply(null, -2L));
+        when(refreshLock.isEnabled()).thenReturn(true);
+        when(refreshLock.tryAcquire()).thenReturn(Optional.empty());
+        when(nearCache.getStale()).thenReturn(Optional.of(9.0));
+
+        assertThat(spy.getPercentage()).isEqualTo(9.0);
+
+        verify(spy, never()).fetchFromExternalService();
+    }
+
+    @Test
+    @DisplayName("getPercentage: node without the lease and without a previous value serves the backup")
+    void getPercentage_refreshLockContended_servesBackup() {
+        whenRedisRead().thenReturn(redisReply(null, -2L));
+        when(valueOperations.get(BACKUP_CACHE_KEY)).thenReturn("15.0");
+        when(refreshLock.isEnabled()).thenReturn(true);
+        when(refreshLock.tryAcquire()).thenReturn(Optional.empty());
+
+        assertThat(percentageService.getPercentage()).isEqualTo(15.0);
+
+        verify(refreshLock, never()).awaitValue(any());
+    }
+
     // -------------------------------------------------------------------------
     // getPercentage – cache MISS, external service FAILS, backup available
     // -------------------------------------------------------------------------
@@ -110,7 +362,7 @@ public class PercentageServiceImplTest {
     @DisplayName("getPercentage: returns backup value when external service fails and backup exists")
     void getPercentage_cacheMiss_externalFails_backupAvailable_returnsBackup() {
         PercentageServiceImpl spy = spy(percentageService);
-        when(valueOperations.get(CACHE_KEY)).thenReturn(null);
+        whenRedisRead().thenReturn(redisReply(null, -2L));
         doThrow(new RuntimeException("timeout")).when(spy).fetchFromExternalService();
         when(valueOperations.get(BACKUP_CACHE_KEY)).thenReturn("15.0");
 
@@ -123,7 +375,7 @@ public class PercentageServiceImplTest {
     @DisplayName("getPercentage: does NOT throw when backup is available")
     void getPercentage_cacheMiss_externalFails_backupAvailable_doesNotThrow() {
         PercentageServiceImpl spy = spy(percentageService);
-        when(valueOperations.get(CACHE_KEY)).thenReturn(null);
+        whenRedisRead().thenReturn(redisReply(null, -2L));
         doThrow(new RuntimeException("timeout")).when(spy).fetchFromExternalService();
         when(valueOperations.get(BACKUP_CACHE_KEY)).thenReturn("20.0");
 
@@ -131,6 +383,18 @@ public class PercentageServiceImplTest {
     }
 
 
+    @Test
+    @DisplayName("getPercentage: serves the backup straight away when the resilience layer rejects the call")
+    void getPercentage_cacheMiss_circuitOpen_returnsBackup() {
+        whenRedisRead().thenReturn(redisReply(null, -2L));
+        when(valueOperations.get(BACKUP_CACHE_KEY)).thenReturn("15.0");
+        doThrow(new ExternalServiceUnavailableException("Circuit breaker abierto"))
+                .when(externalCallGuard).execute(any());
+
+        assertThat(percentageService.getPercentage()).isEqualTo(15.0);
+        verify(valueOperations, never()).set(eq(CACHE_KEY), any(), any(Duration.class));
+    }
+
     // -------------------------------------------------------------------------
     // fetchFromExternalService
     // -------------------------------------------------------------------------
@@ -149,6 +413,27 @@ public class PercentageServiceImplTest {
         assertThat(percentageService.fetchFromExternalService()).isEqualTo(99.5);
     }
 
+    @Test
+    @DisplayName("fetchFromExternalService: uses the configured HTTP provider when there is one")
+    void fetchFromExternalService_withProvider_returnsProviderValue() {
+        when(percentageProvider.getIfAvailable()).thenReturn(httpProvider);
+        when(httpProvider.fetchPercentage()).thenReturn(CompletableFuture.completedFuture(12.0));
+
+        assertThat(percentageService.fetchFromExternalService()).isEqualTo(12.0);
+    }
+
+    @Test
+    @DisplayName("fetchFromExternalService: wraps provider failures as ExternalServiceUnavailableException")
+    void fetchFromExternalService_providerFails_throws() {
+        when(percentageProvider.getIfAvailable()).thenReturn(httpProvider);
+        when(httpProvider.fetchPercentage())
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("HTTP 503")));
+
+        assertThatThrownBy(() -> percentageService.fetchFromExternalService())
+                .isInstanceOf(ExternalServiceUnavailableException.class)
+                .hasMessageContaining("HTTP 503");
+    }
+
     // -------------------------------------------------------------------------
     // saveBackupPercentage
     // -------------------------------------------------------------------------
@@ -0,0 +1,160 @@
+package com.tenpo.challenge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.dto.CallProjection;
+import com.tenpo.challenge.dto.CallSortKey;
+import com.tenpo.challenge.dto.ExportFormat;
+import com.tenpo.challenge.repository.R2dbcCallRepository;
+import com.tenpo.challenge.service.impl.R2dbcCallServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class R2dbcCallServiceImplTest {
+
+    @Mock
+    private R2dbcCallRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private R2dbcCallServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new R2dbcCallServiceImpl(repository, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(service, "queueCapacity", 64);
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        ReflectionTestUtils.setField(service, "flushIntervalMs", 20L);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.stop();
+    }
+
+    private static CallDTO call(double num1) {
+        return CallDTO.builder()
+                .timestamp(LocalDateTime.now().toString())
+                .endpoint("/api/calculate")
+                .num1(num1)
+                .num2(1.0)
+                .result(num1 + 1.0)
+                .success(true)
+                .build();
+    }
+
+    private static CallProjection row(int i) {
+        return new CallProjection(UUID.randomUUID(), LocalDateTime.of(2026, 1, 1, 0, 0).plusSeconds(i),
+                "/api/calculate", (double) i, 1.0, 10.0, (i + 1.0) * 1.1, null, true);
+    }
+
+    // -------------------------------------------------------------------------
+    // saveCall
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("saveCall: concurrent saves are grouped into one insert and each completes with its call")
+    void saveCall_concurrentSaves_shareOneInsert() {
+        when(repository.insertAll(anyList())).thenAnswer(invocation ->
+                Mono.just((long) invocation.<List<CallDTO>>getArgument(0).size()));
+
+        List<CompletableFuture<CallDTO>> saved = IntStream.range(0, 20)
+                .mapToObj(i -> service.saveCall(call(i)).toFuture())
+                .toList();
+
+        assertThat(saved).allSatisfy(future -> assertThat(future.join()).isNotNull());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CallDTO>> batch = ArgumentCaptor.forClass(List.class);
+        // atMost(n) no alimenta al captor: se verifica con atLeastOnce y se acota el número de lotes aparte
+        verify(repository, atLeastOnce()).insertAll(batch.capture());
+        assertThat(batch.getAllValues()).hasSizeLessThanOrEqualTo(2);
+        assertThat(batch.getAllValues().stream().mapToInt(List::size).sum()).isEqualTo(20);
+        assertThat(meterRegistry.counter("history.r2dbc.inserted").count()).isEqualTo(20.0);
+    }
+
+    @Test
+    @DisplayName("saveCall: a failed insert fails every call of the batch")
+    void saveCall_insertFails_propagatesError() {
+        when(repository.insertAll(anyList())).thenReturn(Mono.error(new IllegalStateException("connection reset")));
+
+        assertThatThrownBy(() -> service.saveCall(call(1)).block()).hasMessage("connection reset");
+
+        assertThat(meterRegistry.counter("history.r2dbc.insert_failures").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("saveCall: rejects immediately once the queue is full instead of waiting")
+    void saveCall_queueFull_rejects() {
+        when(repository.insertAll(anyList())).thenReturn(Mono.just(50L).delayElement(Duration.ofMillis(200)));
+
+        List<CompletableFuture<CallDTO>> saved = IntStream.range(0, 500)
+                .mapToObj(i -> service.saveCall(call(i)).toFuture())
+                .toList();
+
+        assertThat(saved).anySatisfy(future -> assertThat(future).isCompletedExceptionally());
+        assertThat(meterRegistry.counter("history.r2dbc.rejected").count()).isPositive();
+    }
+
+    // -------------------------------------------------------------------------
+    // reads
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("getPaginatedCalls: combines the page rows with the total count")
+    void getPaginatedCalls_combinesRowsAndCount() {
+        when(repository.findPage(CallSortKey.TIMESTAMP, 10, 10L)).thenReturn(Flux.range(0, 10).map(i -> row(i)));
+        when(repository.count()).thenReturn(Mono.just(35L));
+
+        Page<CallDTO> page = service.getPaginatedCalls(2, 10, "timestamp").block();
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(35L);
+        assertThat(page.getNumber()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("exportCalls: CSV starts with the header and groups rows into chunks")
+    void exportCalls_csv_headerAndChunks() {
+        when(repository.streamAll(anyInt())).thenReturn(Flux.range(0, 300).map(i -> row(i)));
+
+        List<String> chunks = service.exportCalls(ExportFormat.CSV).collectList().block();
+
+        assertThat(chunks.get(0)).isEqualTo("id,timestamp,endpoint,num1,num2,percentage,result,errorMessage,success\n");
+        assertThat(chunks).hasSize(3);
+        assertThat(String.join("", chunks).lines()).hasSize(301);
+    }
+
+    @Test
+    @DisplayName("exportCalls: NDJSON writes one JSON object per line")
+    void exportCalls_ndjson_oneObjectPerLine() {
+        when(repository.streamAll(anyInt())).thenReturn(Flux.range(0, 3).map(i -> row(i)));
+
+        String body = String.join("", service.exportCalls(ExportFormat.NDJSON).collectList().block());
+
+        assertThat(body.lines()).hasSize(3).allSatisfy(line -> assertThat(line).startsWith("{\"id\""));
+    }
+}
@@ -0,0 +1,160 @@
+package com.tenpo.challenge.service;
+
+import com.tenpo.challenge.dto.CalculateBatchResponseDTO;
+import com.tenpo.challenge.dto.CalculatePairDTO;
+import com.tenpo.challenge.dto.CalculateResponseDTO;
+import com.tenpo.challenge.dto.CallDTO;
+import com.tenpo.challenge.exception.PercentageUnavailableException;
+import com.tenpo.challenge.service.impl.ReactiveCalculatorServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveCalculatorServiceImplTest {
+
+    @Mock
+    private ReactivePercentageService percentageService;
+
+    @Mock
+    private CallService callService;
+
+    @InjectMocks
+    private ReactiveCalculatorServiceImpl calculatorService;
+
+    // -------------------------------------------------------------------------
+    // calculatePercentage
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("calculatePercentage: nothing runs until the Mono is subscribed")
+    void calculatePercentage_isLazy() {
+        when(percentageService.getPercentage()).thenReturn(Mono.just(10.0));
+
+        calculatorService.calculatePercentage(100.0, 50.0);
+
+        verify(percentageService, never()).saveBackupPercentage(any());
+        verifyNoInteractions(callService);
+    }
+
+    @Test
+    @DisplayName("calculatePercentage: emits the result, saves the backup and queues a success call")
+    void calculatePercentage_success() {
+        when(percentageService.getPercentage()).thenReturn(Mono.just(10.0));
+        when(percentageService.saveBackupPercentage(10.0)).thenReturn(Mono.empty());
+
+        CalculateResponseDTO response = calculatorService.calculatePercentage(100.0, 50.0).block();
+
+        assertThat(response.getResult()).isEqualTo(165.0);
+        ArgumentCaptor<CallDTO> callCaptor = ArgumentCaptor.forClass(CallDTO.class);
+        verify(callService, timeout(1_000)).saveCall(callCaptor.capture());
+        CallDTO savedCall = callCaptor.getValue();
+        assertThat(savedCall.getEndpoint()).isEqualTo("/api/calculate");
+        assertThat(savedCall.getSuccess()).isTrue();
+        assertThat(savedCall.getPercentage()).isEqualTo(10.0);
+        assertThat(savedCall.getResult()).isEqualTo(165.0);
+        assertThat(savedCall.getId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("calculatePercentage: does not wait for the history write to complete")
+    void calculatePercentage_historyIsFireAndForget() {
+        when(percentageService.getPercentage()).thenReturn(Mono.just(10.0));
+        when(percentageService.saveBackupPercentage(10.0)).thenReturn(Mono.empty());
+        when(callService.saveCall(any())).thenReturn(new CompletableFuture<>());
+
+        assertThat(calculatorService.calculatePercentage(1.0, 1.0).block().getResult()).isEqualTo(2.2);
+        verify(callService, timeout(1_000)).saveCall(any());
+    }
+
+    @Test
+    @DisplayName("calculatePercentage: unavailable percentage queues a failed call and propagates the error")
+    void calculatePercentage_unavailable_savesFailedCall() {
+        when(percentageService.getPercentage())
+                .thenReturn(Mono.error(new PercentageUnavailableException("sin porcentaje")));
+
+        assertThatThrownBy(() -> calculatorService.calculatePercentage(100.0, 50.0).block())
+                .isInstanceOf(PercentageUnavailableException.class);
+
+        ArgumentCaptor<CallDTO> callCaptor = ArgumentCaptor.forClass(CallDTO.class);
+        verify(callService, timeout(1_000)).saveCall(callCaptor.capture());
+        assertThat(callCaptor.getValue().getSuccess()).isFalse();
+        assertThat(callCaptor.getValue().getErrorMessage()).isEqualTo("sin porcentaje");
+        verify(percentageService, never()).saveBackupPercentage(any());
+    }
+
+    // -------------------------------------------------------------------------
+    // calculatePercentages
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("calculatePercentages: one lookup and one backup for the batch, history in a single saveCalls")
+    void calculatePercentages_success() {
+        when(percentageService.getPercentage()).thenReturn(Mono.just(10.0));
+        when(percentageService.saveBackupPercentage(10.0)).thenReturn(Mono.empty());
+
+        CalculateBatchResponseDTO response = calculatorService.calculatePercentages(
+                List.of(new CalculatePairDTO(100.0, 50.0), new CalculatePairDTO(10.0, 10.0))).block();
+
+        assertThat(response.getResults()).containsExactly(165.0, 22.0);
+        verify(percentageService, times(1)).getPercentage();
+        verify(percentageService, times(1)).saveBackupPercentage(10.0);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CallDTO>> callsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(callService, timeout(1_000)).saveCalls(callsCaptor.capture());
+        assertThat(callsCaptor.getValue()).extracting(CallDTO::getEndpoint)
+                .containsOnly("/api/calculate/batch");
+    }
+
+    @Test
+    @DisplayName("calculatePercentages: unavailable percentage queues one failed call per pair")
+    void calculatePercentages_unavailable_savesFailedCalls() {
+        when(percentageService.getPercentage())
+                .thenReturn(Mono.error(new PercentageUnavailableException("sin porcentaje")));
+
+        assertThatThrownBy(() -> calculatorService.calculatePercentages(
+                List.of(new CalculatePairDTO(1.0, 2.0), new CalculatePairDTO(3.0, 4.0))).block())
+                .isInstanceOf(PercentageUnavailableException.class);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CallDTO>> callsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(callService, timeout(1_000)).saveCalls(callsCaptor.capture());
+        assertThat(callsCaptor.getValue()).hasSize(2).extracting(CallDTO::getSuccess).containsOnly(false);
+    }
+
+    @Test
+    @DisplayName("calculatePercentage: a blocking history write runs off the thread that completes the Mono")
+    void calculatePercentage_historyRunsOffTheCallingThread() {
+        when(percentageService.getPercentage()).thenReturn(Mono.just(10.0));
+        when(percentageService.saveBackupPercentage(10.0)).thenReturn(Mono.empty());
+        AtomicReference<Thread> historyThread = new AtomicReference<>();
+        CountDownLatch release = new CountDownLatch(1);
+        when(callService.saveCall(any())).thenAnswer(invocation -> {
+            historyThread.set(Thread.currentThread());
+            release.await(5, TimeUnit.SECONDS);
+            return CompletableFuture.completedFuture(invocation.getArgument(0));
+        });
+
+        try {
+            assertThat(calculatorService.calculatePercentage(1.0, 1.0).block().getResult()).isEqualTo(2.2);
+            verify(callService, timeout(1_000)).saveCall(any());
+            assertThat(historyThread.get()).isNotSameAs(Thread.currentThread());
+        } finally {
+            release.countDown();
+        }
+    }
+}
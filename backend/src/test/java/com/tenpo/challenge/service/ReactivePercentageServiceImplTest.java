@@ -0,0 +1,135 @@
+package com.tenpo.challenge.service;
+
+import com.tenpo.challenge.cache.PercentageNearCache;
+import com.tenpo.challenge.exception.PercentageUnavailableException;
+import com.tenpo.challenge.service.impl.ReactivePercentageServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactivePercentageServiceImplTest {
+
+    private static final String CACHE_KEY        = "external:percentage";
+    private static final String BACKUP_CACHE_KEY = "external:percentage:backup";
+
+    @Mock
+    private ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private PercentageNearCache nearCache;
+
+    @Mock
+    private PercentageService percentageService;
+
+    @InjectMocks
+    private ReactivePercentageServiceImpl reactivePercentageService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reactivePercentageService, "cacheTtlSeconds", 1800L);
+    }
+
+    // -------------------------------------------------------------------------
+    // getPercentage
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("getPercentage: near cache hit answers without touching Redis")
+    void getPercentage_nearCacheHit_skipsRedis() {
+        when(nearCache.get()).thenReturn(Optional.of(12.5));
+
+        assertThat(reactivePercentageService.getPercentage().block()).isEqualTo(12.5);
+
+        verifyNoInteractions(reactiveRedisTemplate, percentageService);
+    }
+
+    @Test
+    @DisplayName("getPercentage: Redis hit fills the near cache with the remaining TTL")
+    void getPercentage_redisHit_fillsNearCache() {
+        when(nearCache.get()).thenReturn(Optional.empty());
+        when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(CACHE_KEY)).thenReturn(Mono.just(15.0));
+        when(reactiveRedisTemplate.getExpire(CACHE_KEY)).thenReturn(Mono.just(Duration.ofSeconds(90)));
+
+        assertThat(reactivePercentageService.getPercentage().block()).isEqualTo(15.0);
+
+        verify(nearCache).put(15.0, Duration.ofSeconds(90));
+        verifyNoInteractions(percentageService);
+    }
+
+    @Test
+    @DisplayName("getPercentage: Redis key without expiry is kept locally for the configured TTL")
+    void getPercentage_redisHitWithoutExpiry_usesCacheTtl() {
+        when(nearCache.get()).thenReturn(Optional.empty());
+        when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(CACHE_KEY)).thenReturn(Mono.just(15.0));
+        when(reactiveRedisTemplate.getExpire(CACHE_KEY)).thenReturn(Mono.just(Duration.ZERO));
+
+        reactivePercentageService.getPercentage().block();
+
+        verify(nearCache).put(15.0, Duration.ofSeconds(1800));
+    }
+
+    @Test
+    @DisplayName("getPercentage: Redis miss loads through the blocking service off the caller thread")
+    void getPercentage_redisMiss_delegatesOffCallerThread() {
+        AtomicReference<Thread> loader = new AtomicReference<>();
+        when(nearCache.get()).thenReturn(Optional.empty());
+        when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(CACHE_KEY)).thenReturn(Mono.empty());
+        when(percentageService.getPercentage()).thenAnswer(invocation -> {
+            loader.set(Thread.currentThread());
+            return 10.5;
+        });
+
+        assertThat(reactivePercentageService.getPercentage().block()).isEqualTo(10.5);
+
+        assertThat(loader.get()).isNotSameAs(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("getPercentage: an unavailable percentage surfaces as an error signal")
+    void getPercentage_unavailable_emitsError() {
+        when(nearCache.get()).thenReturn(Optional.empty());
+        when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(CACHE_KEY)).thenReturn(Mono.empty());
+        when(percentageService.getPercentage()).thenThrow(new PercentageUnavailableException("sin porcentaje"));
+
+        assertThatThrownBy(() -> reactivePercentageService.getPercentage().block())
+                .isInstanceOf(PercentageUnavailableException.class);
+    }
+
+    // -------------------------------------------------------------------------
+    // saveBackupPercentage
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("saveBackupPercentage: writes the backup key with a non-blocking SET")
+    void saveBackupPercentage_setsBackupKey() {
+        when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.set(BACKUP_CACHE_KEY, 10.0)).thenReturn(Mono.just(true));
+
+        reactivePercentageService.saveBackupPercentage(10.0).block();
+
+        verify(valueOperations).set(BACKUP_CACHE_KEY, 10.0);
+    }
+}
@@ -25,7 +25,14 @@ function paginatedHistoryReducer(state, action) {
     case SET_ERROR:
       return { ...state, error: action.payload };
     case SET_CALLS:
-      return { ...state, calls: action.payload.content };
+      return {
+        ...state,
+        calls: action.payload.content,
+        total: action.payload.estimatedTotal ?? state.total,
+        totalPages: action.payload.estimatedTotalPages ?? state.totalPages,
+        hasNextPage: action.payload.hasNext,
+        hasPreviousPage: action.payload.page > 1,
+      };
     case SET_PAGE:
       return { ...state, page: action.payload };
     case SET_LIMIT:
@@ -1,5 +1,5 @@
 import { http } from "./httpclient";
 
 export async function getPaginatedHistory(page, limit) {
-    return http(`/calls/paginated?page=${page}&size=${limit}`);
+    return http(`/calls/paginated/slice?page=${page}&size=${limit}&withTotal=true`);
 }
\ No newline at end of file